@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2021 jdlib, https://github.com/jdlib
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package deepdive.bench;
+
+
+import static deepdive.ExpectThat.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import deepdive.actual.java.util.ListActual;
+
+
+/**
+ * Benchmarks {@link deepdive.actual.Actual#equal(Object)} and navigation chains
+ * like <code>ListActual.elem(i).equal(..).back()</code>.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ActualBenchmark
+{
+	@Param({ "10", "1000" })
+	public int size;
+	public List<String> list;
+	public String value;
+	public int index;
+	public ListActual<String,List<String>,?,?> listActual;
+
+
+	@Setup public void setup()
+	{
+		list = new ArrayList<>(size);
+		for (int i=0; i<size; i++)
+			list.add("elem" + i);
+		value = "value";
+		index = size / 2;
+		listActual = expectThat(list).reuseChildren();
+	}
+
+
+	@Benchmark public Object equalPass()
+	{
+		return expectThat(value).equal("value");
+	}
+
+
+	@Benchmark public Object equalFail()
+	{
+		return Fail.catchMessage(() -> expectThat(value).equal("other"));
+	}
+
+
+	@Benchmark public Object elemChainPass()
+	{
+		return expectThat(list)
+			.elem(index).equal(list.get(index)).back()
+			.elem(0).equal("elem0").back()
+			.size(size);
+	}
+
+
+	/**
+	 * Like {@link #elemChainPass()} but navigates from an existing root Actual
+	 * which reuses its released element Actuals.
+	 */
+	@Benchmark public Object elemChainReusedPass()
+	{
+		return listActual
+			.elem(index).equal(list.get(index)).back()
+			.elem(0).equal("elem0").back()
+			.size(size);
+	}
+
+
+	@Benchmark public Object elemChainFail()
+	{
+		return Fail.catchMessage(() -> expectThat(list)
+			.elem(0).equal("elem0").back()
+			.elem(index).equal("other"));
+	}
+
+
+	@Benchmark public Object lengthChainPass()
+	{
+		return expectThat(value).length().greater(1).less(10).back().startsWith("v");
+	}
+}
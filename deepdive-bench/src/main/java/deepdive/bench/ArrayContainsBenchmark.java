@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2021 jdlib, https://github.com/jdlib
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package deepdive.bench;
+
+
+import static deepdive.ExpectThat.*;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Benchmarks <code>ContainsActual.allOf</code> and <code>exactly</code>
+ * on primitive int and long arrays.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ArrayContainsBenchmark
+{
+	@Param({ "100", "100000" })
+	public int size;
+	public int[] intActual;
+	public int[] intExpected;
+	public long[] longActual;
+	public long[] longExpected;
+
+
+	@Setup public void setup()
+	{
+		intActual  = new int[size];
+		longActual = new long[size];
+		for (int i=0; i<size; i++)
+		{
+			intActual[i]  = size - i;
+			longActual[i] = (size - i) * 31L;
+		}
+		intExpected  = intActual.clone();
+		longExpected = longActual.clone();
+		Arrays.sort(intExpected);
+		Arrays.sort(longExpected);
+	}
+
+
+	@Benchmark public Object intAllOf()
+	{
+		return expectThat(intActual).contains().allOf(intExpected);
+	}
+
+
+	@Benchmark public Object intExactly()
+	{
+		return expectThat(intActual).contains().exactly(intExpected);
+	}
+
+
+	@Benchmark public Object longAllOf()
+	{
+		return expectThat(longActual).contains().allOf(longExpected);
+	}
+
+
+	@Benchmark public Object longExactly()
+	{
+		return expectThat(longActual).contains().exactly(longExpected);
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2021 jdlib, https://github.com/jdlib
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package deepdive.bench;
+
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import deepdive.impl.Value;
+
+
+/**
+ * Benchmarks {@link Value#arraysEqual(Object, Object, boolean)} for primitive and object arrays.
+ * The fail path compares arrays which differ in their last element.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ArraysEqualBenchmark
+{
+	@Param({ "100", "100000" })
+	public int size;
+	public long[] longs1;
+	public long[] longs2;
+	public long[] longsDiff;
+	public String[] strings1;
+	public String[] strings2;
+	public String[] stringsDiff;
+
+
+	@Setup public void setup()
+	{
+		longs1 		= new long[size];
+		strings1 	= new String[size];
+		for (int i=0; i<size; i++)
+		{
+			longs1[i] 	= i;
+			strings1[i] = String.valueOf(i);
+		}
+		longs2 		= longs1.clone();
+		longsDiff 	= longs1.clone();
+		longsDiff[size - 1] = -1;
+		strings2 	= strings1.clone();
+		stringsDiff = strings1.clone();
+		stringsDiff[size - 1] = "x";
+	}
+
+
+	@Benchmark public boolean primitivePass()
+	{
+		return Value.arraysEqual(longs1, longs2, true);
+	}
+
+
+	@Benchmark public boolean primitiveFail()
+	{
+		return Value.arraysEqual(longs1, longsDiff, true);
+	}
+
+
+	@Benchmark public boolean objectPass()
+	{
+		return Value.arraysEqual(strings1, strings2, true);
+	}
+
+
+	@Benchmark public boolean objectFail()
+	{
+		return Value.arraysEqual(strings1, stringsDiff, true);
+	}
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2021 jdlib, https://github.com/jdlib
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package deepdive.bench;
+
+
+import java.util.Arrays;
+
+
+/**
+ * Runs the DeepDive benchmarks.
+ * Arguments are passed to the JMH command line runner. 
+ * Unless a profiler is specified, the GC profiler (<code>-prof gc</code>) is added
+ * to report allocation rates.
+ */
+public class BenchMain
+{
+	public static void main(String[] args) throws Exception
+	{
+		if (!Arrays.asList(args).contains("-prof"))
+		{
+			String[] withGc = Arrays.copyOf(args, args.length + 2);
+			withGc[args.length] 	= "-prof";
+			withGc[args.length + 1] = "gc";
+			args = withGc;
+		}
+		org.openjdk.jmh.Main.main(args);
+	}
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2021 jdlib, https://github.com/jdlib
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package deepdive.bench;
+
+
+import static deepdive.ExpectThat.*;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Benchmarks <code>ContainerActual.ContainsActual.allOf</code> and <code>exactly</code>
+ * on a list actual.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ContainsBenchmark
+{
+	@Param({ "100", "10000" })
+	public int size;
+	public List<Integer> actual;
+	public List<Integer> expected;
+	public List<Integer> expectedMissing;
+	public Set<Integer> exactly;
+	public Set<Integer> exactlyMissing;
+
+
+	@Setup public void setup()
+	{
+		actual = new ArrayList<>(size);
+		for (int i=0; i<size; i++)
+			actual.add(Integer.valueOf(i));
+		
+		// every 10th element
+		expected = new ArrayList<>();
+		for (int i=0; i<size; i+=10)
+			expected.add(Integer.valueOf(i));
+		expectedMissing = new ArrayList<>(expected);
+		expectedMissing.add(Integer.valueOf(-1));
+		
+		exactly = new LinkedHashSet<>(actual);
+		exactlyMissing = new LinkedHashSet<>(actual);
+		exactlyMissing.remove(Integer.valueOf(size / 2));
+		exactlyMissing.add(Integer.valueOf(-1));
+	}
+
+
+	@Benchmark public Object allOfPass()
+	{
+		return expectThat(actual).contains().allOf(expected);
+	}
+
+
+	@Benchmark public Object allOfFail()
+	{
+		return Fail.catchMessage(() -> expectThat(actual).contains().allOf(expectedMissing));
+	}
+
+
+	@Benchmark public Object exactlyPass()
+	{
+		return expectThat(actual).contains().exactly(exactly);
+	}
+
+
+	@Benchmark public Object exactlyFail()
+	{
+		return Fail.catchMessage(() -> expectThat(actual).contains().exactly(exactlyMissing));
+	}
+}
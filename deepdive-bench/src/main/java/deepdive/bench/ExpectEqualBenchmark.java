@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2021 jdlib, https://github.com/jdlib
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package deepdive.bench;
+
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import deepdive.ExpectStatic;
+
+
+/**
+ * Benchmarks the primitive and boxed overloads of {@link ExpectStatic#expectEqual(int, int)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ExpectEqualBenchmark
+{
+	public int expected = 42;
+	public int actual = 42;
+	public int other = 43;
+	public Integer expectedBoxed = Integer.valueOf(1042);
+	public Integer actualBoxed = Integer.valueOf(1042);
+	public Integer otherBoxed = Integer.valueOf(1043);
+
+
+	@Benchmark public int primitivePass()
+	{
+		return ExpectStatic.expectEqual(expected, actual);
+	}
+
+
+	@Benchmark public Object primitiveFail()
+	{
+		return Fail.catchMessage(() -> ExpectStatic.expectEqual(expected, other));
+	}
+
+
+	@Benchmark public Object boxedPass()
+	{
+		return ExpectStatic.expectEqual(expectedBoxed, actualBoxed);
+	}
+
+
+	@Benchmark public Object boxedFail()
+	{
+		return Fail.catchMessage(() -> ExpectStatic.expectEqual(expectedBoxed, otherBoxed));
+	}
+}
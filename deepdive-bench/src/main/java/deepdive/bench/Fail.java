@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2021 jdlib, https://github.com/jdlib
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package deepdive.bench;
+
+
+/**
+ * Helper to run the fail path of an assertion.
+ */
+final class Fail
+{
+	/**
+	 * Runs the assertion and returns the AssertionError which it throws.
+	 * @param assertion an assertion which is expected to fail
+	 * @return the error
+	 * @throws IllegalStateException if the assertion did not fail
+	 */
+	static AssertionError catchError(Runnable assertion)
+	{
+		try
+		{
+			assertion.run();
+		}
+		catch (AssertionError e)
+		{
+			return e;
+		}
+		throw new IllegalStateException("assertion did not fail");
+	}
+	
+	
+	/**
+	 * Runs the assertion and returns the message of the AssertionError which it throws.
+	 * The message is requested since building it is part of the fail path.
+	 * @param assertion an assertion which is expected to fail
+	 * @return the error message
+	 */
+	static String catchMessage(Runnable assertion)
+	{
+		return catchError(assertion).getMessage();
+	}
+	
+	
+	private Fail()
+	{
+	}
+}
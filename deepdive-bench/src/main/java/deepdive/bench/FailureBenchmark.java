@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2021 jdlib, https://github.com/jdlib
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package deepdive.bench;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import deepdive.Failure;
+import deepdive.impl.Not;
+
+
+/**
+ * Benchmarks building the message of a {@link Failure}.
+ * The pass path builds a Failure without requesting its message 
+ * (as done for postponed errors in soft mode which are not reported),
+ * the fail path builds the message.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FailureBenchmark
+{
+	@Param({ "10", "1000" })
+	public int size;
+	public List<String> expected;
+	public List<String> actual;
+
+
+	@Setup public void setup()
+	{
+		expected = new ArrayList<>(size);
+		for (int i=0; i<size; i++)
+			expected.add("elem" + i);
+		actual = new ArrayList<>(expected);
+		actual.set(size - 1, "other");
+	}
+	
+	
+	@Benchmark public Object simplePass()
+	{
+		return new Failure(null).addContext("value").equalness("a", "b", null, Not.OFF);
+	}
+
+
+	@Benchmark public String simpleFail()
+	{
+		return new Failure(null).addContext("value").equalness("a", "b", null, Not.OFF).toString();
+	}
+
+
+	@Benchmark public Object differencePass()
+	{
+		return new Failure(null).addContext("list").equalness(expected, actual, null, Not.OFF);
+	}
+
+
+	@Benchmark public String differenceFail()
+	{
+		return new Failure(null).addContext("list").equalness(expected, actual, null, Not.OFF).toString();
+	}
+}
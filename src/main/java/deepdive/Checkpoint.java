@@ -19,7 +19,11 @@ package deepdive;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Supplier;
+import deepdive.impl.DeferredAssertionError;
+import deepdive.impl.ErrorFactory;
 import deepdive.impl.ExpectBase;
+import deepdive.impl.SoftLimit;
 
 
 /**
@@ -40,16 +44,71 @@ abstract class Checkpoint implements ExpectBase
 	}
 	
 	
-	boolean postponed(AssertionError error)
+	/**
+	 * Collects the error created by the factory. Must only be called on a soft Checkpoint.
+	 * The error is only created if the maximum number of errors of the {@link SoftLimit} is not reached,
+	 * else the failure is only counted.
+	 * @throws SoftModeStop if soft mode should stop according to the SoftLimit
+	 */
+	void postpone(Supplier<AssertionError> factory)
 	{
-		Checkpoint softCp = findSoftCheckpoint(this);
-		if (softCp != null)
+		count(collect() ? new DeferredAssertionError(factory) : null);
+	}
+	
+	
+	/**
+	 * Collects an error. Must only be called on a soft Checkpoint.
+	 * @throws SoftModeStop if soft mode should stop according to the SoftLimit
+	 */
+	void postpone(AssertionError error)
+	{
+		count(collect() ? error : null);
+	}
+	
+	
+	/**
+	 * Counts a failure and returns if its error should be collected.
+	 * A partition Checkpoint keeps its first errors up to the maximum, the errors
+	 * which are finally reported are selected when the partitions are merged.
+	 */
+	private boolean collect()
+	{
+		if (!partition_)
+			return softCounter_.count();
+		softCounter_.countFailure();
+		return softErrors_.size() < softCounter_.getMaxErrors();
+	}
+	
+	
+	private void count(AssertionError error)
+	{
+		if (error != null)
+			softErrors_.add(error);
+		if (!stopped_ && softCounter_.isStopped())
 		{
-			softCp.softErrors_.add(error);
-			return true;
+			stopped_ = true;
+			throw new SoftModeStop();
 		}
-		else
-			return false;
+	}
+	
+	
+	/**
+	 * Adds errors which were already counted and collected by the SoftCounter of this soft Checkpoint.
+	 * @throws SoftModeStop if soft mode should stop according to the SoftLimit
+	 */
+	void addCollected(List<AssertionError> errors)
+	{
+		softErrors_.addAll(errors);
+		count(null);
+	}
+	
+	
+	/**
+	 * Returns the SoftCounter of this soft Checkpoint.
+	 */
+	SoftCounter getSoftCounter()
+	{
+		return softCounter_;
 	}
 	
 	
@@ -59,18 +118,170 @@ abstract class Checkpoint implements ExpectBase
 		{
 			Checkpoint softCp = findSoftCheckpoint(backOrNull());
 			if (softCp == null)
-				softErrors_ = new ArrayList<>();
+				startIsolatedSoftMode(new SoftCounter(SoftLimit.get()), false);
 		}
 	}
 	
 	
+	/**
+	 * Starts soft mode, even if an enclosing Checkpoint is already in soft mode.
+	 * Used for parallel calls which must not share the error list of the enclosing Checkpoint.
+	 * @param counter counts the failures, it is shared by parallel calls to apply the SoftLimit to all of them
+	 * @param partition true if the Checkpoint tests a partition of a parallel call: Failures are counted
+	 * 		by the counter, but the errors are not yet collected by it, see {@link SoftCounter#collect()}.
+	 */
+	void startIsolatedSoftMode(SoftCounter counter, boolean partition)
+	{
+		softErrors_ 	= new ArrayList<>();
+		softCounter_	= counter;
+		partition_		= partition;
+		stopped_		= false;
+	}
+	
+	
+	/**
+	 * Ends soft mode and returns the collected errors,
+	 * with {@link DeferredAssertionError}s resolved.
+	 * If failures were suppressed or soft mode was stopped, 
+	 * an additional error which reports this is appended.
+	 */
 	List<AssertionError> endSoftMode()
+	{
+		if (softErrors_ == null)
+			return Collections.emptyList();
+		List<AssertionError> errors = endIsolatedSoftMode();
+		AssertionError summary = softCounter_.summary();
+		if (summary != null)
+			errors.add(summary);
+		return errors;
+	}
+	
+	
+	/**
+	 * Ends soft mode and returns the collected errors, with {@link DeferredAssertionError}s resolved,
+	 * but without the summary of the SoftCounter.
+	 */
+	List<AssertionError> endIsolatedSoftMode()
 	{
 		List<AssertionError> errors = softErrors_;
 		softErrors_ = null;
-		return errors != null ? errors : Collections.emptyList();
+		if (errors == null)
+			return Collections.emptyList();
+		errors.replaceAll(DeferredAssertionError::resolve);
+		return errors;
+	}
+	
+	
+	/**
+	 * Counts the failures of soft mode and decides according to the {@link SoftLimit} 
+	 * which errors are collected and when soft mode stops. 
+	 * A SoftCounter may be shared by Checkpoints in different threads.
+	 */
+	static final class SoftCounter
+	{
+		SoftCounter(SoftLimit limit)
+		{
+			limit_ = limit;
+			start_ = System.nanoTime();
+		}
+		
+		
+		/**
+		 * Counts a failure.
+		 * @return true if its error should be collected, false if it is suppressed
+		 */
+		synchronized boolean count()
+		{
+			countFailure();
+			return collect();
+		}
+		
+		
+		/**
+		 * Counts a failure without collecting its error.
+		 */
+		synchronized void countFailure()
+		{
+			failures_++;
+			if (stopReason_ == null)
+			{
+				if (failures_ >= limit_.getMaxFailures())
+					stopReason_ = "stopped after " + failures_ + " failures";
+				else if (limit_.isTimeBudgetElapsed(start_))
+					stopReason_ = "stopped after time budget of " + limit_.getTimeBudget();
+			}
+		}
+		
+		
+		/**
+		 * Collects the error of a failure counted before by {@link #countFailure()}.
+		 * @return true if the error should be collected, false if it is suppressed
+		 */
+		synchronized boolean collect()
+		{
+			if (collected_ >= limit_.getMaxErrors())
+				return false;
+			collected_++;
+			return true;
+		}
+		
+		
+		int getMaxErrors()
+		{
+			return limit_.getMaxErrors();
+		}
+		
+		
+		synchronized boolean isStopped()
+		{
+			return stopReason_ != null;
+		}
+		
+		
+		/**
+		 * Returns an error which reports suppressed failures and the stop of soft mode,
+		 * or null if neither happened.
+		 */
+		synchronized AssertionError summary()
+		{
+			int suppressed = failures_ - collected_;
+			if ((suppressed == 0) && (stopReason_ == null))
+				return null;
+			StringBuilder message = new StringBuilder();
+			if (suppressed > 0)
+				message.append(suppressed).append(suppressed == 1 ? " more failure suppressed" : " more failures suppressed");
+			if (stopReason_ != null)
+				message.append(message.length() > 0 ? "\n" : "").append("soft mode ").append(stopReason_);
+			return ErrorFactory.get().create(message.toString(), null, false, null, null);
+		}
+		
+		
+		private final SoftLimit limit_;
+		private final long start_;
+		private int failures_;
+		private int collected_;
+		private String stopReason_;
+	}
+	
+	
+	/**
+	 * Thrown to stop the execution of the test code when soft mode reaches its SoftLimit.
+	 * It is catched by the expectAll implementation which started soft mode. 
+	 */
+	static class SoftModeStop extends Error
+	{
+		private static final long serialVersionUID = 1L;
+		
+		
+		SoftModeStop()
+		{
+			super("soft mode stopped", null, false, false);
+		}
 	}
 	
 	
 	private List<AssertionError> softErrors_;
+	private SoftCounter softCounter_;
+	private boolean partition_;
+	private boolean stopped_;
 }
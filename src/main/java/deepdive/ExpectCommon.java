@@ -16,9 +16,16 @@
 package deepdive;
 
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import deepdive.function.CheckedBiConsumer;
 import deepdive.function.CheckedConsumer;
 import deepdive.function.CheckedRunnable;
+import deepdive.impl.Config;
 import deepdive.impl.ErrorFactory;
 import deepdive.impl.ExpectBase;
 import deepdive.impl.ExpectResult;
@@ -52,29 +59,134 @@ class ExpectCommon
 			Checkpoint cp     	= base instanceof Checkpoint ? (Checkpoint)base : expect;
 			if (softCp == null)
 				cp.startSoftMode();
+			runSoft(() -> test.accept(expect), expect, softCp == null);
+			if (softCp == null)
+				throwErrors(cp.endSoftMode());
+		}
+	}
+	
+	
+	/**
+	 * This method is called by ExpectStatic|Interface|Protected.expectAllParallel().
+	 * Every partition is tested in a task of the common ForkJoinPool, with an own
+	 * soft mode Checkpoint and the Config of the calling thread.
+	 * The Checkpoints share one SoftCounter, so the SoftLimit applies to all partitions together.
+	 * Within an enclosing soft mode, this is the SoftCounter of the enclosing soft mode.
+	 * The errors of all tasks are merged in partition order, and the maximum number of errors
+	 * is applied during the merge. Therefore the reported errors do not depend on thread scheduling,
+	 * unless soft mode is stopped by the SoftLimit.
+	 * @param partitions the partitions
+	 * @param test a consumer which receives a ExpectInterface and a partition to make its assertions
+	 * @param a base. Null if invoked by ExpectStatic, this otherwise. 
+	 */
+	static <T> void expectAllParallel(List<T> partitions, CheckedBiConsumer<ExpectInterface,? super T,?> test, ExpectBase base)
+	{
+		if ((partitions != null) && (test != null) && !partitions.isEmpty())
+		{
+			Config config = Config.get();
+			// the SoftLimit applies to all partitions together, and to the enclosing soft mode 
+			Checkpoint softCp = Checkpoint.findSoftCheckpoint(base);
+			Checkpoint.SoftCounter counter = softCp != null ? 
+				softCp.getSoftCounter() : 
+				new Checkpoint.SoftCounter(config.getSoftLimit());
+			List<Callable<List<AssertionError>>> tasks = new ArrayList<>(partitions.size());
+			for (int i=0; i<partitions.size(); i++)
+			{
+				T partition = partitions.get(i);
+				ExpectPublic expect = new ExpectPublic(base, Context.indexed("partition", i));
+				tasks.add(() -> expectPartition(config, counter, expect, partition, test));
+			}
+
+			List<AssertionError> errors = new ArrayList<>();
 			try
 			{
-				test.accept(expect);
+				for (Future<List<AssertionError>> result : ForkJoinPool.commonPool().invokeAll(tasks))
+				{
+					for (AssertionError error : result.get())
+					{
+						if (counter.collect())
+							errors.add(error);
+					}
+				}
+			}
+			catch (InterruptedException | ExecutionException e)
+			{
+				if (e instanceof InterruptedException)
+					Thread.currentThread().interrupt();
+				new Failure(base).addStmt("unexpected").cause(e).throwError();
 			}
-			catch (Throwable t)
+			
+			if (softCp != null)
 			{
-				expect.failure().addStmt("unexpected").cause(t).throwError();
+				// already counted: the enclosing soft mode reports suppressed failures 
+				softCp.addCollected(errors);
 			}
-			if (softCp == null)
+			else
 			{
-				List<AssertionError> errors = cp.endSoftMode();
-				switch(errors.size())
-				{
-					case 0: break;
-					case 1: throw errors.get(0);
-					default:
-						AssertionError all = ErrorFactory.get().createMulti(null, errors);
-						all.fillInStackTrace();
-						throw all;
-				}
+				AssertionError summary = counter.summary();
+				if (summary != null)
+					errors.add(summary);
+				throwErrors(errors);
 			}
 		}
 	}
+	
+	
+	@SuppressWarnings("try")
+	private static <T> List<AssertionError> expectPartition(Config config, Checkpoint.SoftCounter counter, 
+		ExpectPublic expect, T partition, CheckedBiConsumer<ExpectInterface,? super T,?> test)
+	{
+		try (Config.Scope scope = config.open())
+		{
+			expect.startIsolatedSoftMode(counter, true);
+			runSoft(() -> test.accept(expect, partition), expect, true);
+			return expect.endIsolatedSoftMode();
+		}
+	}
+	
+	
+	/**
+	 * Runs the test in soft mode and reports unexpected exceptions as failure.
+	 * @param ownsSoftMode true if the caller started soft mode and handles a stop of soft mode 
+	 */
+	private static void runSoft(CheckedRunnable<?> test, ExpectPublic expect, boolean ownsSoftMode)
+	{
+		try
+		{
+			try
+			{
+				test.run();
+			}
+			catch (Checkpoint.SoftModeStop stop)
+			{
+				throw stop;
+			}
+			catch (Throwable t)
+			{
+				expect.failure().addStmt("unexpected").cause(t).throwError();
+			}
+		}
+		catch (Checkpoint.SoftModeStop stop)
+		{
+			// the collected errors are reported by the owner of soft mode
+			if (!ownsSoftMode)
+				throw stop;
+		}
+	}
+	
+	
+	private static void throwErrors(List<AssertionError> errors)
+	{
+		switch(errors.size())
+		{
+			case 0: break;
+			case 1: throw errors.get(0);
+			default:
+				AssertionError all = ErrorFactory.get().createMulti(null, errors);
+				all.fillInStackTrace();
+				throw all;
+		}
+	}
 
 	
     static <T> T expectEqual(Object expected, T actual, CharSequence context, Not not, ExpectBase base) 
@@ -18,7 +18,9 @@
 package deepdive;
 
 
+import java.util.List;
 import javax.annotation.CheckReturnValue;
+import deepdive.function.CheckedBiConsumer;
 import deepdive.function.CheckedConsumer;
 import deepdive.function.CheckedRunnable;
 import deepdive.impl.ExpectResult;
@@ -53,6 +55,36 @@ public class ExpectProtected extends Checkpoint
 	}
 
 
+	/**
+	 * Calls the given consumers in parallel, using the common ForkJoinPool. 
+	 * Each consumer receives its own ExpectInterface object to issue assertions.
+	 * All assertion errors are collected and thrown at the end of the call, 
+	 * ordered by the position of the consumer in the list.
+	 * The {@link deepdive.impl.Config Config} of the calling thread is used by all consumers.
+	 * @param tests a list of consumers to issue assertions
+	 */
+	protected void expectAllParallel(List<? extends CheckedConsumer<ExpectInterface,?>> tests)
+	{
+		ExpectCommon.expectAllParallel(tests, (expect,test) -> test.accept(expect), this);
+	}
+
+
+	/**
+	 * Calls the given consumer for all partitions of the data in parallel, using the common ForkJoinPool.
+	 * Each call receives its own ExpectInterface object to issue assertions.
+	 * All assertion errors are collected and thrown at the end of the call, 
+	 * ordered by the position of the partition in the list.
+	 * The {@link deepdive.impl.Config Config} of the calling thread is used by all calls.
+	 * @param partitions a list of data partitions
+	 * @param test a consumer to issue assertions on a partition
+	 * @param <T> the partition type
+	 */
+	protected <T> void expectAllParallel(List<T> partitions, CheckedBiConsumer<ExpectInterface,? super T,?> test)
+	{
+		ExpectCommon.expectAllParallel(partitions, test, this);
+	}
+
+
 	/**
 	 * Asserts that two objects are equal.
 	 * We use {@link Value#equal(Object, Object)} to test if two objects are equal.
@@ -757,22 +789,35 @@ public class ExpectProtected extends Checkpoint
 	@CheckReturnValue
 	protected ExpectProtected not()
 	{
-		notHolder_.toggle();
+		getNotHolder().toggle();
 		return this;
 	}
 
 
 	protected final Not getNotAndClear()
 	{
-		return notHolder_.getAndClear();
+		return notHolder_ != null ? notHolder_.getAndClear() : Not.OFF;
+	}
+
+
+	/**
+	 * Returns the current Not without clearing it.
+	 * @return the Not
+	 */
+	protected final Not getNot()
+	{
+		return notHolder_ != null ? notHolder_.get() : Not.OFF;
 	}
 
 
 	protected Not.Holder getNotHolder()
 	{
+		// lazily created since most assertions are made without not-mode
+		if (notHolder_ == null)
+			notHolder_ = new Not.Holder();
 		return notHolder_;
 	}
 
 
-	private final Not.Holder notHolder_ = new Not.Holder();
+	private Not.Holder notHolder_;
 }
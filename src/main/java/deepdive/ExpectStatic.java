@@ -18,7 +18,9 @@
 package deepdive;
 
 
+import java.util.List;
 import javax.annotation.CheckReturnValue;
+import deepdive.function.CheckedBiConsumer;
 import deepdive.function.CheckedConsumer;
 import deepdive.function.CheckedRunnable;
 import deepdive.impl.ExpectResult;
@@ -51,6 +53,36 @@ public class ExpectStatic
 	}
 
 
+	/**
+	 * Calls the given consumers in parallel, using the common ForkJoinPool. 
+	 * Each consumer receives its own ExpectInterface object to issue assertions.
+	 * All assertion errors are collected and thrown at the end of the call, 
+	 * ordered by the position of the consumer in the list.
+	 * The {@link deepdive.impl.Config Config} of the calling thread is used by all consumers.
+	 * @param tests a list of consumers to issue assertions
+	 */
+	public static void expectAllParallel(List<? extends CheckedConsumer<ExpectInterface,?>> tests)
+	{
+		ExpectCommon.expectAllParallel(tests, (expect,test) -> test.accept(expect), null);
+	}
+
+
+	/**
+	 * Calls the given consumer for all partitions of the data in parallel, using the common ForkJoinPool.
+	 * Each call receives its own ExpectInterface object to issue assertions.
+	 * All assertion errors are collected and thrown at the end of the call, 
+	 * ordered by the position of the partition in the list.
+	 * The {@link deepdive.impl.Config Config} of the calling thread is used by all calls.
+	 * @param partitions a list of data partitions
+	 * @param test a consumer to issue assertions on a partition
+	 * @param <T> the partition type
+	 */
+	public static <T> void expectAllParallel(List<T> partitions, CheckedBiConsumer<ExpectInterface,? super T,?> test)
+	{
+		ExpectCommon.expectAllParallel(partitions, test, null);
+	}
+
+
 	/**
 	 * Asserts that two objects are equal.
 	 * We use {@link Value#equal(Object, Object)} to test if two objects are equal.
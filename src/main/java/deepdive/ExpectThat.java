@@ -39,6 +39,9 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 import java.util.zip.ZipFile;
 import deepdive.actual.Actual;
@@ -51,6 +54,9 @@ import deepdive.actual.java.nio.file.*;
 import deepdive.actual.java.time.*;
 import deepdive.actual.java.util.*;
 import deepdive.actual.java.util.regex.*;
+import deepdive.actual.java.util.stream.DoubleStreamActual;
+import deepdive.actual.java.util.stream.IntStreamActual;
+import deepdive.actual.java.util.stream.LongStreamActual;
 import deepdive.actual.java.util.stream.StreamActual;
 import deepdive.actual.java.util.zip.ZipFileActual;
 import deepdive.function.CheckedRunnable;
@@ -136,6 +142,12 @@ public class ExpectThat
 	}
 
 
+	public static DoubleStreamActual<?,?> expectThat(DoubleStream actual)
+	{
+		return new DoubleStreamActual<>(actual, null);
+	}
+
+
 	public static <E extends Enum<E>> EnumActual<E,?,?> expectThat(E actual)
 	{
 		return new EnumActual<>(actual, null);
@@ -184,6 +196,12 @@ public class ExpectThat
 	}
 
 
+	public static IntStreamActual<?,?> expectThat(IntStream actual)
+	{
+		return new IntStreamActual<>(actual, null);
+	}
+
+
 	public static <T> IteratorActual<T,?,?> expectThat(Iterator<T> actual)
 	{
 		return new IteratorActual<>(actual, null);
@@ -232,6 +250,12 @@ public class ExpectThat
 	}
 
 
+	public static LongStreamActual<?,?> expectThat(LongStream actual)
+	{
+		return new LongStreamActual<>(actual, null);
+	}
+
+
 	public static <K,V> MapActual<K,V,Map<K,V>,?,?> expectThat(Map<K,V> actual)
 	{
 		return new MapActual<>(actual, null);
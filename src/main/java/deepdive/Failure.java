@@ -17,13 +17,21 @@ package deepdive;
 
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import deepdive.actual.Actual;
+import deepdive.impl.AhoCorasick;
+import deepdive.impl.DeferredAssertionError;
 import deepdive.impl.Difference;
 import deepdive.impl.ErrorFactory;
 import deepdive.impl.ErrorFormat;
 import deepdive.impl.ExpectBase;
+import deepdive.impl.FieldComparison;
+import deepdive.impl.IteratorMismatch;
 import deepdive.impl.Not;
+import deepdive.impl.Order;
 import deepdive.impl.Pair;
 import deepdive.impl.Stmt;
 import deepdive.impl.StmtTemplate;
@@ -156,32 +164,118 @@ public class Failure
 	 * @see Difference
 	 */
     public Failure equalness(Object expected, Object actual, Object delta, Not not)
+    {
+    	setExpectedActual(expected, actual);
+    	if (not.isOff())
+    		addDeferredStmts(() -> equalnessImpl(expected, actual, delta));
+    	else
+    		addStmt("expected not", expected);
+    	return this;
+    }
+    
+    
+    private void equalnessImpl(Object expected, Object actual, Object delta)
+    {
+    	notEqualImpl(null, expected, actual, delta);
+    	addDifferences(log -> Difference.get().log(log, expected, actual, delta));
+    }
+    
+    
+	/**
+	 * Shortcut: Adds a "expected: &lt;expected&gt;, but was: &lt;actual&gt;"
+	 * followed by the differences of the values when compared field by field.
+	 * @param expected the expected value
+	 * @param actual the actual value
+	 * @param comparison the comparison
+	 * @param not the not used
+	 * @return this
+	 * @see Difference#logFields(Difference.Log, Object, Object, FieldComparison)
+	 */
+    public Failure fieldEqualness(Object expected, Object actual, FieldComparison comparison, Not not)
     {
     	setExpectedActual(expected, actual);
     	if (not.isOff())
     	{
-        	notEqualImpl(null, expected, actual, delta);
-        	int stmtSize = stmts_.size();
-        	indentValueLines_ = true;
-        	Difference.get().log(new Log(), expected, actual);
-        	indentValueLines_ = false;
-        	if (stmts_.size() > stmtSize)
-        		stmts_.add(stmtSize, new Stmt("differences"));
+    		addDeferredStmts(() -> {
+    	    	notEqualImpl(null, expected, actual, null);
+    	    	addDifferences(log -> Difference.get().logFields(log, expected, actual, comparison));
+    		});
     	}
     	else
     		addStmt("expected not", expected);
     	return this;
     }
     
+    
+    private void addDifferences(Consumer<Difference.Log> logger)
+    {
+    	int stmtSize = stmts_.size();
+    	indentValueLines_ = true;
+    	logger.accept(new Log());
+    	indentValueLines_ = false;
+    	if (stmts_.size() > stmtSize)
+    		stmts_.add(stmtSize, new Stmt("differences"));
+    }
+    
+    
+    /**
+     * Adds a placeholder for Stmts which are expensive to build
+     * (e.g. because they format values or log differences). The builder is
+     * not run before the error message is requested.
+     */
+    private void addDeferredStmts(Runnable builder)
+    {
+    	stmts_.add(new DeferredStmts(builder));
+    	hasDeferredStmts_ = true;
+    }
+    
+    
+    private List<Stmt> resolveStmts()
+    {
+    	if (hasDeferredStmts_)
+    	{
+    		hasDeferredStmts_ = false;
+    		List<Stmt> stmts = new ArrayList<>(stmts_);
+    		stmts_.clear();
+    		for (Stmt stmt : stmts)
+    		{
+    			if (stmt instanceof DeferredStmts)
+    				((DeferredStmts)stmt).builder.run();
+    			else
+    				stmts_.add(stmt);
+    		}
+    	}
+    	return stmts_;
+    }
+    
+    
+    private static class DeferredStmts extends Stmt
+    {
+    	public DeferredStmts(Runnable builder)
+    	{
+    		super(null);
+    		this.builder = builder;
+    	}
+    	
+    	
+    	public final Runnable builder;
+    }
+    
 
 	// Shortcut: Adds a "expected &lt;what&gt;: &lt;expected&gt;, but was &lt;what>: &lt;actual&gt;".
     private void notEqualImpl(String what, Object expected, Object actual, Object delta)
+    {
+    	notEqualImpl(what, what, expected, actual, delta);
+    }
+    
+    
+    private void notEqualImpl(String expectedWhat, String actualWhat, Object expected, Object actual, Object delta)
     {
        	Pair<String,String> disambiguated = Value.format(expected, actual);
-    	addStmt(concat("expected", what), disambiguated.v1);
+    	addStmt(concat("expected", expectedWhat), disambiguated.v1);
     	if (delta != null)
     		addStmt("within delta", delta);
-    	addStmt(concat("but was ", what),  disambiguated.v2);
+    	addStmt(concat("but was ", actualWhat),  disambiguated.v2);
     }
     
     
@@ -191,6 +285,132 @@ public class Failure
 	}
 	
 	
+	/**
+	 * Shortcut: Adds statements about words which a text was expected to contain, or not to contain,
+	 * followed by the missing words, respectively the contained words and their positions.
+	 * @param scanner a scanner which has scanned the text
+	 * @param all true if the text should contain all words, false if it should contain none of the words
+	 * @param not the not used
+	 * @return this
+	 */
+    public Failure containment(AhoCorasick.Scanner scanner, boolean all, Not not)
+    {
+    	addStmts(StmtTemplate.ASSERT_EXPECTED_TO, scanner.words(), null, not, all ? "contain all" : "contain none of");
+    	if (not.isOff())
+    	{
+    		if (all)
+    			addStmt("missing", scanner.missing());
+    		else
+    		{
+    			int count = 0;
+    			for (int w=0; w<scanner.words().size(); w++)
+    			{
+    				long index = scanner.firstIndex(w);
+    				if ((index >= 0) && (count++ < MAX_LISTED))
+    					addStmt("but contains [" + index + "]", scanner.words().get(w));
+    			}
+    			if (count > MAX_LISTED)
+    				addStmt("and more", Integer.valueOf(count - MAX_LISTED));
+    		}
+    	}
+    	return this;
+    }
+    
+    
+	/**
+	 * Shortcut: Adds statements about elements which were expected in any order,
+	 * followed by the elements which are missing or unexpected and how often.
+	 * @param expected the expected elements
+	 * @param differences maps the differing elements to the number of missing (if positive) 
+	 * 		or unexpected (if negative) occurrences
+	 * @param not the not used
+	 * @return this
+	 */
+    public Failure elemCounts(Object expected, Map<?,Integer> differences, Not not)
+    {
+    	addStmts(StmtTemplate.ASSERT_EXPECTED_TO, expected, null, not, "have elems in any order");
+    	if (not.isOff())
+    	{
+    		int count = 0;
+    		for (Map.Entry<?,Integer> entry : differences.entrySet())
+    		{
+    			if (count++ < MAX_LISTED)
+    			{
+    				int n = entry.getValue().intValue();
+    				addStmt(n > 0 ? "missing (" + n + "x)" : "unexpected (" + -n + "x)", entry.getKey());
+    			}
+    		}
+    		if (count > MAX_LISTED)
+    			addStmt("more differences", Integer.valueOf(count - MAX_LISTED));
+    	}
+    	return this;
+    }
+    
+    
+	/**
+	 * Shortcut: Adds statements about the first mismatch of expected and actual elements
+	 * which were compared in lockstep.
+	 * @param mismatch the mismatch or null if the elements were equal
+	 * @param not the not used
+	 * @return this
+	 */
+    public Failure elemMismatch(IteratorMismatch mismatch, Not not)
+    {
+    	if (not.isOn() || (mismatch == null))
+    		return addStmt("expected not to have the same elems");
+    	String index = "[" + mismatch.index + "]";
+    	return addStmt("expected " + index, mismatch.hasExpected ? mismatch.expected : END_OF_ELEMS)
+    		.addStmt("but was  " + index, mismatch.hasActual ? mismatch.actual : END_OF_ELEMS);
+    }
+    
+    
+	/**
+	 * Shortcut: Adds statements about the first element which violated an allMatch or noneMatch assertion.
+	 * @param all true if all elements were expected to match, false if no element was expected to match
+	 * @param index the index of the element, or -1 if not known (e.g. for parallel streams)
+	 * @param elem the element
+	 * @param not the not used
+	 * @return this
+	 */
+    public Failure elemMatch(boolean all, long index, Object elem, Not not)
+    {
+    	if (not.isOn())
+    		return addStmt(all ? "expected not all elems to match" : "expected some elem to match");
+    	String which = index >= 0 ? "but elem [" + index + "]" : "but elem";
+    	return addStmt(all ? "expected all elems to match" : "expected no elem to match")
+    		.addStmt(which + (all ? " did not" : " did"), elem);
+    }
+    
+    
+	/**
+	 * Shortcut: Adds statements about the first pair of adjacent elements which violated an order.
+	 * @param order the expected order
+	 * @param violation the violation, may be null if not is on
+	 * @param not the not used
+	 * @return this
+	 */
+    public Failure orderViolation(Order order, Order.Violation violation, Not not)
+    {
+    	if (not.isOn())
+    		return addStmt("expected not to be " + order);
+    	return addStmt("expected to be " + order)
+    		.addStmt("but elems [" + violation.index + ".." + (violation.index + 1) + "] are", Arrays.asList(violation.elem1, violation.elem2));
+    }
+    
+    
+	/**
+	 * Shortcut: Adds statements about an element which exceeded the expected count of elements.
+	 * @param expected the expected count
+	 * @param elem the first surplus element
+	 * @return this
+	 */
+    public Failure surplusElem(long expected, Object elem)
+    {
+    	return addStmt("expected", Long.valueOf(expected))
+    		.addStmt("but has more elems [" + expected + "]", elem);
+    }
+    
+    
    /**
 	 * Shortcut: Adds a "expected: &lt;expected&gt;, but was: &lt;actual&gt;".
 	 * @param expected the expected value
@@ -235,6 +455,11 @@ public class Failure
 		{
 			Failure.this.notEqualImpl(what, expected, actual, null);
 		}
+
+		@Override public void addNotEqual(String expectedWhat, String actualWhat, Object expected, Object actual)
+		{
+			Failure.this.notEqualImpl(expectedWhat, actualWhat, expected, actual, null);
+		}
     }
     
     
@@ -262,19 +487,31 @@ public class Failure
      * Creates the assertion error.
      * If the assertion is executed in soft mode, i.e. inside an {@link ExpectStatic#expectAll(deepdive.function.CheckedConsumer) expectAll}
      * or {@link Actual#all(deepdive.function.CheckedConsumer)} call, the error is not thrown yet, but collected.
-     * In this case null is returned.
+     * In this case null is returned. The collected error is a {@link DeferredAssertionError} which
+     * builds the error message only when it is reported, i.e. mutable values are formatted in their state at that time.
      * @param <RET> a generic return type to make it easier for callers to return an result to their respective caller
      * 		if the error is actually not thrown
      * @return returns null in case no error is thrown  
      */
 	public <RET> RET throwError()
 	{
-		AssertionError error = ErrorFactory.get().create(toString(), cause_, hasExpectedActual_, expected_, actual_);
+		Checkpoint softCp = Checkpoint.findSoftCheckpoint(checkpoint_);
+		if (softCp != null)
+		{
+			// postpone building message and error until the error is actually reported
+			softCp.postpone(this::createError);
+			return null;
+		}
+		
+		AssertionError error = createError();
 		error.fillInStackTrace();
-
-		if ((checkpoint_ == null) || !checkpoint_.postponed(error))
-			throw error;
-		return null;
+		throw error;
+	}
+	
+	
+	private AssertionError createError()
+	{
+		return ErrorFactory.get().create(toString(), cause_, hasExpectedActual_, expected_, actual_);
 	}
 
 	
@@ -283,10 +520,12 @@ public class Failure
 	 */
 	@Override public String toString()
 	{
-		return ErrorFormat.get().buildMsg(contexts_, stmts_);
+		return ErrorFormat.get().buildMsg(contexts_, resolveStmts());
 	}
 	
 	
+	private static final int MAX_LISTED = 20;
+	private static final String END_OF_ELEMS = "(no more elems)";
 	private final List<Stmt> stmts_ = new ArrayList<>();
 	private final List<CharSequence> contexts_ = new ArrayList<>();
 	private final Checkpoint checkpoint_;
@@ -295,4 +534,5 @@ public class Failure
 	private Object expected_;
 	private Object actual_;
 	private boolean hasExpectedActual_;
+	private boolean hasDeferredStmts_;
 }
@@ -22,6 +22,7 @@ import java.util.function.BiFunction;
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
+import deepdive.Context;
 import deepdive.ExpectInterface;
 import deepdive.ExpectProtected;
 import deepdive.ExpectPublic;
@@ -33,7 +34,9 @@ import deepdive.function.CheckedBiConsumer;
 import deepdive.function.CheckedConsumer;
 import deepdive.function.CheckedFunction;
 import deepdive.impl.ActualChange;
+import deepdive.impl.DDCheck;
 import deepdive.impl.ExpectResult;
+import deepdive.impl.FieldComparison;
 import deepdive.impl.Not;
 import deepdive.impl.StmtTemplate;
 import deepdive.impl.Value;
@@ -128,13 +131,18 @@ public class Actual<T,BACK,IMPL extends Actual<T,BACK,IMPL>> extends ExpectProte
 	/**
 	 * Returns the non-null owner passed to the Actual constructor.
 	 * If the owner is null an IllegalArgumentError is thrown.
-	 * To access the owner object without a null-check call {@link #backOrNull()}.
+	 * To access the owner object without a null-check call {@link #backOrNull()}.<p>
+	 * If this Actual was created as a {@link #child(Object, Class, BiFunction, String) child} of an Actual
+	 * which {@link #reuseChildren() reuses its children}, it is released by this call and may be reused by the owner 
+	 * for a later child of the same class.
 	 * @return the owner object
 	 */
 	public BACK back()
 	{
 		// we don't use assertNotNull since we don't want to consume any activated not().
-		return rejectNull(back_, "back");
+		BACK back = rejectNull(back_, "back");
+		released_ = true;
+		return back;
 	}
 
 
@@ -339,6 +347,37 @@ public class Actual<T,BACK,IMPL extends Actual<T,BACK,IMPL>> extends ExpectProte
 	}
 
 
+	/**
+	 * Asserts that the actual value equals the expected value when compared field by field.
+	 * This is useful for objects which do not implement equals().
+	 * @param expected the expected value
+	 * @return this
+	 * @see FieldComparison
+	 */
+	public IMPL equalFieldByField(Object expected)
+	{
+		return equalFieldByField(expected, FieldComparison.DEFAULT);
+	}
+
+
+	/**
+	 * Asserts that the actual value equals the expected value when compared field by field.
+	 * @param expected the expected value
+	 * @param comparison defines ignored fields and comparators used by the comparison
+	 * @return this
+	 * @see FieldComparison
+	 */
+	public IMPL equalFieldByField(Object expected, FieldComparison comparison)
+	{
+		DDCheck.notNull(comparison, "comparison");
+		T actual = valueOrNull();
+		ExpectResult result = eval(comparison.equal(expected, actual));
+		if (!result.ok)
+			failure().fieldEqualness(expected, actual, comparison, result.not).throwError();
+		return self();
+	}
+
+
 	/**
 	 * Asserts that the given consumer will raise an error when receiving the actual value.
 	 * @param consumer a consumer
@@ -435,7 +474,7 @@ public class Actual<T,BACK,IMPL extends Actual<T,BACK,IMPL>> extends ExpectProte
 	 */
 	protected void notMustBeOff()
 	{
-		if (getNotHolder().get().isOn())
+		if (getNot().isOn())
 			failNotOn();
 	}
 
@@ -565,6 +604,157 @@ public class Actual<T,BACK,IMPL extends Actual<T,BACK,IMPL>> extends ExpectProte
 		return ExpectResult.eval(getNotAndClear(), ok);
 	}
 
+	
+	/**
+	 * {@link #eval(boolean) Evaluates} if the actual value equals the expected value. If it evaluates to
+	 * false an error is raised which describes the difference of both values.
+	 * @param equal the result of the equality test which is expected to be true if not is OFF
+	 * @param expected the expected value
+	 * @param delta optional: the delta used by the equality test
+	 * @return this
+	 */
+	protected IMPL expectEqualness(boolean equal, Object expected, Object delta)
+	{
+		ExpectResult result = eval(equal);
+		if (!result.ok)
+			failure().equalness(expected, value(), delta, result.not).throwError();
+		return self();
+	}
+
+
+	//----------------------
+	// children
+	//----------------------
+
+
+	/**
+	 * Allows this Actual and the children it creates to reuse their child Actuals:
+	 * A child which was released by a call to its {@link #back()} method is reused for the
+	 * next child of the same class, and receives the new value and name.
+	 * Passing navigation chains like <code>list.elem(0).equal(x).back()</code> then do not allocate,
+	 * but references to a child Actual must not be used after back() was called on it.
+	 * @return this
+	 */
+	public IMPL reuseChildren()
+	{
+		reuseChildren_ = true;
+		return self();
+	}
+
+
+	/**
+	 * Returns an Actual for a value derived from the actual value, e.g. an element or property,
+	 * with this Actual as owner.<p>
+	 * If this Actual {@link #reuseChildren() reuses its children} and a child of the given class 
+	 * was released by a call to its {@link #back()} method, that child is reused and receives 
+	 * the new value and name. Else the factory creates a new child.
+	 * @param value the value of the child
+	 * @param type the class of the children created by the factory
+	 * @param factory creates a new child
+	 * @param name the name of the child
+	 * @return the child
+	 * @param <V> the value type of the child
+	 * @param <C> the type of the child
+	 */
+	protected <V,C extends Actual<?,?,?>> C child(@Nullable V value, Class<?> type, BiFunction<? super V,? super IMPL,C> factory, String name)
+	{
+		return child(value, type, factory, name, null, 0);
+	}
+
+
+	/**
+	 * Like {@link #child(Object, Class, BiFunction, String)}. The child is named "&lt;property&gt;[&lt;index&gt;]"
+	 * where the name is only built if an assertion on the child fails.
+	 * @param value the value of the child
+	 * @param type the class of the children created by the factory
+	 * @param factory creates a new child
+	 * @param property the indexed property
+	 * @param index the index
+	 * @return the child
+	 * @param <V> the value type of the child
+	 * @param <C> the type of the child
+	 */
+	protected <V,C extends Actual<?,?,?>> C child(@Nullable V value, Class<?> type, BiFunction<? super V,? super IMPL,C> factory, String property, int index)
+	{
+		return child(value, type, factory, property, INDEXED_NAME, index);
+	}
+
+
+	/**
+	 * Like {@link #child(Object, Class, BiFunction, String)}. The child is named "&lt;fn&gt;(&lt;param&gt;)"
+	 * where the name is only built if an assertion on the child fails.
+	 * @param value the value of the child
+	 * @param type the class of the children created by the factory
+	 * @param factory creates a new child
+	 * @param fn the name of the called function
+	 * @param param the parameter of the call
+	 * @return the child
+	 * @param <V> the value type of the child
+	 * @param <C> the type of the child
+	 */
+	protected <V,C extends Actual<?,?,?>> C child(@Nullable V value, Class<?> type, BiFunction<? super V,? super IMPL,C> factory, String fn, @Nullable Object param)
+	{
+		return child(value, type, factory, fn, param != null ? param : NULL_PARAM, 0);
+	}
+
+
+	@SuppressWarnings("unchecked")
+	private <V,C extends Actual<?,?,?>> C child(@Nullable V value, Class<?> type, BiFunction<? super V,? super IMPL,C> factory, 
+		String name, @Nullable Object nameParam, int nameIndex)
+	{
+		notMustBeOff();
+		rejectNull(type, "type");
+		rejectNull(factory, "factory");
+		if (!reuseChildren_)
+			return createChild(value, factory, name, nameParam, nameIndex);
+
+		int slot = 0;
+		if (children_ == null)
+			children_ = new Object[2 * MAX_CHILDREN];
+		else
+		{
+			for (; slot<children_.length; slot+=2)
+			{
+				if ((children_[slot] == type) || (children_[slot] == null))
+					break;
+			}
+			if (slot == children_.length)
+				slot -= 2;
+			else if (children_[slot] == type)
+			{
+				Actual<Object,?,?> child = (Actual<Object,?,?>)children_[slot + 1];
+				if (child.released_)
+				{
+					child.released_ = false;
+					child.value_ 	= value;
+					child.setName(name, nameParam, nameIndex);
+					child.getNotAndClear();
+					return (C)child;
+				}
+			}
+		}
+
+		C child = createChild(value, factory, name, nameParam, nameIndex);
+		// only a child of exactly the given class can be reused for that class
+		if (child.getClass() == type)
+		{
+			children_[slot] 	= type;
+			children_[slot + 1] = child;
+		}
+		return child;
+	}
+
+
+	private <V,C extends Actual<?,?,?>> C createChild(@Nullable V value, BiFunction<? super V,? super IMPL,C> factory, 
+		String name, @Nullable Object nameParam, int nameIndex)
+	{
+		C child = factory.apply(value, self());
+		Actual<?,?,?> actual = child;
+		actual.setName(name, nameParam, nameIndex);
+		actual.reuseChildren_ = reuseChildren_;
+		return child;
+	}
+
 
 	//----------------------
 	// narrow
@@ -621,7 +811,7 @@ public class Actual<T,BACK,IMPL extends Actual<T,BACK,IMPL>> extends ExpectProte
 		notMustBeOff();
 		N narrowed = expectInstance(type, valueOrNull());
 		if (narrowed instanceof Actual)
-			((Actual<?,?,?>)narrowed).name_ = name_;
+			((Actual<?,?,?>)narrowed).setName(name_, nameParam_, nameIndex_);
 		return rejectNull(fn, "fn").apply(narrowed, backOrNull());
 	}
 
@@ -703,6 +893,14 @@ public class Actual<T,BACK,IMPL extends Actual<T,BACK,IMPL>> extends ExpectProte
 		}
 
 
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		public <V,C extends Actual<?,?,?>> C child(@Nullable V value, Class<?> type, BiFunction<? super V,? super IMPL,C> factory, String name)
+		{
+			return (C)((Actual)actual()).child(value, type, factory, name);
+		}
+
+
 		@SuppressWarnings("deprecation")
 		@Override public String toString()
 		{
@@ -730,11 +928,19 @@ public class Actual<T,BACK,IMPL extends Actual<T,BACK,IMPL>> extends ExpectProte
 	 */
 	public IMPL as(CharSequence name)
 	{
-		name_ = name;
+		setName(name, null, 0);
 		return self();
 	}
 
 
+	private void setName(CharSequence name, Object nameParam, int nameIndex)
+	{
+		name_ 		= name;
+		nameParam_ 	= nameParam;
+		nameIndex_ 	= nameIndex;
+	}
+
+
 	/**
 	 * Returns the name of this Actual object.
 	 * The name was either explicitly set via {@link #as(CharSequence)} or
@@ -743,10 +949,23 @@ public class Actual<T,BACK,IMPL extends Actual<T,BACK,IMPL>> extends ExpectProte
 	 */
 	private String getActualName()
 	{
-		if (name_ != null)
-			return name_.toString();
-		else if (value_ != null)
-			return value_.getClass().getSimpleName();
+		return getActualName(name_, nameParam_, nameIndex_, value_);
+	}
+
+
+	private String getActualName(CharSequence name, Object nameParam, int nameIndex, T value)
+	{
+		if (name != null)
+		{
+			if (nameParam == null)
+				return name.toString();
+			else if (nameParam == INDEXED_NAME)
+				return name.toString() + '[' + nameIndex + ']';
+			else
+				return name.toString() + '(' + Value.format(nameParam != NULL_PARAM ? nameParam : null) + ')';
+		}
+		else if (value != null)
+			return value.getClass().getSimpleName();
 		else
 			return getClass().getSimpleName().replace("Actual", "");
 	}
@@ -759,14 +978,30 @@ public class Actual<T,BACK,IMPL extends Actual<T,BACK,IMPL>> extends ExpectProte
 
 	@Override public String getContext()
 	{
-		String name = getActualName();
-		if (name.length() > 0)
-		{
-			T value  = valueOrNull();
-			String v = Value.format(value);
-			name += "=<" + v + '>';
-		}
-		return name;
+		return getContext(name_, nameParam_, nameIndex_, valueOrNull());
+	}
+
+
+	/**
+	 * Captures the name and value of this Actual, but formats them only when the context 
+	 * is turned into a String. If the value is mutable, its state at that time is formatted. 
+	 */
+	@Override public CharSequence captureContext()
+	{
+		CharSequence name	= name_;
+		Object nameParam	= nameParam_;
+		int nameIndex		= nameIndex_;
+		T value				= valueOrNull();
+		return Context.ofSupplier(() -> getContext(name, nameParam, nameIndex, value));
+	}
+
+
+	private String getContext(CharSequence name, Object nameParam, int nameIndex, T value)
+	{
+		String s = getActualName(name, nameParam, nameIndex, value);
+		if (s.length() > 0)
+			s += "=<" + Value.format(value) + '>';
+		return s;
 	}
 
 
@@ -809,6 +1044,37 @@ public class Actual<T,BACK,IMPL extends Actual<T,BACK,IMPL>> extends ExpectProte
 	 */
 	private CharSequence name_;
 
+	/**
+	 * Optional parameter of the name: INDEXED_NAME if the name is a indexed property
+	 * or the parameter of a function call.
+	 */
+	private Object nameParam_;
+
+	/**
+	 * The index of an indexed name.
+	 */
+	private int nameIndex_;
+
+	/**
+	 * Classes and children created by {@link #child(Object, Class, BiFunction, String)}, stored as pairs.
+	 * Only used if children are reused.
+	 */
+	private Object[] children_;
+
+	/**
+	 * Set to true when {@link #back()} is called.
+	 */
+	private boolean released_;
+
+	/**
+	 * Set by {@link #reuseChildren()} and inherited by children.
+	 */
+	private boolean reuseChildren_;
+
+	private static final int MAX_CHILDREN = 4;
+	private static final Object INDEXED_NAME = new Object();
+	private static final Object NULL_PARAM = new Object();
+
 	/**
 	 * A lazily constructed Internals instance returned by {@link #internals()}.
 	 */
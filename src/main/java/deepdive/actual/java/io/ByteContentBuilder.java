@@ -16,6 +16,7 @@
 package deepdive.actual.java.io;
 
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
@@ -24,14 +25,26 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.zip.CRC32;
 import javax.annotation.CheckReturnValue;
+import deepdive.Failure;
 import deepdive.actual.java.lang.ByteArrayActual;
+import deepdive.actual.java.lang.LongActual;
+import deepdive.actual.java.lang.StringActual;
 import deepdive.function.CheckedSupplier;
 import deepdive.impl.DDCheck;
+import deepdive.impl.ExpectBase;
 
 
 /**
  * ByteContentBuilder is a builder to access the content provided by an InputStream.
+ * {@link #bytes()} reads the whole content into memory. The sameAs, digest and crc32 methods
+ * instead read the content chunk by chunk and can therefore be used for large content.
  */
 public class ByteContentBuilder<BACK,E extends Exception>
 {
@@ -99,6 +112,189 @@ public class ByteContentBuilder<BACK,E extends Exception>
 	}
 	
 	
+	/**
+	 * Asserts that the content equals the expected bytes.
+	 * The content is compared chunk by chunk and reading stops at the first different byte.
+	 * @param expected the expected content
+	 * @return the back object
+	 * @throws E if reading of the content fails
+	 * @throws IOException if reading of the content fails
+	 */
+	public BACK sameAs(byte[] expected) throws E, IOException
+	{
+		DDCheck.notNull(expected, "expected");
+		return sameAs(new ByteArrayInputStream(expected));
+	}
+	
+	
+	/**
+	 * Asserts that the content equals the content of the expected file.
+	 * The content is compared chunk by chunk and reading stops at the first different byte.
+	 * @param expected the expected content
+	 * @return the back object
+	 * @throws E if reading of the content fails
+	 * @throws IOException if reading of the content fails
+	 */
+	public BACK sameAs(Path expected) throws E, IOException
+	{
+		DDCheck.notNull(expected, "expected");
+		try (InputStream in = Files.newInputStream(expected))
+		{
+			return sameAs(in);
+		}
+	}
+	
+	
+	/**
+	 * Asserts that the content equals the content of the expected InputStream.
+	 * The content is compared chunk by chunk and reading stops at the first different byte.
+	 * The expected InputStream is not closed.
+	 * @param expected the expected content
+	 * @return the back object
+	 * @throws E if reading of the content fails
+	 * @throws IOException if reading of the content fails
+	 */
+	public BACK sameAs(InputStream expected) throws E, IOException
+	{
+		DDCheck.notNull(expected, "expected");
+		InputStream in = null;
+		try
+		{
+			in = DDCheck.notNull(inSupplier_.get(), "in");
+			compare(in, expected);
+			return back_;
+		}
+		finally
+		{
+			if (close_ && (in != null))
+				in.close();
+		}
+	}
+	
+	
+	private void compare(InputStream in, InputStream expected) throws IOException
+	{
+		byte[] actualBuffer 	= new byte[BUFFER_SIZE];
+		byte[] expectedBuffer 	= new byte[BUFFER_SIZE];
+		long toRead = max_ <= 0 ? Long.MAX_VALUE : max_;
+		long offset = 0;
+		while (true)
+		{
+			int actualRead 		= readChunk(in, actualBuffer, (int)Math.min(BUFFER_SIZE, toRead));
+			int expectedRead 	= readChunk(expected, expectedBuffer, BUFFER_SIZE);
+			int mismatch 		= Arrays.mismatch(actualBuffer, 0, actualRead, expectedBuffer, 0, expectedRead);
+			if (mismatch >= 0)
+			{
+				Object actualByte 	= mismatch < actualRead ? formatByte(actualBuffer[mismatch]) : END_OF_CONTENT;
+				Object expectedByte = mismatch < expectedRead ? formatByte(expectedBuffer[mismatch]) : END_OF_CONTENT;
+				failure("sameAs")
+					.addStmt("content differs at offset", Long.valueOf(offset + mismatch))
+					.addStmt("expected", expectedByte)
+					.addStmt("but was", actualByte)
+					.throwError();
+				return;
+			}
+			if (actualRead < BUFFER_SIZE)
+				return;
+			offset += actualRead;
+			toRead -= actualRead;
+		}
+	}
+	
+	
+	/**
+	 * Reads the content and returns a StringActual for the hex encoded digest
+	 * of the content.
+	 * @param algorithm the name of a {@link MessageDigest} algorithm, e.g. "SHA-256".
+	 * @return the new actual
+	 * @throws E if reading of the content fails
+	 * @throws IOException if reading of the content fails
+	 * @throws IllegalArgumentException if the algorithm is not supported
+	 */
+	public StringActual<BACK,?> digest(String algorithm) throws E, IOException
+	{
+		DDCheck.notNull(algorithm, "algorithm");
+		MessageDigest digest;
+		try
+		{
+			digest = MessageDigest.getInstance(algorithm);
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			throw new IllegalArgumentException(algorithm, e);
+		}
+		scan(digest::update);
+		return new StringActual<>(toHex(digest.digest()), back_).as(algorithm);
+	}
+	
+	
+	/**
+	 * Reads the content and returns a StringActual for the hex encoded SHA-256 digest
+	 * of the content.
+	 * @return the new actual
+	 * @throws E if reading of the content fails
+	 * @throws IOException if reading of the content fails
+	 */
+	public StringActual<BACK,?> sha256() throws E, IOException
+	{
+		return digest("SHA-256");
+	}
+	
+	
+	/**
+	 * Reads the content and returns a LongActual for the CRC-32 checksum of the content.
+	 * @return the new actual
+	 * @throws E if reading of the content fails
+	 * @throws IOException if reading of the content fails
+	 */
+	public LongActual<BACK,?> crc32() throws E, IOException
+	{
+		CRC32 crc = new CRC32();
+		scan(crc::update);
+		return new LongActual<>(crc.getValue(), back_).as("crc32");
+	}
+	
+	
+	private interface ChunkConsumer
+	{
+		public void accept(byte[] buffer, int offset, int length);
+	}
+	
+	
+	/**
+	 * Reads the content chunk by chunk and passes each chunk to the consumer.
+	 */
+	private void scan(ChunkConsumer consumer) throws E, IOException
+	{
+		InputStream in = null;
+		try
+		{
+			in = DDCheck.notNull(inSupplier_.get(), "in");
+			long toRead 	= max_ <= 0 ? Long.MAX_VALUE : max_;
+			byte[] buffer 	= new byte[BUFFER_SIZE];
+			while (toRead > 0)
+			{
+				int read = in.read(buffer, 0, (int)Math.min(BUFFER_SIZE, toRead));
+				if (read < 0)
+					break;
+				consumer.accept(buffer, 0, read);
+				toRead -= read;
+			}
+		}
+		finally
+		{
+			if (close_ && (in != null))
+				in.close();
+		}
+	}
+	
+	
+	private Failure failure(String context)
+	{
+		return new Failure(back_ instanceof ExpectBase ? (ExpectBase)back_ : null).addContext(context);
+	}
+	
+	
 	private byte[] read(long max) throws E, IOException
 	{
 		InputStream in = null;
@@ -127,10 +323,10 @@ public class ByteContentBuilder<BACK,E extends Exception>
 		ByteArrayOutputStream out = new ByteArrayOutputStream();
 		
 		long toRead 	= max <= 0 ? Long.MAX_VALUE : max;
-		byte[] buffer 	= new byte[2048];
+		byte[] buffer 	= new byte[BUFFER_SIZE];
 		while (toRead > 0)
 		{
-			int read = in.read(buffer);
+			int read = in.read(buffer, 0, (int)Math.min(BUFFER_SIZE, toRead));
 			if (read < 0)
 				toRead = 0;
 			else
@@ -142,10 +338,49 @@ public class ByteContentBuilder<BACK,E extends Exception>
 		
 		return out.toByteArray();
 	}
+	
+	
+	/**
+	 * Reads from the InputStream until the buffer part is filled or the end of the stream is reached.
+	 * @return the number of bytes read
+	 */
+	private static int readChunk(InputStream in, byte[] buffer, int length) throws IOException
+	{
+		int n = 0;
+		while (n < length)
+		{
+			int read = in.read(buffer, n, length - n);
+			if (read < 0)
+				break;
+			n += read;
+		}
+		return n;
+	}
+	
+	
+	private static String formatByte(byte b)
+	{
+		return String.format("0x%02x", Integer.valueOf(b & 0xff));
+	}
+	
+	
+	private static String toHex(byte[] bytes)
+	{
+		StringBuilder sb = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes)
+		{
+			sb.append(HEX_DIGITS[(b >> 4) & 0xf]);
+			sb.append(HEX_DIGITS[b & 0xf]);
+		}
+		return sb.toString();
+	}
 
 	
 	private final BACK back_;
 	private final CheckedSupplier<InputStream,E> inSupplier_;
 	private final boolean close_;
 	private long max_;
+	private static final int BUFFER_SIZE = 8192;
+	private static final String END_OF_CONTENT = "end of content";
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
 }
@@ -22,23 +22,39 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.regex.Pattern;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import javax.annotation.CheckReturnValue;
+import deepdive.Failure;
+import deepdive.actual.java.lang.LongActual;
 import deepdive.actual.java.lang.StringActual;
 import deepdive.actual.java.util.StringIteratorActual;
 import deepdive.actual.java.util.StringListActual;
 import deepdive.actual.java.util.stream.StreamActual;
 import deepdive.function.CheckedSupplier;
+import deepdive.impl.AhoCorasick;
 import deepdive.impl.DDCheck;
-import deepdive.impl.Value;
+import deepdive.impl.ExpectBase;
+import deepdive.impl.Not;
+import deepdive.impl.PatternCache;
+import deepdive.impl.ValueFormat;
 
 
 /**
  * CharContentBuilder is a builder to access the character content provided by a Reader.
+ * {@link To#string()} and {@link To#lines()} read the whole content into memory.
+ * The line iterator, line stream and the line and containment assertions instead read the content
+ * lazily and only hold the current line in memory. They can therefore be used for large content.
  * @param<BACK> the type of the back object which owns the resulting actual
  */
 public abstract class CharContentBuilder<BACK,E extends Exception>
@@ -67,7 +83,10 @@ public abstract class CharContentBuilder<BACK,E extends Exception>
 
 		
 		/**
-		 * Reads the content, splits it into lines and returns a StringIteratorActual for these lines.
+		 * Returns a StringIteratorActual for the lines of the content. The lines are read lazily 
+		 * and the content is closed when all lines were read, a terminal assertion (signaled 
+		 * by a trailing $) completes or {@link StringIteratorActual#back()} is called. 
+		 * If the chain ends otherwise, e.g. after a failed assertion, the content is not closed.
 		 * @return the new actual
 		 * @throws E if reading of the content fails
 		 * @throws IOException if reading of the content fails
@@ -76,12 +95,155 @@ public abstract class CharContentBuilder<BACK,E extends Exception>
 
 	
 		/**
-		 * Reads the content, splits it into lines and returns a StreamActual for these lines.
+		 * Returns a StreamActual for the lines of the content. The lines are read lazily 
+		 * and the content is closed when all lines were read, a terminal operation of the 
+		 * StreamActual completes or {@link StreamActual#back()} is called. 
+		 * If the chain ends otherwise, e.g. after a failed assertion, the content is not closed.
 		 * @return the new actual
 		 * @throws E if reading of the content fails
 		 * @throws IOException if reading of the content fails
 		 */
 		public StreamActual<String,BACK,?> lineStream() throws E, IOException;
+
+
+		/**
+		 * Reads the content line by line and returns a LongActual for the number of lines
+		 * which match the regular expression.
+		 * @param regex a regular expression
+		 * @return the new actual
+		 * @throws E if reading of the content fails
+		 * @throws IOException if reading of the content fails
+		 */
+		public LongActual<BACK,?> countLines(String regex) throws E, IOException;
+
+
+		/**
+		 * Reads the content line by line and returns a LongActual for the number of lines
+		 * which match the pattern.
+		 * @param pattern a pattern
+		 * @return the new actual
+		 * @throws E if reading of the content fails
+		 * @throws IOException if reading of the content fails
+		 */
+		public LongActual<BACK,?> countLines(Pattern pattern) throws E, IOException;
+
+
+		/**
+		 * Asserts that all lines of the content match the regular expression.
+		 * The content is read line by line and reading stops at the first line which does not match.
+		 * @param regex a regular expression
+		 * @return the back object
+		 * @throws E if reading of the content fails
+		 * @throws IOException if reading of the content fails
+		 */
+		public BACK allLinesMatch(String regex) throws E, IOException;
+
+
+		/**
+		 * Asserts that all lines of the content match the pattern.
+		 * The content is read line by line and reading stops at the first line which does not match.
+		 * @param pattern a pattern
+		 * @return the back object
+		 * @throws E if reading of the content fails
+		 * @throws IOException if reading of the content fails
+		 */
+		public BACK allLinesMatch(Pattern pattern) throws E, IOException;
+
+
+		/**
+		 * Asserts that no line of the content contains the given value.
+		 * The content is read line by line and reading stops at the first line which contains the value.
+		 * @param unexpected the unexpected value
+		 * @return the back object
+		 * @throws E if reading of the content fails
+		 * @throws IOException if reading of the content fails
+		 */
+		public BACK noLineContains(CharSequence unexpected) throws E, IOException;
+
+
+		/**
+		 * Asserts that the content has a line with the given number and returns a StringActual for that line.
+		 * The content is read line by line up to the requested line.
+		 * @param number the line number, starting at 1
+		 * @return the new actual
+		 * @throws E if reading of the content fails
+		 * @throws IOException if reading of the content fails
+		 */
+		public StringActual<BACK,?> line(long number) throws E, IOException;
+
+
+		/**
+		 * Asserts that the content has the same lines as the expected content, including their line breaks.
+		 * Both contents are read line by line and reading stops at the first different line.
+		 * The expected Reader is not closed.
+		 * @param expected the expected content
+		 * @return the back object
+		 * @throws E if reading of the content fails
+		 * @throws IOException if reading of the content fails
+		 */
+		public BACK sameLinesAs(Reader expected) throws E, IOException;
+
+
+		/**
+		 * Asserts that the content has the same lines as the expected content.
+		 * Both contents are read line by line and reading stops at the first different line.
+		 * The expected Reader is not closed.
+		 * @param expected the expected content
+		 * @param lenient if true, line breaks, trailing whitespace of lines and trailing blank lines are ignored,
+		 * 		else the lines must equal including their line breaks.
+		 * @return the back object
+		 * @throws E if reading of the content fails
+		 * @throws IOException if reading of the content fails
+		 */
+		public BACK sameLinesAs(Reader expected, boolean lenient) throws E, IOException;
+
+
+		/**
+		 * Asserts that the content has the same lines as the content of the expected file, including their line breaks.
+		 * @param expected the expected file
+		 * @param charset the charset of the expected file
+		 * @return the back object
+		 * @throws E if reading of the content fails
+		 * @throws IOException if reading of the content fails
+		 * @see #sameLinesAs(Reader)
+		 */
+		public BACK sameLinesAs(Path expected, Charset charset) throws E, IOException;
+
+
+		/**
+		 * Asserts that the content has the same lines as the content of the expected file.
+		 * @param expected the expected file
+		 * @param charset the charset of the expected file
+		 * @param lenient if true, line breaks, trailing whitespace of lines and trailing blank lines are ignored
+		 * @return the back object
+		 * @throws E if reading of the content fails
+		 * @throws IOException if reading of the content fails
+		 * @see #sameLinesAs(Reader, boolean)
+		 */
+		public BACK sameLinesAs(Path expected, Charset charset, boolean lenient) throws E, IOException;
+
+
+		/**
+		 * Asserts that the content contains all expected values.
+		 * The content is read chunk by chunk and scanned once for all values. Reading stops
+		 * when all values were found.
+		 * @param expected the expected values
+		 * @return the back object
+		 * @throws E if reading of the content fails
+		 * @throws IOException if reading of the content fails
+		 */
+		public BACK containsAll(CharSequence... expected) throws E, IOException;
+
+
+		/**
+		 * Asserts that the content contains none of the given values.
+		 * The content is read chunk by chunk and scanned once for all values.
+		 * @param unexpected the unexpected values
+		 * @return the back object
+		 * @throws E if reading of the content fails
+		 * @throws IOException if reading of the content fails
+		 */
+		public BACK containsNone(CharSequence... unexpected) throws E, IOException;
 	}
 	
 	
@@ -192,26 +354,300 @@ class CharContentBuilderImpl<BACK,E extends Exception> extends CharContentBuilde
 	{
 		// don't use Arrays.asList since we want a modifiable list
 		List<String> list = new ArrayList<>();
-		Collections.addAll(list, readLines());
+		try (LineReader lines = lineReader())
+		{
+			for (String line; (line = lines.nextLine()) != null; )
+				list.add(line);
+		}
 		return new StringListActual<>(list, back_).as("lines");
 	}
 
 	
 	@Override public StringIteratorActual<BACK,?> lineIterator() throws E, IOException
 	{
-		return new StringIteratorActual<>(Value.arrayIterator(readLines()), back_).as("lineIterator");
+		return new StringIteratorActual<>(lineReader(), back_).as("lineIterator");
 	}
 
 	
 	@Override public StreamActual<String,BACK,?> lineStream() throws E, IOException
 	{
-		return new StreamActual<>(Stream.of(readLines()), back_).as("lineStream");
+		LineReader lines = lineReader();
+		Stream<String> stream = StreamSupport.stream(Spliterators.spliteratorUnknownSize(lines, Spliterator.ORDERED | Spliterator.NONNULL), false);
+		stream = stream.onClose(() -> {
+			try
+			{
+				lines.close();
+			}
+			catch (IOException e)
+			{
+				throw new UncheckedIOException(e);
+			}
+		});
+		return new StreamActual<>(stream, back_).as("lineStream");
+	}
+	
+	
+	@Override public LongActual<BACK,?> countLines(String regex) throws E, IOException
+	{
+		return countLines(PatternCache.regex().get(regex));
+	}
+	
+	
+	@Override public LongActual<BACK,?> countLines(Pattern pattern) throws E, IOException
+	{
+		DDCheck.notNull(pattern, "pattern");
+		long count = 0;
+		try (LineReader lines = lineReader())
+		{
+			for (String line; (line = lines.nextLine()) != null; )
+			{
+				if (pattern.matcher(line).matches())
+					count++;
+			}
+		}
+		return new LongActual<>(count, back_).as("countLines");
+	}
+	
+	
+	@Override public BACK allLinesMatch(String regex) throws E, IOException
+	{
+		return allLinesMatch(PatternCache.regex().get(regex));
+	}
+	
+	
+	@Override public BACK allLinesMatch(Pattern pattern) throws E, IOException
+	{
+		DDCheck.notNull(pattern, "pattern");
+		try (LineReader lines = lineReader())
+		{
+			for (String line; (line = lines.nextLine()) != null; )
+			{
+				if (!pattern.matcher(line).matches())
+				{
+					failure("allLinesMatch")
+						.addStmt("expected all lines to match pattern", pattern)
+						.addStmt("but line " + lines.lineNumber() + " was", line)
+						.throwError();
+				}
+			}
+		}
+		return back_;
+	}
+	
+	
+	@Override public BACK noLineContains(CharSequence unexpected) throws E, IOException
+	{
+		DDCheck.notNull(unexpected, "unexpected");
+		String s = unexpected.toString();
+		try (LineReader lines = lineReader())
+		{
+			for (String line; (line = lines.nextLine()) != null; )
+			{
+				if (line.contains(s))
+				{
+					failure("noLineContains")
+						.addStmt("expected no line to contain", s)
+						.addStmt("but line " + lines.lineNumber() + " was", line)
+						.throwError();
+				}
+			}
+		}
+		return back_;
+	}
+	
+	
+	@Override public StringActual<BACK,?> line(long number) throws E, IOException
+	{
+		DDCheck.positive(number, "number");
+		try (LineReader lines = lineReader())
+		{
+			for (String line; (line = lines.nextLine()) != null; )
+			{
+				if (lines.lineNumber() == number)
+					return new StringActual<>(line, back_).as("line " + number);
+			}
+			failure("line")
+				.addStmt("expected a line with number", Long.valueOf(number))
+				.addStmt("but number of lines was", Long.valueOf(lines.lineNumber()))
+				.throwError();
+			return null;
+		}
+	}
+	
+	
+	@Override public BACK sameLinesAs(Reader expected) throws E, IOException
+	{
+		return sameLinesAs(expected, false);
+	}
+
+
+	@Override public BACK sameLinesAs(Reader expected, boolean lenient) throws E, IOException
+	{
+		DDCheck.notNull(expected, "expected");
+		LineReader expectedLines = new LineReader(expected, 0, false, !lenient);
+		try (LineReader actualLines = lineReader(!lenient))
+		{
+			String previous = null;
+			while (true)
+			{
+				String expectedLine	= expectedLines.nextLine();
+				String actualLine 	= actualLines.nextLine();
+				if (lenient)
+				{
+					expectedLine	= expectedLine != null ? expectedLine.stripTrailing() : null;
+					actualLine		= actualLine != null ? actualLine.stripTrailing() : null;
+				}
+				if ((expectedLine == null) && (actualLine == null))
+					return back_;
+				if ((expectedLine == null) || !expectedLine.equals(actualLine))
+				{
+					long number = Math.max(expectedLines.lineNumber(), actualLines.lineNumber());
+					// lines which are only empty after stripping were not dropped by the LineReaders
+					if (lenient && isBlankToEnd(expectedLine, expectedLines) && isBlankToEnd(actualLine, actualLines))
+						return back_;
+					failLines(number, previous, expectedLine, actualLine);
+				}
+				previous = expectedLine;
+			}
+		}
+	}
+
+
+	/**
+	 * Returns if the line and all remaining lines are blank.
+	 */
+	private static boolean isBlankToEnd(String line, LineReader lines) throws IOException
+	{
+		for (; line != null; line = lines.nextLine())
+		{
+			if (!line.isBlank())
+				return false;
+		}
+		return true;
+	}
+
+
+	@Override public BACK sameLinesAs(Path expected, Charset charset) throws E, IOException
+	{
+		return sameLinesAs(expected, charset, false);
+	}
+
+
+	@Override public BACK sameLinesAs(Path expected, Charset charset, boolean lenient) throws E, IOException
+	{
+		DDCheck.notNull(expected, "expected");
+		DDCheck.notNull(charset, "charset");
+		try (Reader reader = Files.newBufferedReader(expected, charset))
+		{
+			return sameLinesAs(reader, lenient);
+		}
+	}
+
+
+	private void failLines(long number, String previous, String expected, String actual)
+	{
+		int column = 0;
+		if ((expected != null) && (actual != null))
+		{
+			int length = Math.min(expected.length(), actual.length());
+			while ((column < length) && (expected.charAt(column) == actual.charAt(column)))
+				column++;
+		}
+		Failure failure = failure("sameLinesAs")
+			.addStmt("content differs at line " + number + ", column", Integer.valueOf(column + 1));
+		if (previous != null)
+			failure.addStmt("line " + (number - 1), formatLine(previous, 0));
+		failure
+			.addStmt("expected", expected != null ? formatLine(expected, column) : END_OF_CONTENT)
+			.addStmt("but was", actual != null ? formatLine(actual, column) : END_OF_CONTENT)
+			.throwError();
+	}
+
+
+	/**
+	 * Returns the part of the line around the column, with escaped line breaks.
+	 */
+	private static String formatLine(String line, int column)
+	{
+		int start	= Math.max(0, column - LINE_CONTEXT);
+		int end 	= Math.min(line.length(), column + LINE_CONTEXT);
+		StringBuilder sb = new StringBuilder();
+		if (start > 0)
+			sb.append(ValueFormat.ELLIPSIS);
+		for (int i=start; i<end; i++)
+		{
+			char c = line.charAt(i);
+			if (c == '\r')
+				sb.append("\\r");
+			else if (c == '\n')
+				sb.append("\\n");
+			else
+				sb.append(c);
+		}
+		if (end < line.length())
+			sb.append(ValueFormat.ELLIPSIS);
+		return sb.toString();
+	}
+
+
+	@Override public BACK containsAll(CharSequence... expected) throws E, IOException
+	{
+		return expectContainment(expected, true, "containsAll");
+	}
+
+
+	@Override public BACK containsNone(CharSequence... unexpected) throws E, IOException
+	{
+		return expectContainment(unexpected, false, "containsNone");
+	}
+
+
+	private BACK expectContainment(CharSequence[] values, boolean all, String context) throws E, IOException
+	{
+		AhoCorasick.Scanner scanner = new AhoCorasick(values).scanner();
+		Reader reader = null;
+		try
+		{
+			reader = readerSupplier_.get();
+			long toRead 	= max_ <= 0 ? Long.MAX_VALUE : max_;
+			char[] buffer 	= new char[2048];
+			while ((toRead > 0) && !scanner.allFound())
+			{
+				int read = reader.read(buffer, 0, (int)Math.min(buffer.length, toRead));
+				if (read < 0)
+					break;
+				scanner.scan(buffer, 0, read);
+				toRead -= read;
+			}
+		}
+		finally
+		{
+			if (close_ && (reader != null))
+				reader.close();
+		}
+		if (all ? !scanner.allFound() : scanner.foundCount() > 0)
+		{
+			failure(context).containment(scanner, all, Not.OFF).throwError();
+		}
+		return back_;
+	}
+	
+	
+	private LineReader lineReader() throws E
+	{
+		return lineReader(false);
+	}
+	
+	
+	private LineReader lineReader(boolean keepBreaks) throws E
+	{
+		return new LineReader(DDCheck.notNull(readerSupplier_.get(), "reader"), max_, close_, keepBreaks);
 	}
 	
 	
-	private String[] readLines() throws E, IOException
+	private Failure failure(String context)
 	{
-		return StringActual.splitLines(read());
+		return new Failure(back_ instanceof ExpectBase ? (ExpectBase)back_ : null).addContext(context);
 	}
 
 	
@@ -231,6 +667,8 @@ class CharContentBuilderImpl<BACK,E extends Exception> extends CharContentBuilde
 	}
 	
 	
+	private static final int LINE_CONTEXT = 40;
+	private static final String END_OF_CONTENT = "end of content";
 	private final BACK back_;
 	private final CheckedSupplier<Reader,E> readerSupplier_;
 	private final boolean close_;
@@ -24,6 +24,7 @@ import deepdive.actual.Actual;
 import deepdive.actual.java.lang.LongActual;
 import deepdive.actual.java.lang.StringActual;
 import deepdive.actual.java.lang.StringArrayActual;
+import deepdive.actual.java.nio.file.MappedContentActual;
 import deepdive.impl.ActualChange;
 import deepdive.impl.NotMustBeOff;
 
@@ -246,6 +247,17 @@ public class FileActual<BACK,IMPL extends FileActual<BACK,IMPL>> extends Actual<
 	}
 
 
+	/**
+	 * Returns a MappedContentActual to make assertions about the content of the file, 
+	 * using memory mapped access to the content.
+	 * @return the new actual
+	 */
+	public MappedContentActual<IMPL> mapped()
+	{
+		return new MappedContentActual<>(value().toPath(), self()).as("mapped");
+	}
+	
+	
 	/**
 	 * Asserts that the file name equals the expected value.
 	 * @param expected the expected value
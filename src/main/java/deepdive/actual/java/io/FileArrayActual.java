@@ -17,7 +17,6 @@ package deepdive.actual.java.io;
 
 
 import java.io.File;
-import deepdive.Context;
 import deepdive.actual.java.lang.ArrayActual;
 
 
@@ -38,6 +37,6 @@ public class FileArrayActual<BACK> extends ArrayActual<File,BACK,FileArrayActual
 	 */
 	@Override public FileActual<FileArrayActual<BACK>,?> elem(int index)
 	{
-		return elem(index, FileActual::new).as(Context.indexed("elem", index));
+		return child(getElem(index), FileActual.class, FileActual::new, "elem", index);
 	}
 }
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2021 jdlib, https://github.com/jdlib
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package deepdive.actual.java.io;
+
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import deepdive.actual.java.lang.StringActual;
+
+
+/**
+ * LineReader lazily reads the lines of a Reader. It only holds the current line in memory.
+ * Lines are split like {@link StringActual#splitLines(String)} does: Line breaks are "\r\n", "\r" or "\n"
+ * and trailing empty lines are dropped. Alternatively lines can be returned including their line break,
+ * then no lines are dropped.
+ * When used as Iterator, IOExceptions thrown by the reader are rethrown as UncheckedIOExceptions.
+ */
+class LineReader implements Iterator<String>, Closeable
+{
+	/**
+	 * Creates a new LineReader.
+	 * @param reader the reader
+	 * @param max the maximum number of chars to read. If &lt;= 0 no limitation is applied.
+	 * @param close should the reader be closed when all lines were read?
+	 */
+	public LineReader(Reader reader, long max, boolean close)
+	{
+		this(reader, max, close, false);
+	}
+	
+	
+	/**
+	 * Creates a new LineReader.
+	 * @param reader the reader
+	 * @param max the maximum number of chars to read. If &lt;= 0 no limitation is applied.
+	 * @param close should the reader be closed when all lines were read?
+	 * @param keepBreaks should returned lines include their line break?
+	 */
+	public LineReader(Reader reader, long max, boolean close, boolean keepBreaks)
+	{
+		reader_ 	= reader;
+		toRead_		= max <= 0 ? Long.MAX_VALUE : max;
+		close_		= close;
+		keepBreaks_	= keepBreaks;
+	}
+	
+	
+	/**
+	 * Returns the next line.
+	 * @return the line or null if all lines were read
+	 * @throws IOException if reading fails
+	 */
+	public String nextLine() throws IOException
+	{
+		if ((next_ == null) && (pendingEmpty_ == 0) && !eof_)
+			advance();
+		if ((next_ == null) && (pendingEmpty_ == 0))
+			return null;
+		lineNumber_++;
+		// empty lines are pending until a non-empty line follows them
+		if (pendingEmpty_ > 0)
+		{
+			pendingEmpty_--;
+			return "";
+		}
+		String next = next_;
+		next_ = null;
+		return next;
+	}
+	
+	
+	@Override public boolean hasNext()
+	{
+		if ((next_ == null) && (pendingEmpty_ == 0) && !eof_)
+		{
+			try
+			{
+				advance();
+			}
+			catch (IOException e)
+			{
+				throw new UncheckedIOException(e);
+			}
+		}
+		return (next_ != null) || (pendingEmpty_ > 0);
+	}
+	
+	
+	@Override public String next()
+	{
+		if (!hasNext())
+			throw new NoSuchElementException();
+		try
+		{
+			return nextLine();
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	
+	/**
+	 * Returns the number of the line last returned, starting at 1.
+	 * @return the line number
+	 */
+	public long lineNumber()
+	{
+		return lineNumber_;
+	}
+	
+	
+	private void advance() throws IOException
+	{
+		while (next_ == null)
+		{
+			String line = readLine();
+			if (line == null)
+			{
+				// content without line breaks, including the empty content, is a single line
+				if (!sawBreak_ && !sawContent_ && !keepBreaks_)
+					next_ = "";
+				else
+					pendingEmpty_ = 0;
+				eof_ = true;
+				close();
+				return;
+			}
+			sawContent_ = true;
+			if (line.isEmpty())
+				pendingEmpty_++;
+			else
+				next_ = line;
+		}
+	}
+
+
+	/**
+	 * Reads the next line, returns null at the end of the content.
+	 */
+	private String readLine() throws IOException
+	{
+		line_.setLength(0);
+		boolean readSomething = false;
+		while (true)
+		{
+			int c = read();
+			if (c < 0)
+				return readSomething ? line_.toString() : null;
+			readSomething = true;
+			if ((c != '\n') && (c != '\r'))
+				line_.append((char)c);
+			else
+			{
+				if (keepBreaks_)
+					line_.append((char)c);
+				if ((c == '\r') && (peek() == '\n'))
+				{
+					read();
+					if (keepBreaks_)
+						line_.append('\n');
+				}
+				break;
+			}
+		}
+		sawBreak_ = true;
+		return line_.toString();
+	}
+	
+	
+	private int read() throws IOException
+	{
+		int c = peek();
+		if (c >= 0)
+			pos_++;
+		return c;
+	}
+	
+	
+	private int peek() throws IOException
+	{
+		if (pos_ == length_)
+		{
+			int n = toRead_ > 0 ? reader_.read(buffer_, 0, (int)Math.min(buffer_.length, toRead_)) : -1;
+			if (n <= 0)
+				return -1;
+			toRead_ -= n;
+			pos_	= 0;
+			length_	= n;
+		}
+		return buffer_[pos_];
+	}
+	
+	
+	@Override public void close() throws IOException
+	{
+		if (close_ && !closed_)
+		{
+			closed_ = true;
+			reader_.close();
+		}
+	}
+
+
+	private final Reader reader_;
+	private final boolean close_;
+	private final boolean keepBreaks_;
+	private final char[] buffer_ = new char[8192];
+	private final StringBuilder line_ = new StringBuilder();
+	private long toRead_;
+	private int pos_;
+	private int length_;
+	private String next_;
+	private int pendingEmpty_;
+	private long lineNumber_;
+	private boolean sawBreak_;
+	private boolean sawContent_;
+	private boolean eof_;
+	private boolean closed_;
+}
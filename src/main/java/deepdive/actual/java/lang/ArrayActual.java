@@ -88,7 +88,7 @@ public class ArrayActual<ELEM,BACK,IMPL extends ArrayActual<ELEM,BACK,IMPL>>
 	 */
 	public Actual<ELEM,IMPL,?> elem(int index)
 	{
-		return elem(index, Actual::new).as(Context.indexed("elem", index));
+		return child(getElem(index), Actual.class, Actual::new, "elem", index);
 	}
 	
 	
@@ -189,7 +189,7 @@ public class ArrayActual<ELEM,BACK,IMPL extends ArrayActual<ELEM,BACK,IMPL>>
 	 */
 	public IntegerActual<IMPL,?> length()
 	{
-		return new IntegerActual<>(value().length, self()).as("length");
+		return child(value().length, IntegerActual.class, IntegerActual::new, "length");
 	}
 	
 	
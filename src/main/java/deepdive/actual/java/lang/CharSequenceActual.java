@@ -83,6 +83,6 @@ public interface CharSequenceActual<T extends CharSequence,IMPL extends Actual<T
 	public default IntegerActual<IMPL,?> length()
 	{
 		Internals<IMPL> i = ActualMixin.internals(this);
-		return new IntegerActual<>(value().length(), i.self()).as("length");
+		return i.child(value().length(), IntegerActual.class, IntegerActual::new, "length");
 	}
 }
@@ -1,7 +1,6 @@
 package deepdive.actual.java.lang;
 
 
-import deepdive.Context;
 
 
 /**
@@ -21,6 +20,6 @@ public class ClassArrayActual<BACK,IMPL extends ClassArrayActual<BACK,IMPL>> ext
 	 */
 	@Override public ClassActual<IMPL,?> elem(int index)
 	{
-		return elem(index, ClassActual::new).as(Context.indexed("elem", index));
+		return child(getElem(index), ClassActual.class, ClassActual::new, "elem", index);
 	}
 }
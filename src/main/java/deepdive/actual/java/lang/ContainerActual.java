@@ -3,6 +3,7 @@ package deepdive.actual.java.lang;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
@@ -10,8 +11,10 @@ import java.util.function.Predicate;
 import java.util.stream.Stream;
 import deepdive.Context;
 import deepdive.actual.Actual;
+import deepdive.actual.java.util.SampleActual;
 import deepdive.actual.java.util.stream.StreamActual;
 import deepdive.impl.Not;
+import deepdive.impl.Sample;
 import deepdive.impl.StmtTemplate;
 import deepdive.impl.Value;
 import deepdive.impl.NotMustBeOff;
@@ -77,6 +80,9 @@ public abstract class ContainerActual<ELEM,T,BACK,IMPL extends ContainerActual<E
 	
 	/**
 	 * Allows to make assertions about the contained elements of the container (array or collection).
+	 * If many elements are tested, the container elements are put into a hash index 
+	 * (see {@link ContainerActual#actualAsSet()}) once, which is then reused 
+	 * by all assertions of this ContainsActual.
 	 * @see ContainerActual#contains()
 	 */
 	public class ContainsActual
@@ -114,9 +120,10 @@ public abstract class ContainerActual<ELEM,T,BACK,IMPL extends ContainerActual<E
 		public final ContainsActual allOf(Iterable<ELEM> elems)
 		{
 			List<ELEM> failing = null;
+			prepareIndex(elems instanceof Collection ? ((Collection<?>)elems).size() : Integer.MAX_VALUE);
 			for (ELEM elem : elems)
 			{
-				if (!doesContain(elem))
+				if (!isContained(elem))
 				{
 					if (failing == null)
 						failing = new ArrayList<>();
@@ -150,7 +157,8 @@ public abstract class ContainerActual<ELEM,T,BACK,IMPL extends ContainerActual<E
 		 */
 		public ContainsActual exactly(Set<ELEM> expected)
 		{
-			expectEqual(expected, actualAsSet(), "exactly");
+			prepareIndex(Integer.MAX_VALUE);
+			expectEqual(expected, index_ != null ? index_ : actualAsSet(), "exactly");
 			return this;
 		}
 		
@@ -177,9 +185,10 @@ public abstract class ContainerActual<ELEM,T,BACK,IMPL extends ContainerActual<E
 		public final ContainsActual noneOf(ELEM... elems)
 		{
 			List<ELEM> failing = null;
+			prepareIndex(elems.length);
 			for (ELEM elem : elems)
 			{
-				if (doesContain(elem))
+				if (isContained(elem))
 				{
 					if (failing == null)
 						failing = new ArrayList<>(elems.length);
@@ -188,7 +197,7 @@ public abstract class ContainerActual<ELEM,T,BACK,IMPL extends ContainerActual<E
 			}
 	    	expectTrue(failing == null, 
 	    		StmtTemplate.ASSERT_EXPECTED_TO_TOGGLEDNOT, 
-	    		"contain", getNotHolder().get().isOff() ? Value.onlyOrCollection(failing) : elems);
+	    		"contain", getNot().isOff() ? Value.onlyOrCollection(failing) : elems);
 	    	return this;
 		}
 		
@@ -213,9 +222,10 @@ public abstract class ContainerActual<ELEM,T,BACK,IMPL extends ContainerActual<E
 		public final ContainsActual someOf(ELEM... elems)
 		{
 			boolean found = false;
+			prepareIndex(elems.length);
 			for (ELEM elem : elems)
 			{
-				if (doesContain(elem))
+				if (isContained(elem))
 				{
 					found = true;
 					break;
@@ -224,6 +234,65 @@ public abstract class ContainerActual<ELEM,T,BACK,IMPL extends ContainerActual<E
 			expectTo(found, "contain some of", elems);
 			return this;
 		}
+		
+		
+		/**
+		 * Builds the index of the container elements if the given number of elements
+		 * will be looked up. If the elements cannot be hashed, no index is used:
+		 * Elements which override equals() but not hashCode() would only be found by chance.
+		 * If the container is a Set, the set itself is used as index.
+		 * @param lookups the number of lookups
+		 */
+		private void prepareIndex(int lookups)
+		{
+			if ((index_ == null) && !indexFailed_ && (lookups >= INDEX_MIN_LOOKUPS))
+			{
+				try
+				{
+					Set<ELEM> index = actualAsSet();
+					indexIsValue_ = index == value();
+					if (!indexIsValue_)
+					{
+						for (ELEM elem : index)
+						{
+							if (!Value.isHashable(elem))
+							{
+								indexFailed_ = true;
+								return;
+							}
+						}
+					}
+					index_ = index;
+				}
+				catch (RuntimeException e)
+				{
+					// e.g. hashCode() not supported by an element
+					indexFailed_ = true;
+				}
+			}
+		}
+		
+		
+		private boolean isContained(ELEM elem)
+		{
+			if ((index_ != null) && (indexIsValue_ || Value.isHashable(elem)))
+			{
+				try
+				{
+					return index_.contains(elem);
+				}
+				catch (RuntimeException e)
+				{
+					// the element cannot be hashed or compared by the set
+				}
+			}
+			return doesContain(elem);
+		}
+		
+		
+		private Set<ELEM> index_;
+		private boolean indexIsValue_;
+		private boolean indexFailed_;
 	}
 	
 	
@@ -249,6 +318,32 @@ public abstract class ContainerActual<ELEM,T,BACK,IMPL extends ContainerActual<E
 	}
 
 	
+	/**
+	 * Returns a SampleActual for a random sample of the elements of this container.
+	 * The sample is drawn by a single pass over the elements (reservoir sampling) and 
+	 * is reproducible: the same seed always draws the same sample from the same elements.
+	 * @param size the sample size
+	 * @param seed the seed of the random numbers
+	 * @return the new actual
+	 */
+	public SampleActual<ELEM,IMPL,?> sample(int size, long seed)
+	{
+		return sample(Sample.of(getStream().iterator(), size, seed), size);
+	}
+	
+	
+	/**
+	 * Helper method to implement {@link #sample(int, long)}.
+	 * @param sample the sample
+	 * @param size the requested sample size, reported in the context even if the population is smaller
+	 * @return the new actual
+	 */
+	protected SampleActual<ELEM,IMPL,?> sample(Sample<ELEM> sample, int size)
+	{
+		return new SampleActual<>(sample, self()).as(Context.call("sample", Integer.valueOf(size), Long.valueOf(sample.getSeed())));
+	}
+
+	
 	/**
 	 * Returns a StreamActual for the elements of this container.
 	 * @return the new actual
@@ -282,6 +377,8 @@ public abstract class ContainerActual<ELEM,T,BACK,IMPL extends ContainerActual<E
 	
 	/**
 	 * Returns the container values as a set.
+	 * The set is also used by ContainsActual as lookup index instead of {@link #doesContain(Object)}
+	 * and therefore should contain the same elements as tested by that method.
 	 * @return the set
 	 */
 	protected abstract Set<ELEM> actualAsSet();
@@ -292,4 +389,7 @@ public abstract class ContainerActual<ELEM,T,BACK,IMPL extends ContainerActual<E
 		if (!Value.indexValid(index, size))
 			failure().addStmts(StmtTemplate.indexValid(index, size), null, null, Not.OFF, null).throwError();
 	}
+	
+	
+	private static final int INDEX_MIN_LOOKUPS = 4;
 }
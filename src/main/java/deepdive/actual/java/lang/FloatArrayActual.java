@@ -19,12 +19,19 @@ package deepdive.actual.java.lang;
 
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import javax.annotation.CheckReturnValue;
 import deepdive.actual.Actual;
 import deepdive.impl.ActualChange;
+import deepdive.impl.DDCheck;
+import deepdive.impl.ExpectResult;
 import deepdive.impl.Not;
 import deepdive.impl.NotMustBeOff;
+import deepdive.impl.Order;
+import deepdive.impl.Parallelism;
 import deepdive.impl.StmtTemplate;
 import deepdive.impl.Value;
 
@@ -83,6 +90,8 @@ public class FloatArrayActual<BACK,IMPL extends FloatArrayActual<BACK,IMPL>> ext
 	
 	/**
 	 * Allows to make assertions about the contained elements of the array.
+	 * If many elements are tested against a large array, the array elements are 
+	 * put into a hash index once, which is then reused by all assertions of this ContainsActual.
 	 */
 	public class ContainsActual
 	{
@@ -106,9 +115,10 @@ public class FloatArrayActual<BACK,IMPL extends FloatArrayActual<BACK,IMPL>> ext
 		public final ContainsActual allOf(float... elems)
 		{
 			List<Float> failing = null;
+			prepareIndex(elems.length);
 			for (float elem : elems)
 			{
-				if (!doesContain(elem))
+				if (!isContained(elem))
 				{
 					if (failing == null)
 						failing = new ArrayList<>();
@@ -122,14 +132,18 @@ public class FloatArrayActual<BACK,IMPL extends FloatArrayActual<BACK,IMPL>> ext
 		
 		/**
 		 * Asserts that the array exactly consists of the expected elements
-		 * (ignoring order and duplicates).
+		 * (ignoring order and duplicates). Elements are compared by their bit pattern,
+		 * like in {@link FloatArrayActual#elems(float...)}, i.e. NaN matches NaN and 0.0 does not match -0.0.
 		 * @param elems the elements
 		 * @return this ContainsActual
 		 */
 		@SafeVarargs
 		public final ContainsActual exactly(float... elems)
 		{
-			expectEqual(Value.arrayObjectToSet(elems), Value.arrayObjectToSet(valueOrNull()), "exactly");  
+			float[] array = valueOrNull();
+			// fast path without boxing, the boxed sets are only created to report a failure
+			if ((array == null) || !getNot().isOff() || !consistsOf(array, elems))
+				expectEqual(Value.arrayObjectToSet(elems), Value.arrayObjectToSet(array), "exactly");  
 			return this;
 		}
 		
@@ -143,9 +157,10 @@ public class FloatArrayActual<BACK,IMPL extends FloatArrayActual<BACK,IMPL>> ext
 		public final ContainsActual noneOf(float... elems)
 		{
 			List<Float> failing = null;
+			prepareIndex(elems.length);
 			for (float elem : elems)
 			{
-				if (doesContain(elem))
+				if (isContained(elem))
 				{
 					if (failing == null)
 						failing = new ArrayList<>(elems.length);
@@ -155,7 +170,7 @@ public class FloatArrayActual<BACK,IMPL extends FloatArrayActual<BACK,IMPL>> ext
 	    	expectTrue(failing == null, 
 	    		StmtTemplate.ASSERT_EXPECTED_TO_TOGGLEDNOT, 
 	    		"contain",
-	    		getNotHolder().get().isOff() ? Value.onlyOrCollection(failing) : elems);
+	    		getNot().isOff() ? Value.onlyOrCollection(failing) : elems);
 			return this;
 		}
 		
@@ -179,9 +194,10 @@ public class FloatArrayActual<BACK,IMPL extends FloatArrayActual<BACK,IMPL>> ext
 		public final ContainsActual someOf(float... elems)
 		{
 			boolean found = false;
+			prepareIndex(elems.length);
 			for (float elem : elems)
 			{
-				if (doesContain(elem))
+				if (isContained(elem))
 				{
 					found = true;
 					break;
@@ -190,6 +206,243 @@ public class FloatArrayActual<BACK,IMPL extends FloatArrayActual<BACK,IMPL>> ext
 			expectTo(found, "contain one of", elems);
 			return this;
 		}
+		
+		
+		/**
+		 * Builds the index of the array elements if the given number of elements
+		 * will be looked up and the array is large enough to make it worthwhile.
+		 * @param lookups the number of lookups
+		 */
+		private void prepareIndex(int lookups)
+		{
+			if ((index_ == null) && (lookups >= INDEX_MIN_LOOKUPS))
+			{
+				float[] array = value();
+				if ((array.length >= INDEX_MIN_LENGTH) && (array.length <= ElemIndex.MAX_LENGTH))
+					index_ = new ElemIndex(array, false);
+			}
+		}
+		
+		
+		private boolean isContained(float elem)
+		{
+			return index_ != null ? index_.contains(elem) : doesContain(elem);
+		}
+		
+		
+		/**
+		 * Returns if the array and the elements contain the same values, ignoring order and duplicates.
+		 * Values are compared by their bit pattern, like the boxed sets do.
+		 */
+		private boolean consistsOf(float[] array, float[] elems)
+		{
+			if ((elems.length > ElemIndex.MAX_LENGTH) || (array.length > ElemIndex.MAX_LENGTH))
+				return false;
+			ElemIndex expected = new ElemIndex(elems, true);
+			for (float e : array)
+			{
+				if (!expected.contains(e))
+					return false;
+			}
+			ElemIndex actual = new ElemIndex(array, true);
+			for (float elem : elems)
+			{
+				if (!actual.contains(elem))
+					return false;
+			}
+			return true;
+		}
+		
+		
+		private ElemIndex index_;
+	}
+	
+	
+	/**
+	 * An open addressing hash set of primitive array elements.
+	 * Elements are either compared with ==, like in {@link FloatArrayActual#doesContain(float)},
+	 * or bitwise, like in {@link FloatArrayActual#elems(float...)}. 
+	 * The two only differ for NaN and -0.0 elements of float and double arrays.
+	 */
+	private static final class ElemIndex
+	{
+		ElemIndex(float[] elems, boolean bitwise)
+		{
+			int bits = 2;
+			while ((1 << bits) < elems.length + (elems.length >> 1))
+				bits++;
+			bitwise_ = bitwise;
+			keys_    = new int[1 << bits];
+			shift_   = 32 - bits;
+			mask_    = keys_.length - 1;
+			for (float elem : elems)
+				add(elem);
+		}
+		
+		
+		private void add(float elem)
+		{
+			int key = key(elem);
+			if (key == FREE)
+				containsFree_ = true;
+			else
+			{
+				int i = slot(key);
+				for (; keys_[i] != FREE; i = (i + 1) & mask_)
+				{
+					if (keys_[i] == key)
+						return;
+				}
+				keys_[i] = key;
+			}
+		}
+		
+		
+		boolean contains(float elem)
+		{
+			int key = key(elem);
+			if (key == FREE)
+				return containsFree_;
+			for (int i = slot(key); keys_[i] != FREE; i = (i + 1) & mask_)
+			{
+				// the second test rejects NaN when compared with ==
+				if (keys_[i] == key)
+					return bitwise_ || (Float.intBitsToFloat(key) == elem);
+			}
+			return false;
+		}
+		
+		
+		/**
+		 * Returns the key of an element. When compared with ==,
+		 * all elements equal to the default value (i.e. 0.0 and -0.0) map to the free key. 
+		 */
+		private int key(float elem)
+		{
+			return bitwise_ || (elem != FREE_ELEM) ? Float.floatToIntBits(elem) : FREE;
+		}
+		
+		
+		private int slot(int key)
+		{
+			return (Float.hashCode(Float.intBitsToFloat(key)) * 0x9E3779B9) >>> shift_;
+		}
+		
+		
+		/**
+		 * The default values of the primitive and key type mark free slots.
+		 */
+		private static final float FREE_ELEM = (new float[1])[0];
+		private static final int FREE = (new int[1])[0];
+		private static final int MAX_LENGTH = 1 << 29;
+		private final boolean bitwise_;
+		private final int[] keys_;
+		private final int shift_;
+		private final int mask_;
+		private boolean containsFree_;
+	}
+
+
+	/**
+	 * An open addressing hash table which counts primitive array elements.
+	 * Elements are compared by their bit pattern, like in {@link FloatArrayActual#elems(float...)},
+	 * i.e. NaN matches NaN and 0.0 does not match -0.0.
+	 * The table starts small and grows with the number of distinct elements.
+	 */
+	private static final class ElemCounts
+	{
+		void add(float elem, int delta)
+		{
+			int key = Float.floatToIntBits(elem);
+			if (key == FREE)
+				freeCount_ = update(freeCount_, delta);
+			else
+			{
+				int i = slot(key);
+				for (; keys_[i] != FREE; i = (i + 1) & mask_)
+				{
+					if (keys_[i] == key)
+					{
+						counts_[i] = update(counts_[i], delta);
+						return;
+					}
+				}
+				keys_[i]   = key;
+				counts_[i] = update(0, delta);
+				if (++size_ * 2 >= keys_.length)
+					rehash();
+			}
+		}
+		
+		
+		private int slot(int key)
+		{
+			return (Float.hashCode(Float.intBitsToFloat(key)) * 0x9E3779B9) >>> shift_;
+		}
+		
+		
+		private void rehash()
+		{
+			int[] keys = keys_;
+			int[] counts = counts_;
+			keys_   = new int[keys.length << 1];
+			counts_ = new int[keys_.length];
+			mask_   = keys_.length - 1;
+			shift_--;
+			for (int j=0; j<keys.length; j++)
+			{
+				if (keys[j] != FREE)
+				{
+					int i = slot(keys[j]);
+					while (keys_[i] != FREE)
+						i = (i + 1) & mask_;
+					keys_[i]   = keys[j];
+					counts_[i] = counts[j];
+				}
+			}
+		}
+		
+		
+		private int update(int count, int delta)
+		{
+			int updated = count + delta;
+			if (count == 0)
+				differing_++;
+			else if (updated == 0)
+				differing_--;
+			return updated;
+		}
+		
+		
+		/**
+		 * Returns the elements whose count is not zero.
+		 */
+		@SuppressWarnings("boxing")
+		Map<Float,Integer> differences()
+		{
+			Map<Float,Integer> differences = new LinkedHashMap<>();
+			if (freeCount_ != 0)
+				differences.put(Float.intBitsToFloat(FREE), freeCount_);
+			for (int i=0; i<keys_.length; i++)
+			{
+				if (counts_[i] != 0)
+					differences.put(Float.intBitsToFloat(keys_[i]), counts_[i]);
+			}
+			return differences;
+		}
+		
+		
+		/**
+		 * The default value of the key type marks free slots.
+		 */
+		private static final int FREE = (new int[1])[0];
+		private int[] keys_ = new int[16];
+		private int[] counts_ = new int[16];
+		private int shift_ = 32 - 4;
+		private int mask_ = 15;
+		private int size_;
+		private int freeCount_;
+		private int differing_;
 	}
 
 
@@ -214,7 +467,7 @@ public class FloatArrayActual<BACK,IMPL extends FloatArrayActual<BACK,IMPL>> ext
 	 */
 	public FloatActual<IMPL,?> elem(int index)
 	{
-		return new FloatActual<>(getElem(index), self());
+		return child(getElem(index), FloatActual.class, FloatActual::new, null);
 	}
 
 
@@ -230,6 +483,30 @@ public class FloatArrayActual<BACK,IMPL extends FloatArrayActual<BACK,IMPL>> ext
 	}
 
 
+	/**
+	 * Asserts that the array contains the expected elements in any order, 
+	 * i.e. each element occurs as often in the array as in the expected elements.
+	 * Elements are counted in a primitive hash table, with a single pass over each side,
+	 * and compared by their bit pattern, like in {@link #elems(float...)}.
+	 * A failure reports how often elements are missing or unexpected.
+	 * @param expected the expected values
+	 * @return this
+	 */
+	public IMPL elemsInAnyOrder(float... expected)
+	{
+		float[] array = value();
+		ElemCounts counts = new ElemCounts();
+		for (float elem : expected)
+			counts.add(elem, 1);
+		for (float elem : array)
+			counts.add(elem, -1);
+		ExpectResult result = eval(counts.differing_ == 0);
+		if (!result.ok)
+			failure().elemCounts(expected, counts.differences(), result.not).throwError();
+		return self();
+	}
+
+
 	/**
 	 * Asserts that the array is empty, i.e. has length 0.
 	 * @return this
@@ -252,6 +529,97 @@ public class FloatArrayActual<BACK,IMPL extends FloatArrayActual<BACK,IMPL>> ext
 	}
 	
 	
+	/**
+	 * Asserts that the array is sorted in ascending or in descending order.
+	 * The check stops at the first pair of adjacent elements which violates the order and reports it.
+	 * Arrays whose length reaches the threshold of the current {@link Parallelism} are checked in parallel.
+	 * @return this
+	 */
+	public IMPL isMonotonic()
+	{
+		return expectOrder(Order.MONOTONIC, null);
+	}
+
+
+	/**
+	 * Asserts that the array is sorted in ascending order, i.e. each element is greater than or equal to its predecessor.
+	 * The check stops at the first pair of adjacent elements which violates the order and reports it.
+	 * Arrays whose length reaches the threshold of the current {@link Parallelism} are checked in parallel.
+	 * @return this
+	 */
+	public IMPL isSorted()
+	{
+		return expectOrder(Order.SORTED, null);
+	}
+
+
+	/**
+	 * Asserts that the array is sorted according to the comparator.
+	 * The check stops at the first pair of adjacent elements which violates the order and reports it.
+	 * Arrays whose length reaches the threshold of the current {@link Parallelism} are checked in parallel,
+	 * therefore the comparator may be called by multiple threads.
+	 * @param comparator a comparator
+	 * @return this
+	 */
+	public IMPL isSorted(Comparator<? super Float> comparator)
+	{
+		return expectOrder(Order.SORTED, DDCheck.notNull(comparator, "comparator"));
+	}
+
+
+	/**
+	 * Asserts that each array element is greater than its predecessor.
+	 * The check stops at the first pair of adjacent elements which violates the order and reports it.
+	 * Arrays whose length reaches the threshold of the current {@link Parallelism} are checked in parallel.
+	 * @return this
+	 */
+	public IMPL isStrictlyIncreasing()
+	{
+		return expectOrder(Order.STRICTLY_INCREASING, null);
+	}
+
+
+	@SuppressWarnings("boxing")
+	private IMPL expectOrder(Order order, Comparator<? super Float> comparator)
+	{
+		float[] array = value();
+		int index = findUnordered(array, order == Order.STRICTLY_INCREASING, false, comparator);
+		if ((index >= 0) && (order == Order.MONOTONIC))
+		{
+			// the prefix which is sorted in the other direction is longer
+			int descending = findUnordered(array, false, true, comparator);
+			index = descending >= 0 ? Math.max(index, descending) : -1;
+		}
+		ExpectResult result = eval(index < 0);
+		if (!result.ok)
+		{
+			Order.Violation violation = index >= 0 ? new Order.Violation(index, array[index], array[index + 1]) : null;
+			failure().orderViolation(order, violation, result.not).throwError();
+		}
+		return self();
+	}
+	
+	
+	/**
+	 * Returns the index of the first element which is not ordered with respect to its successor, or -1.
+	 */
+	@SuppressWarnings("boxing")
+	private static int findUnordered(float[] array, boolean strict, boolean descending, Comparator<? super Float> comparator)
+	{
+		int sign = descending ? -1 : 1;
+		return Parallelism.get().search((from, to) -> {
+			for (int i=from; i<to; i++)
+			{
+				int c = comparator != null ? comparator.compare(array[i], array[i + 1]) : Float.compare(array[i], array[i + 1]);
+				c = sign * Integer.signum(c);
+				if (strict ? c >= 0 : c > 0)
+					return i;
+			}
+			return -1;
+		}, Math.max(array.length - 1, 0));
+	}
+	
+	
 	/**
 	 * Asserts that array length equals the expected value.
 	 * @param expected the expected value
@@ -270,7 +638,7 @@ public class FloatArrayActual<BACK,IMPL extends FloatArrayActual<BACK,IMPL>> ext
 	 */
 	public IntegerActual<IMPL,?> length()
 	{
-		return new IntegerActual<>(value().length, self()).as("length");
+		return child(value().length, IntegerActual.class, IntegerActual::new, "length");
 	}
 	
 	
@@ -319,6 +687,8 @@ public class FloatArrayActual<BACK,IMPL extends FloatArrayActual<BACK,IMPL>> ext
 
 	/**
 	 * Returns if the actual value of this Actual contains the given element.
+	 * Implementations must compare elements with ==, since ContainsActual
+	 * may use a hash index instead of this method.
 	 * @param elem the element
 	 * @return contained?
 	 */
@@ -331,4 +701,21 @@ public class FloatArrayActual<BACK,IMPL extends FloatArrayActual<BACK,IMPL>> ext
 		}
 		return false;
 	}
+	
+	
+	private static final int INDEX_MIN_LOOKUPS = 4;
+	private static final int INDEX_MIN_LENGTH = 32;
+
+
+	/**
+	 * Asserts that the actual array has the length of the expected array and
+	 * its elements equal the expected values within a delta.
+	 * @param expected the expected values
+	 * @param delta the delta
+	 * @return this
+	 */
+	public IMPL elems(float[] expected, float delta)
+	{
+		return expectEqualness(Value.withinDelta(expected, value(), delta), expected, Float.valueOf(delta));
+	}
 }
\ No newline at end of file
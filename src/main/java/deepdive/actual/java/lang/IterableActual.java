@@ -67,7 +67,7 @@ public class IterableActual<ELEM,T extends Iterable<ELEM>,BACK,IMPL extends Iter
 	 */
 	public IntegerActual<IMPL,?> size()
 	{
-		return new IntegerActual<>(getSize(), self()).as("size");
+		return child(getSize(), IntegerActual.class, IntegerActual::new, "size");
 	}
 
 	
@@ -19,15 +19,17 @@ package deepdive.actual.java.lang;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.StringTokenizer;
 import java.util.regex.Pattern;
 import javax.annotation.CheckReturnValue;
 import deepdive.Context;
 import deepdive.actual.Actual;
 import deepdive.actual.java.util.StringIteratorActual;
 import deepdive.actual.java.util.StringListActual;
+import deepdive.impl.AhoCorasick;
+import deepdive.impl.ExpectResult;
 import deepdive.impl.Value;
 import deepdive.impl.NotMustBeOff;
+import deepdive.impl.PatternCache;
 
 
 /**
@@ -82,6 +84,40 @@ public class StringActual<BACK,IMPL extends StringActual<BACK,IMPL>> extends Act
 	}
 	
 	
+	/**
+	 * Asserts that the String contains all expected values.
+	 * The String is scanned once for all values, using an {@link AhoCorasick} automaton.
+	 * @param expected the expected values
+	 * @return this
+	 */
+	public IMPL containsAll(CharSequence... expected)
+	{
+		return expectContainment(expected, true);
+	}
+	
+	
+	/**
+	 * Asserts that the String contains none of the given values.
+	 * The String is scanned once for all values, using an {@link AhoCorasick} automaton.
+	 * @param unexpected the unexpected values
+	 * @return this
+	 */
+	public IMPL containsNone(CharSequence... unexpected)
+	{
+		return expectContainment(unexpected, false);
+	}
+	
+	
+	private IMPL expectContainment(CharSequence[] values, boolean all)
+	{
+		AhoCorasick.Scanner scanner = new AhoCorasick(values).scanner().scan(value());
+		ExpectResult result = eval(all ? scanner.allFound() : scanner.foundCount() == 0);
+		if (!result.ok)
+			failure().containment(scanner, all, result.not).throwError();
+		return self();
+	}
+	
+	
 	/**
 	 * Asserts that the actual String ends with the expected value.
 	 * @param expected the expected value
@@ -213,19 +249,7 @@ public class StringActual<BACK,IMPL extends StringActual<BACK,IMPL>> extends Act
 	 */
 	public IMPL like(String expectedPattern)
 	{
-		StringTokenizer st = new StringTokenizer(expectedPattern, "*?", true);
-		StringBuffer sb = new StringBuffer(); 
-		while (st.hasMoreElements())
-		{
-			String token = st.nextToken();
-			if ("*".equals(token))
-				sb.append(".*");
-			else if ("?".equals(token)) 
-				sb.append(".");
-			else
-				sb.append(Pattern.quote(token));
-		}
-		Pattern p = Pattern.compile(sb.toString());
+		Pattern p = PatternCache.glob().get(expectedPattern);
 		return expectTo(p.matcher(value()).matches(), "be like", expectedPattern);
 	}
 	
@@ -237,7 +261,7 @@ public class StringActual<BACK,IMPL extends StringActual<BACK,IMPL>> extends Act
 	 */
 	public IMPL matches(String pattern)
 	{
-		return matches(Pattern.compile(pattern));
+		return matches(PatternCache.regex().get(pattern));
 	}
 
 
@@ -388,7 +412,8 @@ public class StringActual<BACK,IMPL extends StringActual<BACK,IMPL>> extends Act
 		private String[] applySplit()
 		{
 			String s = value();
-			return regex_ != null ? s.split(regex_, limit_) : pattern_.split(s, limit_);
+			Pattern pattern = regex_ != null ? PatternCache.regex().get(regex_) : pattern_;
+			return pattern.split(s, limit_);
 		}
 		
 		
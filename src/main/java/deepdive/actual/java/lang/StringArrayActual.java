@@ -20,7 +20,6 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import javax.annotation.CheckReturnValue;
-import deepdive.Context;
 import deepdive.actual.java.util.StringIteratorActual;
 import deepdive.actual.java.util.StringListActual;
 import deepdive.impl.Value;
@@ -49,7 +48,7 @@ public class StringArrayActual<BACK,IMPL extends StringArrayActual<BACK,IMPL>>
 	 */
 	@Override public StringActual<IMPL,?> elem(int index)
 	{
-		return elem(index, StringActual::new).as(Context.indexed("elem", index));
+		return child(getElem(index), StringActual.class, StringActual::new, "elem", index);
 	}
 
 	
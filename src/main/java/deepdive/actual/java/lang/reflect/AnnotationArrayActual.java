@@ -17,7 +17,6 @@ package deepdive.actual.java.lang.reflect;
 
 
 import java.lang.annotation.Annotation;
-import deepdive.Context;
 import deepdive.actual.java.lang.ArrayActual;
 import deepdive.actual.java.lang.annotation.AnnotationActual;
 
@@ -43,6 +42,6 @@ public class AnnotationArrayActual<A extends Annotation,BACK> extends ArrayActua
 	 */
 	@Override public AnnotationActual<A,AnnotationArrayActual<A,BACK>,?> elem(int index)
 	{
-		return elem(index, AnnotationActual::new).as(Context.indexed("elem", index));
+		return child(getElem(index), AnnotationActual.class, AnnotationActual::new, "elem", index);
 	}
 }	
@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2021 jdlib, https://github.com/jdlib
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package deepdive.actual.java.nio.file;
+
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import deepdive.Failure;
+import deepdive.actual.Actual;
+import deepdive.impl.ExpectResult;
+import deepdive.impl.StmtTemplate;
+
+
+/**
+ * An Actual implementation for the content of a file, given by its Path.
+ * The content is accessed via memory mapped {@link FileChannel#map(MapMode, long, long) regions}
+ * and is never copied into the heap, therefore it can be used to compare large files.
+ * Mismatches are reported with the offset of the first different byte.
+ */
+public class MappedContentActual<BACK> extends Actual<Path,BACK,MappedContentActual<BACK>>
+{
+	/**
+	 * Creates a new MappedContentActual.
+	 * @param value the path of the file
+	 * @param back the owner object
+	 */
+	public MappedContentActual(Path value, BACK back)
+	{
+		super(value, back);
+	}
+	
+	
+	/**
+	 * Asserts that the file contains the expected bytes.
+	 * @param expected the expected bytes
+	 * @return this
+	 * @throws IOException if reading the file fails
+	 */
+	public MappedContentActual<BACK> containsBytes(byte[] expected) throws IOException
+	{
+		rejectNull(expected, "expected");
+		try (FileChannel channel = open(value()))
+		{
+			return expectTo(indexOf(channel, expected) >= 0, "contain bytes", expected);
+		}
+	}
+	
+	
+	/**
+	 * Asserts that the file has the same content as the other file.
+	 * @param other the other file
+	 * @return this
+	 * @throws IOException if reading the files fails
+	 */
+	public MappedContentActual<BACK> equalContent(Path other) throws IOException
+	{
+		rejectNull(other, "other");
+		try (FileChannel actual = open(value()); FileChannel expected = open(other))
+		{
+			long actualSize		= actual.size();
+			long expectedSize	= expected.size();
+			long length 		= Math.min(actualSize, expectedSize);
+			long mismatch 		= mismatch(actual, 0, expected, 0, length);
+			if ((mismatch < 0) && (actualSize != expectedSize))
+				mismatch = length;
+			return expectNoMismatch(mismatch, "have equal content as", other, actual, 0, expected, 0);
+		}
+	}
+	
+	
+	/**
+	 * Asserts that the file content at the given offset equals the expected bytes.
+	 * @param offset the offset in the file
+	 * @param expected the expected bytes
+	 * @return this
+	 * @throws IOException if reading the file fails
+	 */
+	public MappedContentActual<BACK> regionEqual(long offset, byte[] expected) throws IOException
+	{
+		rejectNull(expected, "expected");
+		try (FileChannel actual = open(value()))
+		{
+			long mismatch = mismatch(actual, offset, ByteBuffer.wrap(expected), expected.length);
+			return expectNoMismatch(mismatch, "have region equal to", expected, actual, offset, ByteBuffer.wrap(expected));
+		}
+	}
+	
+	
+	/**
+	 * Asserts that a region of the file content equals a region of the other file.
+	 * @param offset the offset in the file
+	 * @param other the other file
+	 * @param otherOffset the offset in the other file
+	 * @param length the length of the region
+	 * @return this
+	 * @throws IOException if reading the files fails
+	 */
+	public MappedContentActual<BACK> regionEqual(long offset, Path other, long otherOffset, long length) throws IOException
+	{
+		rejectNull(other, "other");
+		try (FileChannel actual = open(value()); FileChannel expected = open(other))
+		{
+			long available 	= Math.min(length, Math.min(available(actual, offset), available(expected, otherOffset)));
+			long mismatch 	= mismatch(actual, offset, expected, otherOffset, available);
+			if ((mismatch < 0) && (available < length))
+				mismatch = available;
+			return expectNoMismatch(mismatch, "have region equal to", other, actual, offset, expected, otherOffset);
+		}
+	}
+	
+	
+	/**
+	 * Asserts that the file content starts with the expected bytes.
+	 * @param expected the expected bytes
+	 * @return this
+	 * @throws IOException if reading the file fails
+	 */
+	public MappedContentActual<BACK> startsWith(byte[] expected) throws IOException
+	{
+		rejectNull(expected, "expected");
+		try (FileChannel actual = open(value()))
+		{
+			long mismatch = mismatch(actual, 0, ByteBuffer.wrap(expected), expected.length);
+			return expectNoMismatch(mismatch, "start with", expected, actual, 0, ByteBuffer.wrap(expected));
+		}
+	}
+	
+	
+	//----------------------------------
+	// implementation
+	//----------------------------------
+	
+	
+	private MappedContentActual<BACK> expectNoMismatch(long mismatch, String what, Object expectedValue, 
+		FileChannel actual, long offset, FileChannel expected, long expectedOffset) throws IOException
+	{
+		ExpectResult result = eval(mismatch < 0);
+		if (!result.ok)
+		{
+			Object expectedByte = mismatch >= 0 ? byteAt(expected, expectedOffset + mismatch) : null;
+			failMismatch(result, mismatch, what, expectedValue, expectedByte, actual, offset);
+		}
+		return self();
+	}
+	
+	
+	private MappedContentActual<BACK> expectNoMismatch(long mismatch, String what, Object expectedValue, 
+		FileChannel actual, long offset, ByteBuffer expected) throws IOException
+	{
+		ExpectResult result = eval(mismatch < 0);
+		if (!result.ok)
+		{
+			Object expectedByte = mismatch >= 0 ? formatByte(expected, mismatch) : null;
+			failMismatch(result, mismatch, what, expectedValue, expectedByte, actual, offset);
+		}
+		return self();
+	}
+	
+	
+	private void failMismatch(ExpectResult result, long mismatch, String what, Object expectedValue, 
+		Object expectedByte, FileChannel actual, long offset) throws IOException
+	{
+		Failure failure = failure().addStmts(StmtTemplate.ASSERT_EXPECTED_TO, expectedValue, null, result.not, what);
+		if (mismatch >= 0)
+		{
+			failure
+				.addStmt("content differs at offset", Long.valueOf(offset + mismatch))
+				.addStmt("expected", expectedByte)
+				.addStmt("but was", byteAt(actual, offset + mismatch));
+		}
+		failure.throwError();
+	}
+	
+	
+	private static FileChannel open(Path path) throws IOException
+	{
+		return FileChannel.open(path, StandardOpenOption.READ);
+	}
+	
+	
+	private static long available(FileChannel channel, long offset) throws IOException
+	{
+		return Math.max(0, channel.size() - offset);
+	}
+	
+	
+	/**
+	 * Compares length bytes of the file with the expected buffer and returns the relative offset
+	 * of the first mismatch, or -1 if the region is equal. If the file ends before, the offset of the 
+	 * file end is returned.
+	 */
+	private static long mismatch(FileChannel actual, long offset, ByteBuffer expected, long length) throws IOException
+	{
+		long available = Math.min(length, available(actual, offset));
+		long compared = 0;
+		while (compared < available)
+		{
+			int n = (int)Math.min(MAP_SIZE, available - compared);
+			ByteBuffer region = actual.map(MapMode.READ_ONLY, offset + compared, n);
+			ByteBuffer expectedRegion = expected.duplicate();
+			expectedRegion.limit(expectedRegion.position() + n);
+			int mismatch = region.mismatch(expectedRegion);
+			if (mismatch >= 0)
+				return compared + mismatch;
+			expected.position(expected.position() + n);
+			compared += n;
+		}
+		return available < length ? available : -1;
+	}
+	
+	
+	/**
+	 * Compares length bytes of two files which must have at least length bytes after the offsets. 
+	 */
+	private static long mismatch(FileChannel actual, long offset, FileChannel expected, long expectedOffset, long length) throws IOException
+	{
+		long compared = 0;
+		while (compared < length)
+		{
+			int n = (int)Math.min(MAP_SIZE, length - compared);
+			ByteBuffer region = expected.map(MapMode.READ_ONLY, expectedOffset + compared, n);
+			long mismatch = mismatch(actual, offset + compared, region, n);
+			if (mismatch >= 0)
+				return compared + mismatch;
+			compared += n;
+		}
+		return -1;
+	}
+	
+	
+	/**
+	 * Returns the offset of the first occurrence of the bytes within the file, or -1. 
+	 */
+	private static long indexOf(FileChannel channel, byte[] bytes) throws IOException
+	{
+		if (bytes.length == 0)
+			return 0;
+		ByteBuffer expected = ByteBuffer.wrap(bytes);
+		long size 		= channel.size();
+		int mapSize 	= Math.max(MAP_SIZE, 2 * bytes.length);
+		long position 	= 0;
+		while (position + bytes.length <= size)
+		{
+			int n = (int)Math.min(mapSize, size - position);
+			ByteBuffer region = channel.map(MapMode.READ_ONLY, position, n);
+			int last = n - bytes.length;
+			for (int i=0; i<=last; i++)
+			{
+				if (region.get(i) == bytes[0])
+				{
+					ByteBuffer candidate = region.duplicate();
+					candidate.limit(i + bytes.length);
+					candidate.position(i);
+					if (candidate.mismatch(expected) < 0)
+						return position + i;
+				}
+			}
+			// the next region overlaps the current by bytes.length - 1 
+			position += last + 1;
+		}
+		return -1;
+	}
+	
+	
+	private static Object byteAt(FileChannel channel, long position) throws IOException
+	{
+		ByteBuffer buffer = ByteBuffer.allocate(1);
+		return channel.read(buffer, position) == 1 ? formatByte(buffer, 0) : END_OF_CONTENT;
+	}
+
+	
+	private static Object formatByte(ByteBuffer buffer, long index)
+	{
+		return index < buffer.limit() ? String.format("0x%02x", Integer.valueOf(buffer.get((int)index) & 0xff)) : END_OF_CONTENT;
+	}
+	
+	
+	private static final int MAP_SIZE = 1 << 28;
+	private static final String END_OF_CONTENT = "end of content";
+}
@@ -106,6 +106,17 @@ public class PathActual<BACK,IMPL extends PathActual<BACK,IMPL>> extends Actual<
 	}
 	
 	
+	/**
+	 * Returns a MappedContentActual to make assertions about the content of the file
+	 * denoted by the path, using memory mapped access to the content.
+	 * @return the new actual
+	 */
+	public MappedContentActual<IMPL> mapped()
+	{
+		return new MappedContentActual<>(value(), self()).as("mapped");
+	}
+	
+	
 	/**
 	 * Asserts that the name count equals expected value.
 	 * @param expected the expected value
@@ -16,12 +16,23 @@
 package deepdive.actual.java.util;
 
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 import deepdive.actual.Actual;
 import deepdive.function.CheckedBiFunction;
+import deepdive.impl.DDCheck;
+import deepdive.impl.ExpectResult;
+import deepdive.impl.IteratorMismatch;
+import deepdive.impl.IteratorScan;
+import deepdive.impl.Order;
 
 
 /**
@@ -58,8 +69,183 @@ public class IteratorActual<ELEM,BACK,IMPL extends IteratorActual<ELEM,BACK,IMPL
 		while (it.hasNext())
 			actualList.add(it.next());
 		expectEqual(expectedList, actualList, "elems");
+		return closeAndBack();
+	}
+
+	
+	/**
+	 * Asserts that the remaining elements equal the elements of the expected iterator and then returns the back object.
+	 * Both are iterated in lockstep without collecting elements, and iteration stops at the first different element. 
+	 * (By convention the trailing $ signals that we leave this Actual and return the back object).
+	 * @param expected the iterator returning the expected elements
+	 * @return the back object
+	 */
+	public BACK sameElemsAs$(Iterator<?> expected)
+	{
+		IteratorMismatch mismatch = IteratorMismatch.find(expected, value());
+		ExpectResult result = eval(mismatch == null);
+		if (!result.ok)
+			failure().addContext("elems").elemMismatch(mismatch, result.not).throwError();
+		return closeAndBack();
+	}
+
+	
+	/**
+	 * Asserts that the remaining elements equal the elements of the expected Iterable and then returns the back object.
+	 * @param expected the expected elements
+	 * @return the back object
+	 * @see #sameElemsAs$(Iterator)
+	 */
+	public BACK sameElemsAs$(Iterable<?> expected)
+	{
+		return sameElemsAs$(DDCheck.notNull(expected, "expected").iterator());
+	}
+
+	
+	/**
+	 * Asserts that the remaining elements equal the elements of the expected Stream and then returns the back object.
+	 * @param expected the expected elements
+	 * @return the back object
+	 * @see #sameElemsAs$(Iterator)
+	 */
+	public BACK sameElemsAs$(Stream<?> expected)
+	{
+		return sameElemsAs$(DDCheck.notNull(expected, "expected").iterator());
+	}
+
+	
+	/**
+	 * Asserts that all remaining elements match the predicate and then returns the back object.
+	 * Iteration stops at the first element which does not match.
+	 * (By convention the trailing $ signals that we leave this Actual and return the back object).
+	 * @param predicate a predicate
+	 * @return the back object
+	 */
+	public BACK allMatch$(Predicate<? super ELEM> predicate)
+	{
+		IteratorScan scan = IteratorScan.match(value(), predicate, true);
+		ExpectResult result = eval(!scan.found);
+		if (!result.ok)
+			failure().addContext("allMatch").elemMatch(true, scan.index, scan.elem, result.not).throwError();
+		return closeAndBack();
+	}
+
+	
+	/**
+	 * Asserts that the number of remaining elements equals the expected count and then returns the back object.
+	 * Iteration stops after the first surplus element.
+	 * (By convention the trailing $ signals that we leave this Actual and return the back object).
+	 * @param expected the expected count
+	 * @return the back object
+	 */
+	public BACK count$(long expected)
+	{
+		IteratorScan scan = IteratorScan.count(value(), expected);
+		if (!scan.found || (expected < 0))
+			expectEqual(expected, scan.index, "count");
+		else
+		{
+			ExpectResult result = eval(false);
+			if (!result.ok)
+				failure().addContext("count").surplusElem(expected, scan.elem).throwError();
+		}
+		return closeAndBack();
+	}
+
+	
+	/**
+	 * Asserts that the remaining elements are sorted in ascending or in descending natural order, and then returns to the back object.
+	 * Iteration stops at the first pair of adjacent elements which violates the order, which is reported.
+	 * (By convention the trailing $ signals that we leave this Actual and return the back object).
+	 * @return the back object
+	 */
+	public BACK isMonotonic$()
+	{
+		return expectOrder(Order.MONOTONIC, Order.natural());
+	}
+
+	
+	/**
+	 * Asserts that the remaining elements are sorted in ascending natural order, and then returns to the back object.
+	 * Iteration stops at the first pair of adjacent elements which violates the order, which is reported.
+	 * (By convention the trailing $ signals that we leave this Actual and return the back object).
+	 * @return the back object
+	 */
+	public BACK isSorted$()
+	{
+		return expectOrder(Order.SORTED, Order.natural());
+	}
+
+	
+	/**
+	 * Asserts that the remaining elements are sorted according to the comparator, and then returns to the back object.
+	 * Iteration stops at the first pair of adjacent elements which violates the order, which is reported.
+	 * (By convention the trailing $ signals that we leave this Actual and return the back object).
+	 * @param comparator a comparator
+	 * @return the back object
+	 */
+	public BACK isSorted$(Comparator<? super ELEM> comparator)
+	{
+		return expectOrder(Order.SORTED, DDCheck.notNull(comparator, "comparator"));
+	}
+
+	
+	/**
+	 * Asserts that each remaining element is greater than its predecessor in natural order, and then returns to the back object.
+	 * Iteration stops at the first pair of adjacent elements which violates the order, which is reported.
+	 * (By convention the trailing $ signals that we leave this Actual and return the back object).
+	 * @return the back object
+	 */
+	public BACK isStrictlyIncreasing$()
+	{
+		return expectOrder(Order.STRICTLY_INCREASING, Order.natural());
+	}
+
+	
+	private BACK expectOrder(Order order, Comparator<? super ELEM> comparator)
+	{
+		Order.Violation violation = order.find(value(), comparator);
+		ExpectResult result = eval(violation == null);
+		if (!result.ok)
+			failure().orderViolation(order, violation, result.not).throwError();
+		return closeAndBack();
+	}
+
+	
+	/**
+	 * Returns the owner object. If the iterator is {@link Closeable}, e.g. 
+	 * when it iterates over the lines of a file, it is closed. 
+	 * Such iterators are also closed when a terminal assertion (signaled by a trailing $) completes.
+	 * @return the owner object
+	 */
+	@Override public BACK back()
+	{
+		close();
+		return super.back();
+	}
+	
+	
+	private BACK closeAndBack()
+	{
+		close();
 		return backOrNull();
 	}
+	
+	
+	private void close()
+	{
+		if (valueOrNull() instanceof Closeable)
+		{
+			try
+			{
+				((Closeable)valueOrNull()).close();
+			}
+			catch (IOException e)
+			{
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
 
 	
 	/**
@@ -130,6 +316,6 @@ public class IteratorActual<ELEM,BACK,IMPL extends IteratorActual<ELEM,BACK,IMPL
 	public BACK end$()
 	{
 		not().hasNext();
-		return backOrNull();
+		return closeAndBack();
 	}
 }
@@ -18,15 +18,21 @@ package deepdive.actual.java.util;
 
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import deepdive.Context;
 import deepdive.actual.Actual;
 import deepdive.function.CheckedBiFunction;
+import deepdive.impl.DDCheck;
+import deepdive.impl.ExpectResult;
 import deepdive.impl.NotMustBeOff;
 import deepdive.impl.ActualChange;
 import deepdive.impl.NotAgnostic;
+import deepdive.impl.Order;
+import deepdive.impl.Sample;
 
 
 /**
@@ -84,7 +90,7 @@ public class ListActual<ELEM,T extends List<ELEM>,BACK,IMPL extends ListActual<E
 	 */
 	public Actual<ELEM,IMPL,?> elem(int index)
 	{
-		return elem(index, Actual::new).as(Context.indexed("elem", index));
+		return child(getElem(index), Actual.class, Actual::new, "elem", index);
 	}
 	
 	
@@ -117,6 +123,37 @@ public class ListActual<ELEM,T extends List<ELEM>,BACK,IMPL extends ListActual<E
 	}
 
 	
+	/**
+	 * Asserts that the list contains the expected elements in any order, 
+	 * i.e. each element occurs as often in the list as in the expected elements.
+	 * Elements are counted in a hash map, with a single pass over each side.
+	 * A failure reports how often elements are missing or unexpected.
+	 * @param expected the expected values
+	 * @return this
+	 */
+	@SafeVarargs
+	public final IMPL elemsInAnyOrder(ELEM... expected)
+	{
+		// LinkedHashMap reports differences in a predictable order
+		Map<Object,int[]> counts = new LinkedHashMap<>();
+		for (Object elem : expected)
+			counts.computeIfAbsent(elem, e -> new int[1])[0]++;
+		for (Object elem : value())
+			counts.computeIfAbsent(elem, e -> new int[1])[0]--;
+		
+		Map<Object,Integer> differences = new LinkedHashMap<>();
+		for (Map.Entry<Object,int[]> entry : counts.entrySet())
+		{
+			if (entry.getValue()[0] != 0)
+				differences.put(entry.getKey(), Integer.valueOf(entry.getValue()[0]));
+		}
+		ExpectResult result = eval(differences.isEmpty());
+		if (!result.ok)
+			failure().elemCounts(Arrays.asList(expected), differences, result.not).throwError();
+		return self();
+	}
+
+	
 	/**
 	 * Asserts that the index of the given element within the list equals the expected value. 
 	 * @param elem an element
@@ -155,6 +192,61 @@ public class ListActual<ELEM,T extends List<ELEM>,BACK,IMPL extends ListActual<E
 	}
 
 	
+	/**
+	 * Asserts that the list elements are sorted in ascending or in descending natural order.
+	 * The check stops at the first pair of adjacent elements which violates the order and reports it.
+	 * @return this
+	 */
+	public IMPL isMonotonic()
+	{
+		return expectOrder(Order.MONOTONIC, Order.natural());
+	}
+
+	
+	/**
+	 * Asserts that the list elements are sorted in ascending natural order.
+	 * The check stops at the first pair of adjacent elements which violates the order and reports it.
+	 * @return this
+	 */
+	public IMPL isSorted()
+	{
+		return expectOrder(Order.SORTED, Order.natural());
+	}
+
+	
+	/**
+	 * Asserts that the list elements are sorted according to the comparator.
+	 * The check stops at the first pair of adjacent elements which violates the order and reports it.
+	 * @param comparator a comparator
+	 * @return this
+	 */
+	public IMPL isSorted(Comparator<? super ELEM> comparator)
+	{
+		return expectOrder(Order.SORTED, DDCheck.notNull(comparator, "comparator"));
+	}
+
+	
+	/**
+	 * Asserts that each list element is greater than its predecessor in natural order.
+	 * The check stops at the first pair of adjacent elements which violates the order and reports it.
+	 * @return this
+	 */
+	public IMPL isStrictlyIncreasing()
+	{
+		return expectOrder(Order.STRICTLY_INCREASING, Order.natural());
+	}
+
+	
+	private IMPL expectOrder(Order order, Comparator<? super ELEM> comparator)
+	{
+		Order.Violation violation = order.find(value().iterator(), comparator);
+		ExpectResult result = eval(violation == null);
+		if (!result.ok)
+			failure().orderViolation(order, violation, result.not).throwError();
+		return self();
+	}
+
+	
 	/**
 	 * Asserts that the last index of the element equals the expected value.
 	 * @param elem an element
@@ -209,6 +301,21 @@ public class ListActual<ELEM,T extends List<ELEM>,BACK,IMPL extends ListActual<E
 	}
 	
 	
+	/**
+	 * Returns a SampleActual for a random sample of the list elements.
+	 * The sample of a {@link java.util.RandomAccess RandomAccess} list is drawn by choosing random indexes 
+	 * without iterating over the list. The sample is reproducible: the same seed always draws the same 
+	 * sample from the same list.
+	 * @param size the sample size
+	 * @param seed the seed of the random numbers
+	 * @return the new actual
+	 */
+	@Override public SampleActual<ELEM,IMPL,?> sample(int size, long seed)
+	{
+		return sample(Sample.of(value(), size, seed), size);
+	}
+
+	
 	/**
 	 * Sets the value of the list at the specified index to the given element
 	 * @param index the index
@@ -143,7 +143,7 @@ public class MapActual<K,V,T extends Map<K,V>,BACK,IMPL extends MapActual<K,V,T,
 	 */
 	public IntegerActual<IMPL,?> size()
 	{
-		return new IntegerActual<>(value().size(), self()).as("size");
+		return child(value().size(), IntegerActual.class, IntegerActual::new, "size");
 	}
 	
 	
@@ -167,7 +167,7 @@ public class MapActual<K,V,T extends Map<K,V>,BACK,IMPL extends MapActual<K,V,T,
 	 */
 	public Actual<V,IMPL,?> value(K key)
 	{
-		return new Actual<>(value().get(key), self()).as(Context.call("value", key));
+		return child(value().get(key), Actual.class, Actual::new, "value", key);
 	}
 	
 	
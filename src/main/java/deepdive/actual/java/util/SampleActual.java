@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2021 jdlib, https://github.com/jdlib
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package deepdive.actual.java.util;
+
+
+import java.util.List;
+import java.util.function.Predicate;
+import deepdive.impl.DDCheck;
+import deepdive.impl.ExpectResult;
+import deepdive.impl.Sample;
+
+
+/**
+ * A ListActual for a random {@link Sample} of elements, e.g. returned by
+ * {@link deepdive.actual.java.lang.ContainerActual#sample(int, long) ContainerActual.sample(int, long)}.
+ * Besides the list assertions on the sampled elements, it allows to assert that a predicate holds for 
+ * the population of all elements, except for a violation rate which is estimated from the sample.
+ * Failures report the seed of the sample, to draw the same sample again.
+ * @param <ELEM> the type of the elements
+ * @param <BACK> the type of the owner of the SampleActual
+ * @param <IMPL> the type of the concrete SampleActual implementation 
+ */
+public class SampleActual<ELEM,BACK,IMPL extends SampleActual<ELEM,BACK,IMPL>> extends ListActual<ELEM,List<ELEM>,BACK,IMPL>
+{
+	/**
+	 * Creates a new SampleActual.
+	 * @param sample the sample
+	 * @param back the owner
+	 */
+	public SampleActual(Sample<ELEM> sample, BACK back)
+	{
+		super(DDCheck.notNull(sample, "sample").getElems(), back);
+		sample_ = sample;
+	}
+	
+	
+	/**
+	 * Asserts that the rate of elements which violate the predicate is below the maximum
+	 * at the given confidence. The sampled elements are tested, and the assertion passes 
+	 * if an exact one-sided binomial test rejects that the violation rate is at least the maximum, 
+	 * i.e. if it is unlikely to find at most the observed number of violations in a population 
+	 * with a violation rate of maxViolationRate.
+	 * If the sample contains all elements, the observed violation rate must be below the maximum. 
+	 * Small samples may not suffice to assert a small violation rate, even without violations:
+	 * e.g. at confidence 0.95 a violation rate below 0.01 requires at least 299 elements.
+	 * @param predicate the predicate
+	 * @param maxViolationRate the maximum violation rate, must be &gt; 0 and &lt; 1
+	 * @param confidence the confidence, must be &gt; 0 and &lt; 1, e.g. 0.95
+	 * @return this
+	 */
+	public IMPL allMatch(Predicate<? super ELEM> predicate, double maxViolationRate, double confidence)
+	{
+		DDCheck.notNull(predicate, "predicate");
+		DDCheck.probability(maxViolationRate, "maxViolationRate");
+		DDCheck.probability(confidence, "confidence");
+		
+		List<ELEM> elems = sample_.getElems();
+		int violations  = 0;
+		int first		= -1;
+		for (int i=0; i<elems.size(); i++)
+		{
+			if (!predicate.test(elems.get(i)) && (violations++ == 0))
+				first = i;
+		}
+		boolean ok = sample_.isComplete() ?
+			violations < maxViolationRate * elems.size() :
+			Sample.binomialCdf(violations, elems.size(), maxViolationRate) <= 1.0 - confidence;
+		
+		ExpectResult result = eval(ok);
+		if (!result.ok)
+		{
+			String rate = maxViolationRate + " (confidence " + confidence + ")";
+			failure()
+				.addStmt(result.not.isOn() ? "expected violation rate not below" : "expected violation rate below", rate)
+				.addStmt("but violations in sample", violations + " of " + elems.size() + " (population " + sample_.getPopulation() + ")")
+				.addStmt(first >= 0 ? "first violation [" + sample_.getIndex(first) + "]" : "no violation", first >= 0 ? elems.get(first) : null)
+				.addStmt("seed", Long.valueOf(sample_.getSeed()))
+				.throwError();
+		}
+		return self();
+	}
+	
+	
+	/**
+	 * Returns the sample.
+	 * @return the sample
+	 */
+	public Sample<ELEM> getSample()
+	{
+		return sample_;
+	}
+	
+	
+	private final Sample<ELEM> sample_;
+}
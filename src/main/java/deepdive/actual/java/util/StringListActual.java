@@ -17,7 +17,6 @@ package deepdive.actual.java.util;
 
 
 import java.util.List;
-import deepdive.Context;
 import deepdive.actual.java.lang.StringActual;
 
 
@@ -45,7 +44,7 @@ public class StringListActual<T extends List<String>,BACK,IMPL extends StringLis
 	 */
 	@Override public StringActual<IMPL,?> elem(int index)
 	{
-		return elem(index, StringActual::new).as(Context.indexed("elem", index));
+		return child(getElem(index), StringActual.class, StringActual::new, "elem", index);
 	}
 
 
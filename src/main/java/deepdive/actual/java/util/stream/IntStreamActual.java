@@ -0,0 +1,382 @@
+/*
+ * Copyright (c) 2021 jdlib, https://github.com/jdlib
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+// Generated from PrimitiveStreamActual.txt, see build.xml/target[name="generate"]. 
+// Do not modify directly.
+package deepdive.actual.java.util.stream;
+
+
+import java.util.IntSummaryStatistics;
+import java.util.OptionalInt;
+import java.util.PrimitiveIterator;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+import deepdive.actual.Actual;
+import deepdive.actual.java.lang.IntegerActual;
+import deepdive.actual.java.lang.LongActual;
+import deepdive.impl.DDCheck;
+import deepdive.impl.ExpectResult;
+import deepdive.impl.IteratorMismatch;
+import deepdive.impl.Order;
+
+
+/**
+ * An Actual implementation for {@link IntStream} objects.<p>
+ * All assertions are terminal operations which process the elements without boxing
+ * and then either return to the back object (signaled by a trailing $) or return an Actual
+ * for the result whose back object is the back object of this Actual, like in {@link StreamActual}.
+ * Assertions which do not depend on the element order use the stream as is, i.e. a parallel
+ * stream is processed in parallel.
+ */
+public class IntStreamActual<BACK,IMPL extends IntStreamActual<BACK,IMPL>> extends Actual<IntStream,BACK,IMPL>
+{
+	/**
+	 * Creates a new IntStreamActual.
+	 * @param value the actual value
+	 * @param back the owner object
+	 */
+	public IntStreamActual(IntStream value, BACK back)
+	{
+		super(value, back);
+	}
+	
+	
+    /**
+     * Asserts that all stream elements match the predicate and then returns to the back object. 
+     * A sequential stream is consumed up to the first element which does not match, which is reported with its index.
+     * A parallel stream is tested in parallel and the first element in encounter order which does not match
+     * is reported without index.
+	 * (By convention the trailing $ signals that we leave this Actual and return the back object).
+     * @param predicate a predicate
+     * @return the back object
+     */
+	public BACK allMatch$(IntPredicate predicate)
+	{
+		DDCheck.notNull(predicate, "predicate");
+		IntStream stream = value();
+		boolean found = false;
+		long index = -1;
+		int elem = 0;
+		if (stream.isParallel())
+		{
+			OptionalInt failing = stream.filter(predicate.negate()).findFirst();
+			if (failing.isPresent())
+			{
+				found = true;
+				elem  = failing.getAsInt();
+			}
+		}
+		else
+		{
+			// a sequential stream is consumed up to the first element which does not match
+			PrimitiveIterator.OfInt it = stream.iterator();
+			for (long i=0; !found && it.hasNext(); i++)
+			{
+				int next = it.nextInt();
+				if (!predicate.test(next))
+				{
+					found = true;
+					index = i;
+					elem  = next;
+				}
+			}
+		}
+		ExpectResult result = eval(!found);
+		if (!result.ok)
+			failure().addContext("allMatch").elemMatch(true, index, Integer.valueOf(elem), result.not).throwError();
+		return backOrNull();
+	}
+
+	
+    /**
+     * Returns a LongActual for the number of distinct stream elements. 
+     * The elements are counted in a primitive hash set.
+     * @return the new actual. It's back object is the same as the back object of this Actual
+     */
+	public LongActual<BACK,?> distinctCount()
+	{
+		long count = value().collect(DistinctSet::new, DistinctSet::add, DistinctSet::addAll).size();
+		return new LongActual<>(count, backOrNull()).as("distinctCount");
+	}
+
+	
+	/**
+	 * Asserts that the stream elements equal the expected values and then returns to the back object.
+	 * The stream is consumed up to the first different element, which is reported with its index.
+	 * (By convention the trailing $ signals that we leave this Actual and return the back object).
+	 * @param expected the expected elements
+	 * @return the back object
+	 */
+	public BACK elems$(int... expected)
+	{
+		DDCheck.notNull(expected, "expected");
+		PrimitiveIterator.OfInt it = value().iterator();
+		IteratorMismatch mismatch = null;
+		for (int i=0; (mismatch == null) && (i<=expected.length); i++)
+		{
+			if (i == expected.length)
+			{
+				if (it.hasNext())
+					mismatch = new IteratorMismatch(i, null, false, it.next(), true);
+			}
+			else if (!it.hasNext())
+				mismatch = new IteratorMismatch(i, expected[i], true, null, false);
+			else
+			{
+				int elem = it.nextInt();
+				if (Integer.compare(expected[i], elem) != 0)
+					mismatch = new IteratorMismatch(i, expected[i], true, elem, true);
+			}
+		}
+		ExpectResult result = eval(mismatch == null);
+		if (!result.ok)
+			failure().addContext("elems").elemMismatch(mismatch, result.not).throwError();
+		return backOrNull();
+	}
+	
+	
+	/**
+	 * Asserts that the stream elements are sorted in ascending order and then returns to the back object.
+	 * The first pair of elements which violates the order is reported. 
+	 * A sequential stream is consumed up to the violation, a parallel stream is checked in parallel.
+	 * (By convention the trailing $ signals that we leave this Actual and return the back object).
+	 * @return the back object
+	 */
+	public BACK isSorted$()
+	{
+		return expectOrder(Order.SORTED);
+	}
+	
+	
+	/**
+	 * Asserts that each stream element is greater than its predecessor and then returns to the back object.
+	 * The first pair of elements which violates the order is reported. 
+	 * A sequential stream is consumed up to the violation, a parallel stream is checked in parallel.
+	 * (By convention the trailing $ signals that we leave this Actual and return the back object).
+	 * @return the back object
+	 */
+	public BACK isStrictlyIncreasing$()
+	{
+		return expectOrder(Order.STRICTLY_INCREASING);
+	}
+	
+	
+	private BACK expectOrder(Order order)
+	{
+		IntStream stream = value();
+		OrderCheck check;
+		if (stream.isParallel())
+			check = stream.collect(() -> new OrderCheck(order), OrderCheck::add, OrderCheck::addAll);
+		else
+		{
+			// a sequential stream is consumed up to the first violation
+			check = new OrderCheck(order);
+			PrimitiveIterator.OfInt it = stream.iterator();
+			while ((check.violation == null) && it.hasNext())
+				check.add(it.nextInt());
+		}
+		ExpectResult result = eval(check.violation == null);
+		if (!result.ok)
+			failure().orderViolation(order, check.violation, result.not).throwError();
+		return backOrNull();
+	}
+	
+	
+    /**
+     * Returns a IntegerActual for the maximum stream element. 
+     * @return the new actual, with a null value if the stream is empty. It's back object is the same as the back object of this Actual
+     */
+	public IntegerActual<BACK,?> max()
+	{
+		return optional(value().max()).as("max");
+	}
+
+	
+    /**
+     * Returns a IntegerActual for the minimum stream element. 
+     * @return the new actual, with a null value if the stream is empty. It's back object is the same as the back object of this Actual
+     */
+	public IntegerActual<BACK,?> min()
+	{
+		return optional(value().min()).as("min");
+	}
+	
+	
+	private IntegerActual<BACK,?> optional(OptionalInt value)
+	{
+		return new IntegerActual<>(value.isPresent() ? Integer.valueOf(value.getAsInt()) : null, backOrNull());
+	}
+
+	
+    /**
+     * Returns a IntegerActual for the sum of the stream elements. 
+     * @return the new actual. It's back object is the same as the back object of this Actual
+     */
+	public IntegerActual<BACK,?> sum()
+	{
+		return new IntegerActual<>(value().sum(), backOrNull()).as("sum");
+	}
+
+	
+    /**
+     * Returns an Actual for the summary statistics of the stream elements,
+     * i.e. count, sum, min, max and average computed in a single pass. 
+     * @return the new actual. It's back object is the same as the back object of this Actual
+     */
+	public Actual<IntSummaryStatistics,BACK,?> summaryStatistics()
+	{
+		return new Actual<>(value().summaryStatistics(), backOrNull()).as("summaryStatistics");
+	}
+	
+	
+	/**
+	 * Checks if elements have an order which does not depend on a direction. 
+	 * Partial results of a parallel stream are combined in encounter order.
+	 */
+	private static class OrderCheck
+	{
+		public OrderCheck(Order order)
+		{
+			order_ = order;
+		}
+		
+		
+		public void add(int elem)
+		{
+			if ((count_ > 0) && (violation == null) && order_.violatedBy(Integer.compare(last_, elem), 0))
+				violation(count_ - 1, last_, elem);
+			if (count_++ == 0)
+				first_ = elem;
+			last_ = elem;
+		}
+		
+		
+		public void addAll(OrderCheck next)
+		{
+			if (next.count_ == 0)
+				return;
+			if (count_ == 0)
+			{
+				first_ 	  = next.first_;
+				violation = next.violation;
+			}
+			else if (violation == null)
+			{
+				if (order_.violatedBy(Integer.compare(last_, next.first_), 0))
+					violation(count_ - 1, last_, next.first_);
+				else if (next.violation != null)
+					violation = new Order.Violation(count_ + next.violation.index, next.violation.elem1, next.violation.elem2);
+			}
+			count_ += next.count_;
+			last_ 	= next.last_;
+		}
+		
+		
+		@SuppressWarnings("boxing")
+		private void violation(long index, int e1, int e2)
+		{
+			violation = new Order.Violation(index, e1, e2); 
+		}
+		
+		
+		/**
+		 * The first pair of elements which violates the order or null.
+		 */
+		public Order.Violation violation;
+		private final Order order_;
+		private long count_;
+		private int first_;
+		private int last_;
+	}
+	
+	
+	/**
+	 * An open addressing hash set of stream elements.
+	 * Elements are distinct like in {@link IntStream#distinct()}.
+	 */
+	private static class DistinctSet
+	{
+		public void add(int elem)
+		{
+			int key = (elem);
+			if (key == 0)
+				containsZero_ = true;
+			else
+			{
+				if (size_ * 2 >= keys_.length)
+					rehash();
+				put(key);
+			}
+		}
+		
+		
+		public void addAll(DistinctSet other)
+		{
+			containsZero_ |= other.containsZero_;
+			for (int key : other.keys_)
+			{
+				if (key != 0)
+				{
+					if (size_ * 2 >= keys_.length)
+						rehash();
+					put(key);
+				}
+			}
+		}
+
+
+		private void put(int key)
+		{
+			int mask = keys_.length - 1;
+			int i = (Integer.hashCode(key) * 0x9E3779B9) >>> shift_;
+			for (; keys_[i] != 0; i = (i + 1) & mask)
+			{
+				if (keys_[i] == key)
+					return;
+			}
+			keys_[i] = key;
+			size_++;
+		}
+		
+		
+		private void rehash()
+		{
+			int[] old = keys_;
+			keys_ = new int[old.length * 2];
+			shift_--;
+			size_ = 0;
+			for (int key : old)
+			{
+				if (key != 0)
+					put(key);
+			}
+		}
+		
+		
+		public long size()
+		{
+			return size_ + (containsZero_ ? 1 : 0);
+		}
+		
+		
+		private int[] keys_ = new int[16];
+		/**
+		 * Selects the high bits of the hash product as slot, like in the primitive array Actuals.
+		 */
+		private int shift_ = 32 - 4;
+		private int size_;
+		private boolean containsZero_;
+	}
+}
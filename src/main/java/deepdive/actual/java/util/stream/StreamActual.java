@@ -17,7 +17,9 @@ package deepdive.actual.java.util.stream;
 
 
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 import java.util.function.IntFunction;
 import java.util.function.Predicate;
@@ -31,8 +33,15 @@ import deepdive.actual.java.lang.ArrayActual;
 import deepdive.actual.java.lang.LongActual;
 import deepdive.actual.java.util.ListActual;
 import deepdive.actual.java.util.MapActual;
+import deepdive.actual.java.util.SampleActual;
 import deepdive.actual.java.util.SetActual;
 import deepdive.impl.ActualChange;
+import deepdive.impl.DDCheck;
+import deepdive.impl.ExpectResult;
+import deepdive.impl.IteratorMismatch;
+import deepdive.impl.IteratorScan;
+import deepdive.impl.Order;
+import deepdive.impl.Sample;
 
 
 /**
@@ -61,14 +70,16 @@ public class StreamActual<ELEM,BACK,IMPL extends StreamActual<ELEM,BACK,IMPL>> e
 	
     /**
      * Asserts that all stream elements match the predicate and then returns to the back object. 
+     * A sequential stream is consumed up to the first element which does not match, which is reported with its index.
+     * A parallel stream is tested in parallel and the first element in encounter order which does not match
+     * is reported without index.
 	 * (By convention the trailing $ signals that we leave this Actual and return the back object).
      * @param predicate a predicate
      * @return the back object
      */
 	public BACK allMatch$(Predicate<? super ELEM> predicate)
 	{
-		expectTrue(value().allMatch(predicate), "allMatch");
-		return backOrNull();
+		return expectMatch(predicate, true);
 	}
 
 	
@@ -81,11 +92,32 @@ public class StreamActual<ELEM,BACK,IMPL extends StreamActual<ELEM,BACK,IMPL>> e
 	public BACK anyMatch$(Predicate<? super ELEM> predicate)
 	{
 		expectTrue(value().anyMatch(predicate), "anyMatch");
-		return backOrNull();
+		return closeAndBack();
 	}
 
 
     
+	/**
+	 * Closes the stream and returns the owner object.
+	 * A stream of lines of a file is closed when a terminal assertion completes or this method is called.
+	 * @return the owner object
+	 */
+	@Override public BACK back()
+	{
+		Stream<ELEM> stream = valueOrNull();
+		if (stream != null)
+			stream.close();
+		return super.back();
+	}
+	
+	
+	private BACK closeAndBack()
+	{
+		value().close();
+		return backOrNull();
+	}
+	
+
 	/**
 	 * Returns a {@link CollectTo} builder to invoke a terminal operation on 
 	 * the Stream and return the result as a new Actual. Since after
@@ -104,14 +136,30 @@ public class StreamActual<ELEM,BACK,IMPL extends StreamActual<ELEM,BACK,IMPL>> e
     
     /**
      * Asserts that the stream has the expected count and returns the back object. 
+     * A sequential stream is consumed up to the first surplus element, which is reported with its index.
+     * A parallel stream is counted by {@link Stream#count()}.
 	 * (By convention the trailing $ signals that we leave this Actual and return the back object).
      * @param expected the expected count
      * @return the back object
      */
     public BACK count$(long expected)
     {
-    	expectEqual(expected, value().count(), "count");
-    	return backOrNull();
+		Stream<ELEM> stream = value();
+		if (stream.isParallel())
+		{
+			expectEqual(expected, stream.count(), "count");
+			return closeAndBack();
+		}
+		IteratorScan scan = IteratorScan.count(stream.iterator(), expected);
+		if (!scan.found || (expected < 0))
+			expectEqual(expected, scan.index, "count");
+		else
+		{
+			ExpectResult result = eval(false);
+			if (!result.ok)
+				failure().addContext("count").surplusElem(expected, scan.elem).throwError();
+		}
+    	return closeAndBack();
     }
 	
 	
@@ -136,10 +184,51 @@ public class StreamActual<ELEM,BACK,IMPL extends StreamActual<ELEM,BACK,IMPL>> e
 	public final BACK elems$(ELEM... expected)
     {
     	collectTo().list().elems(expected);
-    	return backOrNull();
+    	return closeAndBack();
     }
 
     
+	/**
+	 * Asserts that the stream elements equal the elements of the expected iterator and then returns to the back object.
+	 * Both are iterated in lockstep without collecting elements, and iteration stops at the first different element. 
+	 * (By convention the trailing $ signals that we leave this Actual and return the back object).
+	 * @param expected the iterator returning the expected elements
+	 * @return the back object
+	 */
+	public BACK sameElemsAs$(Iterator<?> expected)
+	{
+		IteratorMismatch mismatch = IteratorMismatch.find(expected, value().iterator());
+		ExpectResult result = eval(mismatch == null);
+		if (!result.ok)
+			failure().addContext("elems").elemMismatch(mismatch, result.not).throwError();
+		return closeAndBack();
+	}
+
+	
+	/**
+	 * Asserts that the stream elements equal the elements of the expected Iterable and then returns to the back object.
+	 * @param expected the expected elements
+	 * @return the back object
+	 * @see #sameElemsAs$(Iterator)
+	 */
+	public BACK sameElemsAs$(Iterable<?> expected)
+	{
+		return sameElemsAs$(DDCheck.notNull(expected, "expected").iterator());
+	}
+
+	
+	/**
+	 * Asserts that the stream elements equal the elements of the expected Stream and then returns to the back object.
+	 * @param expected the expected elements
+	 * @return the back object
+	 * @see #sameElemsAs$(Iterator)
+	 */
+	public BACK sameElemsAs$(Stream<?> expected)
+	{
+		return sameElemsAs$(DDCheck.notNull(expected, "expected").iterator());
+	}
+
+	
 	/**
 	 * Applies the filter to the stream.
 	 * @param filter this filter
@@ -177,6 +266,65 @@ public class StreamActual<ELEM,BACK,IMPL extends StreamActual<ELEM,BACK,IMPL>> e
     }
 
 
+	/**
+	 * Asserts that the stream elements are sorted in ascending or in descending natural order, and then returns to the back object.
+	 * The stream is consumed up to the first pair of adjacent elements which violates the order, which is reported.
+	 * (By convention the trailing $ signals that we leave this Actual and return the back object).
+	 * @return the back object
+	 */
+	public BACK isMonotonic$()
+	{
+		return expectOrder(Order.MONOTONIC, Order.natural());
+	}
+
+	
+	/**
+	 * Asserts that the stream elements are sorted in ascending natural order, and then returns to the back object.
+	 * The stream is consumed up to the first pair of adjacent elements which violates the order, which is reported.
+	 * (By convention the trailing $ signals that we leave this Actual and return the back object).
+	 * @return the back object
+	 */
+	public BACK isSorted$()
+	{
+		return expectOrder(Order.SORTED, Order.natural());
+	}
+
+	
+	/**
+	 * Asserts that the stream elements are sorted according to the comparator, and then returns to the back object.
+	 * The stream is consumed up to the first pair of adjacent elements which violates the order, which is reported.
+	 * (By convention the trailing $ signals that we leave this Actual and return the back object).
+	 * @param comparator a comparator
+	 * @return the back object
+	 */
+	public BACK isSorted$(Comparator<? super ELEM> comparator)
+	{
+		return expectOrder(Order.SORTED, DDCheck.notNull(comparator, "comparator"));
+	}
+
+	
+	/**
+	 * Asserts that each stream element is greater than its predecessor in natural order, and then returns to the back object.
+	 * The stream is consumed up to the first pair of adjacent elements which violates the order, which is reported.
+	 * (By convention the trailing $ signals that we leave this Actual and return the back object).
+	 * @return the back object
+	 */
+	public BACK isStrictlyIncreasing$()
+	{
+		return expectOrder(Order.STRICTLY_INCREASING, Order.natural());
+	}
+
+	
+	private BACK expectOrder(Order order, Comparator<? super ELEM> comparator)
+	{
+		Order.Violation violation = order.find(value().iterator(), comparator);
+		ExpectResult result = eval(violation == null);
+		if (!result.ok)
+			failure().orderViolation(order, violation, result.not).throwError();
+		return closeAndBack();
+	}
+
+	
 	/**
 	 * Maps the stream.
 	 * @param mapper a mapper
@@ -192,14 +340,62 @@ public class StreamActual<ELEM,BACK,IMPL extends StreamActual<ELEM,BACK,IMPL>> e
 	
     /**
      * Asserts that no stream elements match the predicate and then returns to the back object. 
+     * A sequential stream is consumed up to the first element which matches, which is reported with its index.
+     * A parallel stream is tested in parallel and the first element in encounter order which matches
+     * is reported without index.
 	 * (By convention the trailing $ signals that we leave this Actual and return the back object).
      * @param predicate a predicate
      * @return the back object
      */
 	public BACK noneMatch$(Predicate<? super ELEM> predicate)
 	{
-		expectTrue(value().noneMatch(predicate), "noneMatch");
-		return backOrNull();
+		return expectMatch(predicate, false);
+	}
+	
+	
+	private BACK expectMatch(Predicate<? super ELEM> predicate, boolean all)
+	{
+		Stream<ELEM> stream = value();
+		boolean found;
+		long index;
+		Object elem;
+		if (stream.isParallel())
+		{
+			DDCheck.notNull(predicate, "predicate");
+			// wrapped into an Optional since findFirst() rejects null elements
+			Optional<Optional<ELEM>> failing = stream.filter(e -> predicate.test(e) != all).map(Optional::ofNullable).findFirst();
+			found 	= failing.isPresent();
+			index	= -1;
+			elem	= found ? failing.get().orElse(null) : null;
+		}
+		else
+		{
+			IteratorScan scan = IteratorScan.match(stream.iterator(), predicate, all);
+			found 	= scan.found;
+			index	= scan.index;
+			elem	= scan.elem;
+		}
+		ExpectResult result = eval(!found);
+		if (!result.ok)
+			failure().addContext(all ? "allMatch" : "noneMatch").elemMatch(all, index, elem, result.not).throwError();
+		return closeAndBack();
+	}
+
+	
+    /**
+     * Returns a SampleActual for a random sample of the stream elements.
+     * The stream is consumed and the sample is drawn by reservoir sampling, which 
+     * keeps only the sampled elements. The sample is reproducible: the same seed always 
+     * draws the same sample from the same elements.
+     * @param size the sample size
+     * @param seed the seed of the random numbers
+     * @return the new actual. It's back object is the same as the back object of this StreamActual
+     */
+	public SampleActual<ELEM,BACK,?> sample(int size, long seed)
+	{
+		Sample<ELEM> sample = Sample.of(value().iterator(), size, seed);
+		value().close();
+		return new SampleActual<>(sample, backOrNull()).as(Context.call("sample", Integer.valueOf(size), Long.valueOf(seed)));
 	}
 
 	
@@ -249,7 +445,7 @@ public class StreamActual<ELEM,BACK,IMPL extends StreamActual<ELEM,BACK,IMPL>> e
          */
         public ArrayActual<Object,BACK,?> array()
         {
-        	return new ArrayActual<>(value().toArray(), backOrNull()).as("array");
+        	return closing(new ArrayActual<>(value().toArray(), backOrNull())).as("array");
         }
 
         
@@ -260,7 +456,7 @@ public class StreamActual<ELEM,BACK,IMPL extends StreamActual<ELEM,BACK,IMPL>> e
          */
         public ArrayActual<ELEM,BACK,?> array(IntFunction<ELEM[]> generator)
         {
-        	return new ArrayActual<>(value().toArray(generator), backOrNull()).as("array");
+        	return closing(new ArrayActual<>(value().toArray(generator), backOrNull())).as("array");
         }
         
         
@@ -270,7 +466,7 @@ public class StreamActual<ELEM,BACK,IMPL extends StreamActual<ELEM,BACK,IMPL>> e
          */
         public LongActual<BACK,?> count()
         {
-        	return new LongActual<>(value().count(), backOrNull()).as("count");
+        	return closing(new LongActual<>(value().count(), backOrNull())).as("count");
         }
         
 
@@ -280,7 +476,7 @@ public class StreamActual<ELEM,BACK,IMPL extends StreamActual<ELEM,BACK,IMPL>> e
          */
 		public Actual<ELEM,BACK,?> findAny() 
     	{
-        	return new Actual<>(value().findAny().orElse(null), backOrNull()).as("findAny");
+        	return closing(new Actual<>(value().findAny().orElse(null), backOrNull())).as("findAny");
     	}
 
 		
@@ -290,7 +486,7 @@ public class StreamActual<ELEM,BACK,IMPL extends StreamActual<ELEM,BACK,IMPL>> e
          */
 		public Actual<ELEM,BACK,?> findFirst() 
     	{
-        	return new Actual<>(value().findFirst().orElse(null), backOrNull()).as("findFirst");
+        	return closing(new Actual<>(value().findFirst().orElse(null), backOrNull())).as("findFirst");
     	}
 
 		
@@ -300,7 +496,7 @@ public class StreamActual<ELEM,BACK,IMPL extends StreamActual<ELEM,BACK,IMPL>> e
          */
 		public ListActual<ELEM,?,BACK,?> list() 
     	{
-        	return new ListActual<>(value().collect(Collectors.toList()), backOrNull()).as("list");
+        	return closing(new ListActual<>(value().collect(Collectors.toList()), backOrNull())).as("list");
     	}
 
 
@@ -314,7 +510,7 @@ public class StreamActual<ELEM,BACK,IMPL extends StreamActual<ELEM,BACK,IMPL>> e
          */
         public <K,V,M extends Map<K,V>> MapActual<K,V,M,BACK,?> map(Collector<? super ELEM,?,M> collector)
         {
-        	return new MapActual<>(value().collect(collector), backOrNull()).as("map");
+        	return closing(new MapActual<>(value().collect(collector), backOrNull())).as("map");
         }
 
 		
@@ -335,7 +531,7 @@ public class StreamActual<ELEM,BACK,IMPL extends StreamActual<ELEM,BACK,IMPL>> e
          */
 		public Actual<ELEM,BACK,?> max(Comparator<? super ELEM> comparator) 
     	{
-        	return new Actual<>(value().max(safeComparator(comparator)).orElse(null), backOrNull()).as("max");
+        	return closing(new Actual<>(value().max(safeComparator(comparator)).orElse(null), backOrNull())).as("max");
     	}
 
 		
@@ -356,7 +552,7 @@ public class StreamActual<ELEM,BACK,IMPL extends StreamActual<ELEM,BACK,IMPL>> e
          */
 		public Actual<ELEM,BACK,?> min(Comparator<? super ELEM> comparator) 
     	{
-        	return new Actual<>(value().min(safeComparator(comparator)).orElse(null), backOrNull()).as("min");
+        	return closing(new Actual<>(value().min(safeComparator(comparator)).orElse(null), backOrNull())).as("min");
     	}
 
 
@@ -369,7 +565,7 @@ public class StreamActual<ELEM,BACK,IMPL extends StreamActual<ELEM,BACK,IMPL>> e
          */
         public <R,A> Actual<R,BACK,?> result(Collector<? super ELEM,A,R> collector)
         {
-        	return new Actual<>(value().collect(collector), backOrNull()).as(Context.call("result", collector));
+        	return closing(new Actual<>(value().collect(collector), backOrNull())).as(Context.call("result", collector));
         }
 		
 		
@@ -379,10 +575,20 @@ public class StreamActual<ELEM,BACK,IMPL extends StreamActual<ELEM,BACK,IMPL>> e
          */
 		public SetActual<ELEM,?,BACK,?> set()
     	{
-        	return new SetActual<>(value().collect(Collectors.toSet()), backOrNull()).as("set");
+        	return closing(new SetActual<>(value().collect(Collectors.toSet()), backOrNull())).as("set");
     	}
 
 
+		/**
+		 * Closes the stream after the terminal operation which created the result.
+		 */
+		private <R> R closing(R result)
+		{
+			value().close();
+			return result;
+		}
+		
+		
         @SuppressWarnings("unchecked")
 		private Comparator<? super ELEM> safeComparator(Comparator<? super ELEM> comparator)
 		{
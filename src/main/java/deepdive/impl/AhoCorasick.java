@@ -0,0 +1,339 @@
+/*
+ * Copyright (c) 2021 jdlib, https://github.com/jdlib
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package deepdive.impl;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * AhoCorasick is an automaton which finds occurrences of a set of words
+ * in a text in a single pass, using the algorithm of A. Aho and M. Corasick.
+ * The automaton is immutable and can be reused. To search a text create a {@link Scanner}
+ * and pass the text to it, either at once or chunk by chunk.
+ */
+public final class AhoCorasick
+{
+	/**
+	 * Creates an automaton for the words.
+	 * @param words the words. Words may occur multiple times.
+	 */
+	public AhoCorasick(CharSequence... words)
+	{
+		DDCheck.notNull(words, "words");
+		int chars = 0;
+		words_ = new String[words.length];
+		for (int i=0; i<words.length; i++)
+		{
+			words_[i] = DDCheck.notNull(words[i], "word").toString();
+			chars += words_[i].length();
+		}
+
+		int capacity = Integer.highestOneBit(Math.max(chars, 8)) * 4;
+		keys_		= new long[capacity];
+		children_	= new int[capacity];
+		Arrays.fill(keys_, -1L);
+
+		// build the trie, node 0 is the root
+		int[][] output = new int[chars + 1][];
+		for (int w=0; w<words_.length; w++)
+		{
+			String word = words_[w];
+			int node = 0;
+			for (int i=0; i<word.length(); i++)
+			{
+				int child = child(node, word.charAt(i));
+				if (child < 0)
+				{
+					child = nodeCount_++;
+					putChild(node, word.charAt(i), child);
+				}
+				node = child;
+			}
+			output[node] = append(output[node], w);
+		}
+		output_ 	= Arrays.copyOf(output, nodeCount_);
+		fail_		= new int[nodeCount_];
+		dictLink_	= new int[nodeCount_];
+		buildLinks();
+	}
+
+
+	private static int[] append(int[] array, int value)
+	{
+		if (array == null)
+			return new int[] { value };
+		int[] result = Arrays.copyOf(array, array.length + 1);
+		result[array.length] = value;
+		return result;
+	}
+
+
+	/**
+	 * Computes the fail links and the dictionary links (the nearest node
+	 * reachable by fail links which ends a word) in breadth first order.
+	 */
+	private void buildLinks()
+	{
+		// trie children of each node, collected from the hash table
+		int[][] children = new int[nodeCount_][];
+		char[] edge = new char[nodeCount_];
+		for (int i=0; i<keys_.length; i++)
+		{
+			if (keys_[i] >= 0)
+			{
+				int parent = (int)(keys_[i] >>> 16);
+				children[parent] = append(children[parent], children_[i]);
+				edge[children_[i]] = (char)keys_[i];
+			}
+		}
+
+		dictLink_[0] = -1;
+		int[] queue = new int[nodeCount_];
+		int head = 0, tail = 0;
+		queue[tail++] = 0;
+		while (head < tail)
+		{
+			int node = queue[head++];
+			if (children[node] == null)
+				continue;
+			for (int child : children[node])
+			{
+				int fail = 0;
+				if (node != 0)
+				{
+					int f = fail_[node];
+					while ((fail = child(f, edge[child])) < 0 && (f != 0))
+						f = fail_[f];
+					if (fail < 0)
+						fail = 0;
+				}
+				fail_[child]	 = fail;
+				dictLink_[child] = output_[fail] != null ? fail : dictLink_[fail];
+				queue[tail++] 	 = child;
+			}
+		}
+	}
+
+
+	private int child(int node, char c)
+	{
+		long key = ((long)node << 16) | c;
+		int mask = keys_.length - 1;
+		for (int i=hash(key) & mask; ; i = (i + 1) & mask)
+		{
+			if (keys_[i] == key)
+				return children_[i];
+			if (keys_[i] < 0)
+				return -1;
+		}
+	}
+
+
+	private void putChild(int node, char c, int child)
+	{
+		long key = ((long)node << 16) | c;
+		int mask = keys_.length - 1;
+		int i = hash(key) & mask;
+		while (keys_[i] >= 0)
+			i = (i + 1) & mask;
+		keys_[i] 	 = key;
+		children_[i] = child;
+	}
+
+
+	private static int hash(long key)
+	{
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int)(h ^ (h >>> 32));
+	}
+
+
+	/**
+	 * Returns the number of words.
+	 * @return the size
+	 */
+	public int size()
+	{
+		return words_.length;
+	}
+
+
+	/**
+	 * Returns a word.
+	 * @param index the index of the word
+	 * @return the word
+	 */
+	public String word(int index)
+	{
+		return words_[index];
+	}
+
+
+	/**
+	 * Returns a new Scanner.
+	 * @return the scanner
+	 */
+	public Scanner scanner()
+	{
+		return new Scanner();
+	}
+
+
+	/**
+	 * A Scanner receives a text and records the index of the first occurrence of each word.
+	 */
+	public final class Scanner
+	{
+		private Scanner()
+		{
+			first_ = new long[words_.length];
+			Arrays.fill(first_, -1L);
+			// the empty word occurs at index 0
+			if (output_[0] != null)
+				found(0, 0);
+		}
+
+
+		/**
+		 * Scans the next part of the text.
+		 * @param s the text part
+		 * @return this
+		 */
+		public Scanner scan(CharSequence s)
+		{
+			for (int i=0, n=s.length(); (i<n) && !allFound(); i++)
+				next(s.charAt(i));
+			return this;
+		}
+
+
+		/**
+		 * Scans the next part of the text.
+		 * @param buffer a buffer containing the text part
+		 * @param offset the start offset of the text part
+		 * @param length the length of the text part
+		 * @return this
+		 */
+		public Scanner scan(char[] buffer, int offset, int length)
+		{
+			for (int i=offset, end=offset+length; (i<end) && !allFound(); i++)
+				next(buffer[i]);
+			return this;
+		}
+
+
+		private void next(char c)
+		{
+			int node = state_;
+			int child;
+			while (((child = child(node, c)) < 0) && (node != 0))
+				node = fail_[node];
+			state_ = Math.max(child, 0);
+			position_++;
+			for (int n = output_[state_] != null ? state_ : dictLink_[state_]; n > 0; n = dictLink_[n])
+				found(n, position_);
+		}
+
+
+		private void found(int node, long end)
+		{
+			for (int w : output_[node])
+			{
+				if (first_[w] < 0)
+				{
+					first_[w] = end - words_[w].length();
+					found_++;
+				}
+			}
+		}
+
+
+		/**
+		 * Returns if all words were found. Further text is then ignored.
+		 * @return true if found
+		 */
+		public boolean allFound()
+		{
+			return found_ == first_.length;
+		}
+
+
+		/**
+		 * Returns the number of found words.
+		 * @return the count
+		 */
+		public int foundCount()
+		{
+			return found_;
+		}
+
+
+		/**
+		 * Returns the index of the first occurrence of a word in the scanned text.
+		 * @param word the index of the word
+		 * @return the index in the text or -1 if the word was not found
+		 */
+		public long firstIndex(int word)
+		{
+			return first_[word];
+		}
+
+
+		/**
+		 * Returns the words of the automaton.
+		 * @return the words
+		 */
+		public List<String> words()
+		{
+			return Collections.unmodifiableList(Arrays.asList(words_));
+		}
+
+
+		/**
+		 * Returns the words which were not found.
+		 * @return the words
+		 */
+		public List<String> missing()
+		{
+			List<String> missing = new ArrayList<>();
+			for (int w=0; w<first_.length; w++)
+			{
+				if (first_[w] < 0)
+					missing.add(words_[w]);
+			}
+			return missing;
+		}
+
+
+		private final long[] first_;
+		private int found_;
+		private int state_;
+		private long position_;
+	}
+
+
+	private final String[] words_;
+	private final long[] keys_;
+	private final int[] children_;
+	private final int[][] output_;
+	private final int[] fail_;
+	private final int[] dictLink_;
+	private int nodeCount_ = 1;
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2021 jdlib, https://github.com/jdlib
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package deepdive.impl;
+
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+
+
+/**
+ * ArrayRanges finds the ranges of differing elements of two primitive arrays
+ * with the same component type, without boxing elements.
+ * Ranges of equal elements are skipped with {@link Arrays#mismatch(int[], int, int, int[], int, int) Arrays.mismatch}.
+ * Elements of double and float arrays can be compared within a delta, without a delta
+ * elements are compared like {@link Arrays#equals(double[], double[])} does.
+ * Only the first {@link #length()} elements, i.e. the common length of both arrays, are compared.
+ */
+abstract class ArrayRanges
+{
+	/**
+	 * Returns an ArrayRanges object for the arrays.
+	 * @param expected the expected array
+	 * @param actual the actual array
+	 * @param delta null or the delta to compare double or float elements
+	 * @return the ArrayRanges or null if the arrays are not primitive arrays with the same component type
+	 */
+	public static ArrayRanges of(Object expected, Object actual, Number delta)
+	{
+		Class<?> type = expected.getClass().getComponentType();
+		if (!type.isPrimitive() || (type != actual.getClass().getComponentType()))
+			return null;
+		int length = Math.min(Array.getLength(expected), Array.getLength(actual));
+
+		if (expected instanceof boolean[])
+		{
+			boolean[] e = (boolean[])expected, a = (boolean[])actual;
+			return new ArrayRanges(length)
+			{
+				@Override protected int mismatch(int from, int to) { return Arrays.mismatch(e, from, to, a, from, to); }
+				@Override protected boolean equal(int index) { return e[index] == a[index]; }
+			};
+		}
+		else if (expected instanceof byte[])
+		{
+			byte[] e = (byte[])expected, a = (byte[])actual;
+			return new ArrayRanges(length)
+			{
+				@Override protected int mismatch(int from, int to) { return Arrays.mismatch(e, from, to, a, from, to); }
+				@Override protected boolean equal(int index) { return e[index] == a[index]; }
+			};
+		}
+		else if (expected instanceof char[])
+		{
+			char[] e = (char[])expected, a = (char[])actual;
+			return new ArrayRanges(length)
+			{
+				@Override protected int mismatch(int from, int to) { return Arrays.mismatch(e, from, to, a, from, to); }
+				@Override protected boolean equal(int index) { return e[index] == a[index]; }
+			};
+		}
+		else if (expected instanceof double[])
+		{
+			double[] e = (double[])expected, a = (double[])actual;
+			double d = delta != null ? delta.doubleValue() : -1.0;
+			return new ArrayRanges(length)
+			{
+				@Override protected int mismatch(int from, int to) { return Arrays.mismatch(e, from, to, a, from, to); }
+				@Override protected boolean equal(int index) { return Value.withinDelta(e[index], a[index], d); }
+			};
+		}
+		else if (expected instanceof float[])
+		{
+			float[] e = (float[])expected, a = (float[])actual;
+			float d = delta != null ? delta.floatValue() : -1.0f;
+			return new ArrayRanges(length)
+			{
+				@Override protected int mismatch(int from, int to) { return Arrays.mismatch(e, from, to, a, from, to); }
+				@Override protected boolean equal(int index) { return Value.withinDelta(e[index], a[index], d); }
+			};
+		}
+		else if (expected instanceof int[])
+		{
+			int[] e = (int[])expected, a = (int[])actual;
+			return new ArrayRanges(length)
+			{
+				@Override protected int mismatch(int from, int to) { return Arrays.mismatch(e, from, to, a, from, to); }
+				@Override protected boolean equal(int index) { return e[index] == a[index]; }
+			};
+		}
+		else if (expected instanceof long[])
+		{
+			long[] e = (long[])expected, a = (long[])actual;
+			return new ArrayRanges(length)
+			{
+				@Override protected int mismatch(int from, int to) { return Arrays.mismatch(e, from, to, a, from, to); }
+				@Override protected boolean equal(int index) { return e[index] == a[index]; }
+			};
+		}
+		else
+		{
+			short[] e = (short[])expected, a = (short[])actual;
+			return new ArrayRanges(length)
+			{
+				@Override protected int mismatch(int from, int to) { return Arrays.mismatch(e, from, to, a, from, to); }
+				@Override protected boolean equal(int index) { return e[index] == a[index]; }
+			};
+		}
+	}
+
+
+	private ArrayRanges(int length)
+	{
+		length_ = length;
+	}
+
+
+	/**
+	 * Returns the number of compared elements.
+	 * @return the length
+	 */
+	public int length()
+	{
+		return length_;
+	}
+
+
+	/**
+	 * Returns the index of the first differing element at or after from.
+	 * @param from the start index
+	 * @return the index or -1 if all elements from the start index are equal
+	 */
+	public int nextDiff(int from)
+	{
+		return nextDiff(from, length_);
+	}
+
+
+	/**
+	 * Returns the index of the first differing element at or after from and before to.
+	 * @param from the start index
+	 * @param to the end index, must not exceed {@link #length()}
+	 * @return the index or -1 if all elements in the range are equal
+	 */
+	public int nextDiff(int from, int to)
+	{
+		while (from < to)
+		{
+			int index = mismatch(from, to);
+			if (index < 0)
+				return -1;
+			index += from;
+			// elements which are not identical may still be equal within a delta
+			if (!equal(index))
+				return index;
+			from = index + 1;
+		}
+		return -1;
+	}
+
+
+	/**
+	 * Returns the end index of a range of differing elements.
+	 * @param start the index of the first element of the range which must differ
+	 * @return the index of the first equal element after the start or {@link #length()}
+	 */
+	public int diffEnd(int start)
+	{
+		int end = start + 1;
+		while ((end < length_) && !equal(end))
+			end++;
+		return end;
+	}
+
+
+	/**
+	 * Returns the index of the first mismatch between from and to relative to from, or -1.
+	 */
+	protected abstract int mismatch(int from, int to);
+
+
+	/**
+	 * Returns if the elements at index are equal.
+	 */
+	protected abstract boolean equal(int index);
+
+
+	private final int length_;
+}
@@ -3,31 +3,319 @@ package deepdive.impl;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.UnaryOperator;
+import deepdive.function.CheckedRunnable;
 
 
 /**
  * Config allows you to customize what type of assertion errors are thrown
- * and how error messages and value are formatted.
+ * and how error messages and value are formatted.<p>
+ * A Config is an immutable snapshot of the {@link ErrorFactory}, {@link ErrorFormat},
+ * {@link ValueFormat}, {@link Difference}, {@link StackCapture}, {@link SoftLimit} and {@link Parallelism} services.
+ * {@link #get()} returns the Config which is effective for the current thread:
+ * <ul>
+ * <li>the Config of the innermost open {@link Scope} of the current thread, or else
+ * <li>the global Config which is changed by the static set methods of the services,
+ * 	   e.g. {@link ErrorFactory#set(ErrorFactory)}.
+ * </ul>
+ * Scopes allow tests which run in parallel to use different services without
+ * affecting each other:
+ * <pre><code>try (Config.Scope scope = Config.get().with(myValueFormat).open())
+ * {
+ *     ...
+ * }</code></pre>
+ * Threads inherit the scope which is open in their parent thread when they are created.
+ * Threads of a pool which are reused across tasks should explicitly open a scope for
+ * the Config of the task submitter.
  */
-public class Config
+public final class Config
 {
 	/**
-	 * Returns a string which describes the current config.
+	 * Returns the Config which is effective for the current thread.
+	 * @return the Config
+	 */
+	public static Config get()
+	{
+		Scope scope = scope_.get();
+		return scope != null ? scope.config_ : global_;
+	}
+
+
+	/**
+	 * Returns the global Config which is effective if no scope is open.
+	 * @return the Config
+	 */
+	public static Config getGlobal()
+	{
+		return global_;
+	}
+
+
+	/**
+	 * Changes the global Config.
+	 * @param change receives the current global Config and returns the new one
+	 */
+	static synchronized void setGlobal(UnaryOperator<Config> change)
+	{
+		global_ = change.apply(global_);
+	}
+
+
+	private Config(ErrorFactory errorFactory, ErrorFormat errorFormat, ValueFormat valueFormat, Difference difference, 
+		StackCapture stackCapture, SoftLimit softLimit, Parallelism parallelism)
+	{
+		errorFactory_	= DDCheck.notNull(errorFactory, "errorFactory");
+		errorFormat_	= DDCheck.notNull(errorFormat, "errorFormat");
+		valueFormat_	= DDCheck.notNull(valueFormat, "valueFormat");
+		difference_		= DDCheck.notNull(difference, "difference");
+		stackCapture_	= DDCheck.notNull(stackCapture, "stackCapture");
+		softLimit_		= DDCheck.notNull(softLimit, "softLimit");
+		parallelism_	= DDCheck.notNull(parallelism, "parallelism");
+	}
+
+
+	public ErrorFactory getErrorFactory()
+	{
+		return errorFactory_;
+	}
+
+
+	public ErrorFormat getErrorFormat()
+	{
+		return errorFormat_;
+	}
+
+
+	public ValueFormat getValueFormat()
+	{
+		return valueFormat_;
+	}
+
+
+	public Difference getDifference()
+	{
+		return difference_;
+	}
+
+
+	public StackCapture getStackCapture()
+	{
+		return stackCapture_;
+	}
+
+
+	public SoftLimit getSoftLimit()
+	{
+		return softLimit_;
+	}
+
+
+	public Parallelism getParallelism()
+	{
+		return parallelism_;
+	}
+
+
+	/**
+	 * Returns a Config which equals this Config but uses the given ErrorFactory.
+	 * @param value the ErrorFactory
+	 * @return the new Config
+	 */
+	public Config with(ErrorFactory value)
+	{
+		return new Config(value, errorFormat_, valueFormat_, difference_, stackCapture_, softLimit_, parallelism_);
+	}
+
+
+	/**
+	 * Returns a Config which equals this Config but uses the given ErrorFormat.
+	 * @param value the ErrorFormat
+	 * @return the new Config
+	 */
+	public Config with(ErrorFormat value)
+	{
+		return new Config(errorFactory_, value, valueFormat_, difference_, stackCapture_, softLimit_, parallelism_);
+	}
+
+
+	/**
+	 * Returns a Config which equals this Config but uses the given ValueFormat.
+	 * @param value the ValueFormat
+	 * @return the new Config
+	 */
+	public Config with(ValueFormat value)
+	{
+		return new Config(errorFactory_, errorFormat_, value, difference_, stackCapture_, softLimit_, parallelism_);
+	}
+
+
+	/**
+	 * Returns a Config which equals this Config but uses the given Difference.
+	 * @param value the Difference
+	 * @return the new Config
+	 */
+	public Config with(Difference value)
+	{
+		return new Config(errorFactory_, errorFormat_, valueFormat_, value, stackCapture_, softLimit_, parallelism_);
+	}
+
+
+	/**
+	 * Returns a Config which equals this Config but uses the given StackCapture.
+	 * @param value the StackCapture
+	 * @return the new Config
+	 */
+	public Config with(StackCapture value)
+	{
+		return new Config(errorFactory_, errorFormat_, valueFormat_, difference_, value, softLimit_, parallelism_);
+	}
+
+
+	/**
+	 * Returns a Config which equals this Config but uses the given SoftLimit.
+	 * @param value the SoftLimit
+	 * @return the new Config
+	 */
+	public Config with(SoftLimit value)
+	{
+		return new Config(errorFactory_, errorFormat_, valueFormat_, difference_, stackCapture_, value, parallelism_);
+	}
+
+
+	/**
+	 * Returns a Config which equals this Config but uses the given Parallelism.
+	 * @param value the Parallelism
+	 * @return the new Config
+	 */
+	public Config with(Parallelism value)
+	{
+		return new Config(errorFactory_, errorFormat_, valueFormat_, difference_, stackCapture_, softLimit_, value);
+	}
+
+
+	/**
+	 * Opens a Scope in which this Config is effective for the current thread,
+	 * and for threads created by the current thread while the scope is open.
+	 * The scope must be closed by the current thread.
+	 * @return the Scope
+	 */
+	public Scope open()
+	{
+		Scope scope = new Scope(this, scope_.get());
+		scope_.set(scope);
+		return scope;
+	}
+
+
+	/**
+	 * Runs the runnable within a Scope of this Config.
+	 * @param runnable a runnable
+	 * @throws E thrown by the runnable
+	 * @param <E> the exception type of the runnable
+	 */
+	@SuppressWarnings("try")
+	public <E extends Exception> void run(CheckedRunnable<E> runnable) throws E
+	{
+		DDCheck.notNull(runnable, "runnable");
+		try (Scope scope = open())
+		{
+			runnable.run();
+		}
+	}
+
+
+	/**
+	 * A Scope makes a Config effective for a thread until it is closed.
+	 * Scopes can be nested and must be closed in reverse order of their creation.
+	 */
+	public static final class Scope implements AutoCloseable
+	{
+		private Scope(Config config, Scope previous)
+		{
+			config_		= config;
+			previous_	= previous;
+			level_		= previous != null ? previous.level_ + 1 : 1;
+		}
+
+
+		/**
+		 * Returns the nesting level of the scope, starting at 1.
+		 * @return the level
+		 */
+		public int getLevel()
+		{
+			return level_;
+		}
+
+
+		/**
+		 * Closes the scope and restores the previous Config of the current thread.
+		 * @throws IllegalStateException if the scope is not the innermost scope of the current thread
+		 */
+		@Override public void close()
+		{
+			if (scope_.get() != this)
+				throw new IllegalStateException("scope is not the innermost scope of the current thread");
+			if (previous_ != null)
+				scope_.set(previous_);
+			else
+				scope_.remove();
+		}
+
+
+		@Override public String toString()
+		{
+			return "scoped (level " + level_ + ')';
+		}
+
+
+		private final Config config_;
+		private final Scope previous_;
+		private final int level_;
+	}
+
+
+	/**
+	 * Returns a string which describes the Config of the current thread.
 	 * @return the info string
 	 */
 	public static String info()
 	{
+		Scope scope  = scope_.get();
+		Config config = get();
 		List<Stmt> stmts = new ArrayList<>();
-		info(stmts, ErrorFactory.class, ErrorFactory.get());
-		info(stmts, ErrorFormat.class,  ErrorFormat.get());
-		info(stmts, ValueFormat.class,  ValueFormat.get());
-		info(stmts, Difference.class,   Difference.get());
+		info(stmts, ErrorFactory.class, config.errorFactory_);
+		info(stmts, ErrorFormat.class,  config.errorFormat_);
+		info(stmts, ValueFormat.class,  config.valueFormat_);
+		info(stmts, Difference.class,   config.difference_);
+		info(stmts, StackCapture.class, config.stackCapture_);
+		info(stmts, SoftLimit.class,	config.softLimit_);
+		info(stmts, Parallelism.class,	config.parallelism_);
+		stmts.add(new Stmt("Scope", scope != null ? scope.toString() : "global"));
 		return Stmt.formatAll(stmts, new StringBuilder()).toString();
 	}
-	
-	
+
+
 	private static <T> void info(List<Stmt> stmts, Class<T> type, T impl)
 	{
 		stmts.add(new Stmt(type.getSimpleName(), impl.toString()));
 	}
+
+
+	private final ErrorFactory errorFactory_;
+	private final ErrorFormat errorFormat_;
+	private final ValueFormat valueFormat_;
+	private final Difference difference_;
+	private final StackCapture stackCapture_;
+	private final SoftLimit softLimit_;
+	private final Parallelism parallelism_;
+	private static final InheritableThreadLocal<Scope> scope_ = new InheritableThreadLocal<>();
+	private static volatile Config global_ = new Config(
+		ErrorFactory.createDefault(),
+		new ErrorFormat(),
+		new ValueFormat(),
+		new Difference(),
+		StackCapture.FULL,
+		SoftLimit.NONE,
+		Parallelism.DEFAULT);
 }
@@ -20,4 +20,28 @@ public class DDCheck
 			throw new IllegalArgumentException(what + " is null");
 		return value;
 	}
+
+
+	public static int positive(int value, String what)
+	{
+		if (value <= 0)
+			throw new IllegalArgumentException(what + " must be > 0, but is " + value);
+		return value;
+	}
+
+
+	public static long positive(long value, String what)
+	{
+		if (value <= 0)
+			throw new IllegalArgumentException(what + " must be > 0, but is " + value);
+		return value;
+	}
+
+
+	public static double probability(double value, String what)
+	{
+		if (!(value > 0.0) || !(value < 1.0))
+			throw new IllegalArgumentException(what + " must be > 0 and < 1, but is " + value);
+		return value;
+	}
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2021 jdlib, https://github.com/jdlib
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package deepdive.impl;
+
+
+import java.util.function.Supplier;
+
+
+/**
+ * DeferredAssertionError is an AssertionError which is created for failed assertions
+ * in soft mode. It postpones building the error message and the actual assertion error
+ * until the error is {@link #resolve() resolved} or its message is requested.
+ * Values in the message, including the values of the Actual contexts, are formatted at that time:
+ * If an expected or actual value is mutable and changes after the failure, the message shows its changed state.
+ * The stack trace is captured according to the current {@link StackCapture}.
+ */
+public class DeferredAssertionError extends AssertionError
+{
+	private static final long serialVersionUID = 1L;
+
+
+	/**
+	 * Returns the resolved error if the given error is a DeferredAssertionError,
+	 * else the error itself.
+	 * @param error an error
+	 * @return the resolved error
+	 */
+	public static AssertionError resolve(AssertionError error)
+	{
+		return error instanceof DeferredAssertionError ? ((DeferredAssertionError)error).resolve() : error;
+	}
+
+
+	/**
+	 * Creates a new DeferredAssertionError.
+	 * @param factory creates the actual assertion error when the error is resolved
+	 */
+	public DeferredAssertionError(Supplier<AssertionError> factory)
+	{
+		factory_ = DDCheck.notNull(factory, "factory");
+		StackCapture capture = StackCapture.get();
+		if (capture != StackCapture.NONE)
+			super.fillInStackTrace();
+		capture.apply(this);
+	}
+
+
+	/**
+	 * Returns the actual assertion error. It is created on first call
+	 * and receives the stack trace of this error.
+	 * @return the error
+	 */
+	public synchronized AssertionError resolve()
+	{
+		if (resolved_ == null)
+		{
+			resolved_ = factory_.get();
+			resolved_.setStackTrace(getStackTrace());
+		}
+		return resolved_;
+	}
+
+
+	/**
+	 * Returns the message of the resolved error.
+	 */
+	@Override public String getMessage()
+	{
+		return resolve().getMessage();
+	}
+
+
+	/**
+	 * Returns the cause of the resolved error.
+	 */
+	@Override public Throwable getCause()
+	{
+		return resolve().getCause();
+	}
+
+
+	/**
+	 * Does nothing since the stack trace is captured in the constructor.
+	 */
+	@Override public Throwable fillInStackTrace()
+	{
+		return this;
+	}
+
+
+	private transient final Supplier<AssertionError> factory_;
+	private AssertionError resolved_;
+}
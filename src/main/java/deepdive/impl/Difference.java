@@ -1,10 +1,13 @@
 package deepdive.impl;
 
 
+import java.lang.reflect.Array;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.RandomAccess;
 import java.util.Set;
 
 
@@ -17,24 +20,25 @@ import java.util.Set;
 public class Difference
 {
 	/**
-	 * Returns the currently active Difference. 
+	 * Returns the currently active Difference of the {@link Config#get() current Config}. 
 	 * @return the Difference
 	 * @see #set(Difference)
 	 */
 	public static Difference get()
 	{
-		return current_;
+		return Config.get().getDifference();
 	}
 	
 	
 	/**
-	 * Sets the current Difference.
+	 * Sets the Difference of the {@link Config#getGlobal() global Config}.
 	 * @param value the new Difference
 	 * @see #get() 
 	 */
 	public static void set(Difference value)
 	{
-		current_ = DDCheck.notNull(value, "value");
+		DDCheck.notNull(value, "value");
+		Config.setGlobal(c -> c.with(value));
 	}
 
 	
@@ -50,13 +54,20 @@ public class Difference
 		
 		
 		public void addNotEqual(String what, Object expected, Object actual);
+		
+		
+		public default void addNotEqual(String expectedWhat, String actualWhat, Object expected, Object actual)
+		{
+			add("expected " + expectedWhat, expected);
+			add("but was  " + actualWhat, actual);
+		}
 	}
 	
 	
 	/**
 	 * Logs the difference of expected and actual object.
-	 * The default implementation recognizes and logs arrays, lists, sets and maps.
-	 * Any other values are not logged.
+	 * The default implementation recognizes and logs arrays, lists, sets, maps
+	 * and character sequences. Any other values are not logged.
 	 * @param log receives messages
 	 * @param expected the expected value
 	 * @param actual the actual value
@@ -71,17 +82,61 @@ public class Difference
 			logSet(log, (Set<?>)expected, (Set<?>)actual);
 		else if (instancesOf(Map.class, expected, actual))
 			logMap(log, (Map<?,?>)expected, (Map<?,?>)actual);
+		else if (instancesOf(CharSequence.class, expected, actual))
+			logText(log, (CharSequence)expected, (CharSequence)actual);
+	}
+	
+	
+	/**
+	 * Logs the difference of expected and actual object which were compared within a delta.
+	 * The default implementation uses the delta when it logs arrays, any other values
+	 * and values compared without delta are logged by {@link #log(Log, Object, Object)}.
+	 * @param log receives messages
+	 * @param expected the expected value
+	 * @param actual the actual value
+	 * @param delta the delta or null
+	 */
+	public void log(Log log, Object expected, Object actual, Object delta)
+	{
+		if ((delta instanceof Number) && Value.isArray(expected) && Value.isArray(actual))
+			logArray(log, expected, actual, (Number)delta);
+		else
+			log(log, expected, actual);
 	}
 	
 	
 	/**
 	 * 1) Test component type according to {@link Value#arraysEqual(Object, Object, boolean)}
-	 * 2) Test element and size equality
+	 * 2) Test element and size equality. Primitive arrays of equal length are compared 
+	 * 	  without boxing and their differences are logged as ranges of differing elements. 
 	 * @param log the log
 	 * @param expecteds the expected elements
 	 * @param actuals the actual elements
 	 */
 	protected void logArray(Log log, Object expecteds, Object actuals)
+	{
+		logArrayImpl(log, expecteds, actuals, null);
+	}
+	
+	
+	/**
+	 * Like {@link #logArray(Log, Object, Object)} but compares double and float elements within a delta.
+	 * If the delta is null, {@link #logArray(Log, Object, Object)} is called.
+	 * @param log the log
+	 * @param expecteds the expected elements
+	 * @param actuals the actual elements
+	 * @param delta null or the delta used to compare double and float elements
+	 */
+	protected void logArray(Log log, Object expecteds, Object actuals, Number delta)
+	{
+		if (delta == null)
+			logArray(log, expecteds, actuals);
+		else
+			logArrayImpl(log, expecteds, actuals, delta);
+	}
+	
+	
+	private void logArrayImpl(Log log, Object expecteds, Object actuals, Number delta)
 	{
 		// 1)
 		Class<?> typeE = expecteds.getClass().getComponentType();
@@ -93,7 +148,60 @@ public class Difference
 		}
 		
 		// 2)
-		logIndexed(log, new GenericArrayList(expecteds), new GenericArrayList(actuals), "len");
+		ArrayRanges ranges = ArrayRanges.of(expecteds, actuals, delta);
+		if (ranges == null)
+			logIndexed(log, new GenericArrayList(expecteds), new GenericArrayList(actuals), "len");
+		else if (Array.getLength(expecteds) == Array.getLength(actuals))
+			logRanges(log, ranges, expecteds, actuals);
+		else
+		{
+			// skip the equal prefix without boxing
+			int start = ranges.nextDiff(0);
+			logIndexed(log, new GenericArrayList(expecteds), new GenericArrayList(actuals), "len", 
+				start >= 0 ? start : ranges.length());
+		}
+	}
+	
+	
+	/**
+	 * Logs the first ranges of differing elements of two primitive arrays with equal length.
+	 * A range of a single element is logged like an element difference of a list.
+	 * Omitted differing elements are summarized by a "more differences" statement. 
+	 */
+	private void logRanges(Log log, ArrayRanges ranges, Object expecteds, Object actuals)
+	{
+		int logged  = 0;
+		int omitted = 0;
+		for (int start = ranges.nextDiff(0); start >= 0; )
+		{
+			int end = ranges.diffEnd(start);
+			if (logged++ >= getMaxHunks())
+				omitted += end - start;
+			else if (end - start == 1)
+				logElemDiffAt(log, start, Array.get(expecteds, start), Array.get(actuals, start));
+			else
+			{
+				int logEnd = Math.min(end, start + getMaxHunkElems());
+				omitted += end - logEnd;
+				log.addNotEqual("[" + start + ".." + (end - 1) + ']', 
+					slice(expecteds, start, logEnd, end), 
+					slice(actuals, start, logEnd, end));
+			}
+			start = end < ranges.length() ? ranges.nextDiff(end) : -1;
+		}
+		if (omitted > 0)
+			log.add("more differences", Integer.valueOf(omitted));
+	}
+	
+	
+	private static String slice(Object array, int start, int end, int rangeEnd)
+	{
+		Object slice = Array.newInstance(array.getClass().getComponentType(), end - start);
+		System.arraycopy(array, start, slice, 0, end - start);
+		String s = Value.format(slice);
+		if (end < rangeEnd)
+			s = s.substring(0, s.length() - 1) + ", " + ValueFormat.ELLIPSIS + ']';
+		return s;
 	}
 	
 	
@@ -103,32 +211,108 @@ public class Difference
 	}
 
 	
+	/**
+	 * Logs the difference of two lists as hunks of changed, missing and unexpected elements.
+	 * The hunks are computed by {@link ListDiff}, therefore an inserted or removed element
+	 * is reported once instead of shifting all subsequent elements. The number of
+	 * logged hunks and of logged elements per hunk is limited, omitted elements are
+	 * summarized by a "more differences" statement. By default hunks are logged without
+	 * the unchanged elements around them, see {@link #getHunkContext()}.
+	 * @param log the log
+	 * @param expected the expected elements
+	 * @param actual the actual elements
+	 * @param sizeName the name of the size property
+	 */
 	protected void logIndexed(Log log, List<?> expected, List<?> actual, String sizeName)
+	{
+		logIndexed(log, expected, actual, sizeName, 0);
+	}
+	
+	
+	private void logIndexed(Log log, List<?> expected, List<?> actual, String sizeName, int start)
 	{
 		int expectedSize	= expected.size();
 		int actualSize 		= actual.size();
-		int minSize			= Math.min(expectedSize, actualSize);
+		if (expectedSize != actualSize)
+			log.addNotEqual(sizeName, Integer.valueOf(expectedSize), Integer.valueOf(actualSize));
 		
-		for (int i=0; i<minSize; i++)
+		int omitted 	= 0;
+		int context 	= getHunkContext();
+		int contextEnd	= 0;
+		List<ListDiff.Hunk> hunks = ListDiff.compute(expected, actual, start, getMaxEditDistance());
+		for (int h=0; h<hunks.size(); h++)
 		{
-			Object expectedElem = expected.get(i);
-			Object actualElem   = actual.get(i);
+			ListDiff.Hunk hunk = hunks.get(h);
+			if (h < getMaxHunks())
+			{
+				if (context > 0)
+					logContext(log, expected, Math.max(contextEnd, hunk.expectedStart - context), hunk.expectedStart, hunk.actualStart - hunk.expectedStart);
+				omitted += logHunk(log, expected, actual, hunk);
+				if (context > 0)
+				{
+					int next   = (h + 1 < hunks.size()) && (h + 1 < getMaxHunks()) ? hunks.get(h + 1).expectedStart : expectedSize;
+					int offset = hunk.actualEnd - hunk.expectedEnd;
+					contextEnd = Math.min(Math.min(hunk.expectedEnd + context, next), Math.min(expectedSize, actualSize - offset));
+					logContext(log, expected, hunk.expectedEnd, contextEnd, offset);
+				}
+			}
+			else
+				omitted += Math.max(hunk.expectedLength(), hunk.actualLength());
+		}
+		if (omitted > 0)
+			log.add("more differences", Integer.valueOf(omitted));
+	}
+	
+	
+	/**
+	 * Logs a hunk and returns the number of elements which were not logged.
+	 */
+	private int logHunk(Log log, List<?> expected, List<?> actual, ListDiff.Hunk hunk)
+	{
+		int changes = Math.min(hunk.expectedLength(), hunk.actualLength());
+		int logged  = 0;
+		int omitted = 0;
+		for (int i=0; i<changes; i++)
+		{
+			int expectedIndex	= hunk.expectedStart + i;
+			int actualIndex		= hunk.actualStart + i;
+			Object expectedElem = expected.get(expectedIndex);
+			Object actualElem   = actual.get(actualIndex);
+			// hunks of lists with a large edit distance may contain equal elements
 			if (!Value.equal(expectedElem, actualElem))
-				logElemDiffAt(log, i, expectedElem, actualElem);
+			{
+				if (logged++ < getMaxHunkElems())
+					logElemDiffAt(log, expectedIndex, actualIndex, expectedElem, actualElem);
+				else
+					omitted++;
+			}
 		}
-		if (expectedSize != actualSize)
+		for (int i=hunk.expectedStart + changes; i<hunk.expectedEnd; i++)
 		{
-			log.addNotEqual(sizeName, Integer.valueOf(expectedSize), Integer.valueOf(actualSize));
-			logIndexAdditional(log, expected, "missing ", minSize);
-			logIndexAdditional(log, actual, "unexpected ", minSize);
+			if (logged++ < getMaxHunkElems())
+				log.add("missing [" + i + ']', expected.get(i));
+			else
+				omitted++;
+		}
+		for (int i=hunk.actualStart + changes; i<hunk.actualEnd; i++)
+		{
+			if (logged++ < getMaxHunkElems())
+				log.add("unexpected [" + i + ']', actual.get(i));
+			else
+				omitted++;
 		}
+		return omitted;
 	}
 	
 	
-	private void logIndexAdditional(Log log, List<?> list, String what, int start)
+	/**
+	 * Logs the unchanged elements in the range [from, to) of the expected list.
+	 * @param offset the offset of the actual index to the expected index
+	 */
+	private void logContext(Log log, List<?> expected, int from, int to, int offset)
 	{
-		for (int i=start; i<list.size(); i++)
-			log.add(what + '[' + i + ']', list.get(i));
+		for (int i=from; i<to; i++)
+			log.add("same [" + i + ']' + (offset != 0 ? "[" + (i + offset) + ']' : ""), expected.get(i));
 	}
 	
 	
@@ -138,6 +322,359 @@ public class Difference
 	}
 	
 	
+	protected void logElemDiffAt(Log log, int expectedIndex, int actualIndex, Object expectedElem, Object actualElem)
+	{
+		if (expectedIndex == actualIndex)
+			logElemDiffAt(log, expectedIndex, expectedElem, actualElem);
+		else
+			log.addNotEqual("[" + expectedIndex + ']', "[" + actualIndex + ']', expectedElem, actualElem);
+	}
+	
+	
+	/**
+	 * Returns the maximum number of inserted and removed elements for which
+	 * a minimal list difference is computed. Lists which differ more are
+	 * compared index by index.
+	 * @return the maximum edit distance
+	 */
+	protected int getMaxEditDistance()
+	{
+		return 1000;
+	}
+	
+	
+	/**
+	 * Returns the maximum number of hunks logged for a list difference.
+	 * @return the maximum number of hunks
+	 */
+	protected int getMaxHunks()
+	{
+		return 10;
+	}
+	
+	
+	/**
+	 * Returns the maximum number of elements logged per hunk of a list difference.
+	 * @return the maximum number of elements
+	 */
+	protected int getMaxHunkElems()
+	{
+		return 10;
+	}
+	
+	
+	/**
+	 * Returns the number of unchanged elements logged before and after each hunk of a list difference.
+	 * The default implementation returns 0, i.e. hunks are logged without context.
+	 * @return the number of context elements
+	 */
+	protected int getHunkContext()
+	{
+		return 0;
+	}
+
+	
+	/**
+	 * Logs the difference of two texts which are multiline or longer than
+	 * {@link #getMinTextDiffLength()}, since the values of shorter texts are
+	 * already fully formatted in the error message.
+	 * The common prefix and suffix of the texts are skipped. For multiline texts
+	 * the remaining lines are compared by a line diff and changed lines by a character diff,
+	 * else the remaining characters are compared by a character diff.
+	 * Each character hunk is logged as a window which contains some characters
+	 * of context, labelled with the index (and line) of the first differing character.
+	 * @param log the log
+	 * @param expected the expected text
+	 * @param actual the actual text
+	 */
+	protected void logText(Log log, CharSequence expected, CharSequence actual)
+	{
+		int expectedLen 	= expected.length();
+		int actualLen		= actual.length();
+		boolean multiline	= (indexOf(expected, '\n', 0) >= 0) || (indexOf(actual, '\n', 0) >= 0);
+		if (!multiline && (Math.max(expectedLen, actualLen) <= getMinTextDiffLength()))
+			return;
+
+		int prefix = commonPrefix(expected, 0, expectedLen, actual, 0, actualLen);
+		int suffix = commonSuffix(expected, prefix, expectedLen, actual, prefix, actualLen);
+		if ((prefix == expectedLen) && (prefix == actualLen))
+			return;
+
+		int omitted;
+		if (!multiline)
+			omitted = logChars(log, "", "", expected, prefix, expectedLen - suffix, actual, prefix, actualLen - suffix);
+		else
+		{
+			// extend the differing part to complete lines 
+			int start 		= lastIndexOf(expected, '\n', prefix - 1) + 1;
+			int expectedEnd = indexOf(expected, '\n', expectedLen - suffix);
+			if (expectedEnd < 0)
+				expectedEnd = expectedLen;
+			int actualEnd	= actualLen - (expectedLen - expectedEnd);
+			int firstLine	= 1;
+			for (int i=0; i<start; i++)
+			{
+				if (expected.charAt(i) == '\n')
+					firstLine++;
+			}
+			omitted = logLines(log, firstLine, splitLines(expected, start, expectedEnd), splitLines(actual, start, actualEnd));
+		}
+		if (omitted > 0)
+			log.add("more differences", Integer.valueOf(omitted));
+	}
+	
+	
+	private int logLines(Log log, int firstLine, List<String> expected, List<String> actual)
+	{
+		int omitted = 0;
+		List<ListDiff.Hunk> hunks = ListDiff.compute(expected, actual, getMaxEditDistance());
+		for (int h=0; h<hunks.size(); h++)
+		{
+			ListDiff.Hunk hunk = hunks.get(h);
+			if (h >= getMaxHunks())
+			{
+				omitted += Math.max(hunk.expectedLength(), hunk.actualLength());
+				continue;
+			}
+			int changes = Math.min(hunk.expectedLength(), hunk.actualLength());
+			int logged  = 0;
+			for (int i=0; i<changes; i++)
+			{
+				String expectedLine	= expected.get(hunk.expectedStart + i);
+				String actualLine	= actual.get(hunk.actualStart + i);
+				if (expectedLine.equals(actualLine))
+					continue;
+				if (logged++ < getMaxHunkElems())
+				{
+					int prefix = commonPrefix(expectedLine, 0, expectedLine.length(), actualLine, 0, actualLine.length());
+					int suffix = commonSuffix(expectedLine, prefix, expectedLine.length(), actualLine, prefix, actualLine.length());
+					omitted += logChars(log, 
+						lineLabel(firstLine + hunk.expectedStart + i) + ' ', 
+						lineLabel(firstLine + hunk.actualStart + i) + ' ', 
+						expectedLine, prefix, expectedLine.length() - suffix, 
+						actualLine, prefix, actualLine.length() - suffix);
+				}
+				else
+					omitted++;
+			}
+			for (int i=hunk.expectedStart + changes; i<hunk.expectedEnd; i++)
+			{
+				if (logged++ < getMaxHunkElems())
+					log.add("missing " + lineLabel(firstLine + i), shortenText(expected.get(i)));
+				else
+					omitted++;
+			}
+			for (int i=hunk.actualStart + changes; i<hunk.actualEnd; i++)
+			{
+				if (logged++ < getMaxHunkElems())
+					log.add("unexpected " + lineLabel(firstLine + i), shortenText(actual.get(i)));
+				else
+					omitted++;
+			}
+		}
+		return omitted;
+	}
+	
+	
+	private static String lineLabel(int line)
+	{
+		return "line " + line;
+	}
+	
+	
+	/**
+	 * Logs the character hunks of two text ranges and returns the number of hunks which were not logged.
+	 */
+	private int logChars(Log log, String expectedLabel, String actualLabel,
+		CharSequence expected, int expectedStart, int expectedEnd,
+		CharSequence actual, int actualStart, int actualEnd)
+	{
+		List<ListDiff.Hunk> hunks = ListDiff.compute(
+			new CharList(expected, expectedStart, expectedEnd), 
+			new CharList(actual, actualStart, actualEnd), 
+			getMaxEditDistance());
+		int context	= getTextContext();
+		int logged 	= 0;
+		for (int h=0; h<hunks.size(); )
+		{
+			if (logged++ == getMaxHunks())
+				return hunks.size() - h;
+			// merge hunks whose contexts overlap into one window
+			ListDiff.Hunk first	= hunks.get(h);
+			ListDiff.Hunk last	= first;
+			while ((++h < hunks.size()) && (hunks.get(h).expectedStart - last.expectedEnd <= 2 * context))
+				last = hunks.get(h);
+			int es = expectedStart + first.expectedStart;
+			int as = actualStart + first.actualStart;
+			log.addNotEqual(
+				expectedLabel + '[' + es + ']', 
+				actualLabel + '[' + as + ']',
+				window(expected, es, expectedStart + last.expectedEnd, context),
+				window(actual, as, actualStart + last.actualEnd, context));
+		}
+		return 0;
+	}
+	
+	
+	private String window(CharSequence s, int start, int end, int context)
+	{
+		int from = Math.max(0, start - context);
+		int to	 = Math.min(s.length(), end + context);
+		String window = shortenText(s.subSequence(from, to).toString());
+		if (from > 0)
+			window = ValueFormat.ELLIPSIS + window;
+		if (to < s.length())
+			window += ValueFormat.ELLIPSIS;
+		return window;
+	}
+	
+	
+	private String shortenText(String s)
+	{
+		return ValueFormat.get().shorten(s, getMaxTextWindow());
+	}
+	
+	
+	private static List<String> splitLines(CharSequence s, int start, int end)
+	{
+		List<String> lines = new ArrayList<>();
+		for (int p=start; ; )
+		{
+			int n = indexOf(s, '\n', p);
+			if ((n < 0) || (n >= end))
+			{
+				lines.add(s.subSequence(p, end).toString());
+				return lines;
+			}
+			lines.add(s.subSequence(p, n).toString());
+			p = n + 1;
+		}
+	}
+	
+	
+	private static int commonPrefix(CharSequence s1, int start1, int end1, CharSequence s2, int start2, int end2)
+	{
+		int n = Math.min(end1 - start1, end2 - start2);
+		int i = 0;
+		while ((i < n) && (s1.charAt(start1 + i) == s2.charAt(start2 + i)))
+			i++;
+		return i;
+	}
+	
+	
+	private static int commonSuffix(CharSequence s1, int start1, int end1, CharSequence s2, int start2, int end2)
+	{
+		int n = Math.min(end1 - start1, end2 - start2);
+		int i = 0;
+		while ((i < n) && (s1.charAt(end1 - 1 - i) == s2.charAt(end2 - 1 - i)))
+			i++;
+		return i;
+	}
+	
+	
+	private static int indexOf(CharSequence s, char c, int from)
+	{
+		for (int i=from; i<s.length(); i++)
+		{
+			if (s.charAt(i) == c)
+				return i;
+		}
+		return -1;
+	}
+	
+	
+	private static int lastIndexOf(CharSequence s, char c, int from)
+	{
+		for (int i=from; i>=0; i--)
+		{
+			if (s.charAt(i) == c)
+				return i;
+		}
+		return -1;
+	}
+	
+	
+	/**
+	 * Presents a range of a CharSequence as List of Characters.
+	 */
+	private static class CharList extends AbstractList<Character> implements RandomAccess
+	{
+		public CharList(CharSequence s, int start, int end)
+		{
+			s_		= s;
+			start_	= start;
+			size_	= end - start;
+		}
+		
+		
+		@Override public Character get(int index)
+		{
+			return Character.valueOf(s_.charAt(start_ + index));
+		}
+		
+		
+		@Override public int size()
+		{
+			return size_;
+		}
+		
+		
+		private final CharSequence s_;
+		private final int start_;
+		private final int size_;
+	}
+	
+	
+	/**
+	 * Returns the minimum length of single line texts whose difference is logged.
+	 * @return the length
+	 */
+	protected int getMinTextDiffLength()
+	{
+		return 100;
+	}
+	
+	
+	/**
+	 * Returns the number of context characters logged before and after a text difference.
+	 * @return the number of characters
+	 */
+	protected int getTextContext()
+	{
+		return 20;
+	}
+	
+	
+	/**
+	 * Returns the maximum length of a logged text window.
+	 * @return the length
+	 */
+	protected int getMaxTextWindow()
+	{
+		return 100;
+	}
+	
+	
+	/**
+	 * Logs the differences of two objects which were compared field by field.
+	 * The default implementation logs the first {@link #getMaxHunkElems()} mismatches
+	 * found by the comparison.
+	 * @param log receives messages
+	 * @param expected the expected value
+	 * @param actual the actual value
+	 * @param comparison the comparison
+	 */
+	public void logFields(Log log, Object expected, Object actual, FieldComparison comparison)
+	{
+		List<FieldComparison.Mismatch> mismatches = new ArrayList<>();
+		int count = comparison.compare(expected, actual, mismatches, getMaxHunkElems());
+		for (FieldComparison.Mismatch mismatch : mismatches)
+			log.addNotEqual(mismatch.path.isEmpty() ? null : mismatch.path, mismatch.expected, mismatch.actual);
+		if (count > mismatches.size())
+			log.add("more differences", Integer.valueOf(count - mismatches.size()));
+	}
+	
+	
 	protected void logSet(Log log, Set<?> expectedSet, Set<?> actualSet)
 	{
 		List<Object> missing     = new ArrayList<>();
@@ -223,9 +760,6 @@ public class Difference
 	{
 		return "default";
 	}
-	
-	
-	private static Difference current_ = new Difference();
 }
 
 
@@ -33,29 +33,31 @@ import java.util.stream.Collectors;
  * <li><code>org.junit.ComparisonFailure</code> if `org.opentest4j.AssertionFailedError` is not available
  * <li><code>java.lang.AssertionError</code> else.
  * </ol>
- * If you want to use other AssertionErrors you can implement and {@link #set(ErrorFactory)} an own ErrorFactory.  
+ * If you want to use other AssertionErrors you can implement and {@link #set(ErrorFactory)} an own ErrorFactory
+ * or use it within a {@link Config.Scope}.  
  */
 public abstract class ErrorFactory
 {
 	/**
-	 * Returns the currently active ErrorFactory. 
+	 * Returns the currently active ErrorFactory of the {@link Config#get() current Config}. 
 	 * @return the ErrorFactory
 	 * @see #set(ErrorFactory)
 	 */
 	public static ErrorFactory get()
 	{
-		return current_;
+		return Config.get().getErrorFactory();
 	}
 
 	
 	/**
-	 * Sets the default ErrorFactory.
+	 * Sets the ErrorFactory of the {@link Config#getGlobal() global Config}.
 	 * @param value the new ErrorFactory object
 	 * @see #get() 
 	 */
 	public static void set(ErrorFactory value)
 	{
-		current_ = DDCheck.notNull(value, "ErrorFactory");
+		DDCheck.notNull(value, "ErrorFactory");
+		Config.setGlobal(c -> c.with(value));
 	}
 	
 	
@@ -220,8 +222,7 @@ public abstract class ErrorFactory
 	}
 	
 	
-	private static ErrorFactory current_;
-	static
+	static ErrorFactory createDefault()
 	{
 		ErrorFactory f = tryCreate(ErrorFactory.Opentest4j.class);
 		if (f == null)
@@ -230,7 +231,7 @@ public abstract class ErrorFactory
 			if (f == null)
 				f = new ErrorFactory.Default();
 		}
-		current_ = f;
+		return f;
 	}
 }
 
@@ -29,24 +29,25 @@ import java.util.List;
 public class ErrorFormat
 {
 	/**
-	 * Returns the currently active ErrorFormat. 
+	 * Returns the currently active ErrorFormat of the {@link Config#get() current Config}. 
 	 * @return the ErrorFormat
 	 * @see #set(ErrorFormat)
 	 */
 	public static ErrorFormat get()
 	{
-		return current_;
+		return Config.get().getErrorFormat();
 	}
 	
 	
 	/**
-	 * Sets the current ErrorFormat.
+	 * Sets the ErrorFormat of the {@link Config#getGlobal() global Config}.
 	 * @param value the new ErrorFormat
 	 * @see #get() 
 	 */
 	public static void set(ErrorFormat value)
 	{
-		current_ = DDCheck.notNull(value, "value");
+		DDCheck.notNull(value, "value");
+		Config.setGlobal(c -> c.with(value));
 	}
 	
 
@@ -75,7 +76,4 @@ public class ErrorFormat
 	{
 		return "default";
 	}
-
-	
-	private static ErrorFormat current_ = new ErrorFormat();
 }
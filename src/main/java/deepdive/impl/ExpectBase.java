@@ -62,7 +62,19 @@ public interface ExpectBase
 	
 	
 	/**
-	 * Recursively adds all contexts from an ExpectBase and its ancestors
+	 * Returns the {@link #getContext() context} of this ExpectBase, but allows to build its String
+	 * only when it is needed, e.g. when a deferred assertion error of soft mode is reported.
+	 * The default implementation returns {@link #getContext()}.
+	 * @return the context
+	 */
+	public default CharSequence captureContext()
+	{
+		return getContext();
+	}
+	
+	
+	/**
+	 * Recursively adds all {@link #captureContext() captured contexts} from an ExpectBase and its ancestors
 	 * to the list
 	 * @param object ignore if not an ExpectBase
 	 * @param list receives the contexts 
@@ -73,7 +85,7 @@ public interface ExpectBase
 		{
 			ExpectBase base = (ExpectBase)object;
 			addContexts(base.backOrNull(), list);
-			CharSequence context = base.getContext();
+			CharSequence context = base.captureContext();
 			if (context != null)
 				list.accept(context);
 		}
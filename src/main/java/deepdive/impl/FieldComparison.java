@@ -0,0 +1,595 @@
+/*
+ * Copyright (c) 2021 jdlib, https://github.com/jdlib
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package deepdive.impl;
+
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedSet;
+
+
+/**
+ * FieldComparison compares two objects field by field, also if their class
+ * does not implement equals():
+ * <ul>
+ * <li>values of JDK classes (e.g. Strings, numbers, enums, dates) are compared by equals()
+ * <li>arrays, lists, sorted sets and other collections of the same class are compared element by element,
+ * 	   maps value by value and present optionals by their values
+ * <li>elements of other sets are matched in any order: Each expected element must equal a different
+ * 	   actual element field by field. The path of set elements is <code>tags[]</code>
+ * <li>objects of other classes are compared by recursively comparing all their
+ * 	   non static fields, including inherited fields. Both objects must have the same class.
+ * </ul>
+ * Object graphs which contain cycles are supported: A pair of objects is only compared once.
+ * Nested values are compared using an explicit work stack, therefore deeply linked structures
+ * do not overflow the call stack. Sets nested deeper than {@value #MAX_SET_DEPTH} levels
+ * are compared by equals().
+ * A FieldComparison is immutable. Fields can be ignored by their path, e.g. <code>address.zip</code>
+ * or <code>items[0].id</code>, and values of certain types can be compared by a Comparator.<p>
+ * The fields of a class are looked up once and cached as MethodHandles.
+ */
+public final class FieldComparison
+{
+	/**
+	 * A FieldComparison which does not ignore fields and does not use comparators.
+	 */
+	public static final FieldComparison DEFAULT = new FieldComparison(Collections.emptySet(), Collections.emptyList());
+
+
+	/**
+	 * The maximum nesting depth of unordered sets whose elements are matched field by field.
+	 */
+	public static final int MAX_SET_DEPTH = 32;
+
+
+	private FieldComparison(Set<String> ignored, List<Pair<Class<?>,Comparator<?>>> comparators)
+	{
+		ignored_ 	 = ignored;
+		comparators_ = comparators;
+		int maxLength = -1;
+		for (String path : ignored)
+			maxLength = Math.max(maxLength, path.length());
+		maxIgnoredLength_ = maxLength;
+	}
+
+
+	/**
+	 * Returns a FieldComparison which equals this FieldComparison but ignores the given fields.
+	 * @param paths the paths of the fields, e.g. <code>name</code>, <code>address.zip</code> or <code>items[0].id</code>
+	 * @return the new FieldComparison
+	 */
+	public FieldComparison ignoring(String... paths)
+	{
+		DDCheck.notNull(paths, "paths");
+		Set<String> ignored = new HashSet<>(ignored_);
+		ignored.addAll(Arrays.asList(paths));
+		return new FieldComparison(Collections.unmodifiableSet(ignored), comparators_);
+	}
+
+
+	/**
+	 * Returns a FieldComparison which equals this FieldComparison but compares values
+	 * of the given type with the comparator. Values are equal if the comparator returns 0.
+	 * Comparators are tried in the order of their registration.
+	 * @param type the type of the values
+	 * @param comparator the comparator
+	 * @param <T> the type of the values
+	 * @return the new FieldComparison
+	 */
+	public <T> FieldComparison comparing(Class<T> type, Comparator<? super T> comparator)
+	{
+		DDCheck.notNull(type, "type");
+		DDCheck.notNull(comparator, "comparator");
+		List<Pair<Class<?>,Comparator<?>>> comparators = new ArrayList<>(comparators_);
+		comparators.add(new Pair<>(type, comparator));
+		return new FieldComparison(ignored_, Collections.unmodifiableList(comparators));
+	}
+
+
+	/**
+	 * Returns if the objects are equal field by field.
+	 * @param expected the expected object
+	 * @param actual the actual object
+	 * @return are they equal?
+	 */
+	public boolean equal(Object expected, Object actual)
+	{
+		return compare(expected, actual, null, 0) == 0;
+	}
+
+
+	/**
+	 * Compares the objects field by field.
+	 * @param expected the expected object
+	 * @param actual the actual object
+	 * @param mismatches if not null receives the first found mismatches. If null the comparison
+	 * 		stops at the first mismatch.
+	 * @param maxMismatches the maximum number of mismatches added to the list
+	 * @return the number of mismatches
+	 */
+	public int compare(Object expected, Object actual, List<Mismatch> mismatches, int maxMismatches)
+	{
+		Walk walk = new Walk(mismatches, maxMismatches, 0);
+		walk.run(FieldPath.ROOT, expected, actual);
+		return walk.count_;
+	}
+
+
+	/**
+	 * Describes a pair of values which are not equal.
+	 */
+	public static final class Mismatch
+	{
+		public Mismatch(String path, Object expected, Object actual)
+		{
+			this.path 		= path;
+			this.expected	= expected;
+			this.actual		= actual;
+		}
+
+
+		@Override public String toString()
+		{
+			return path + ": " + expected + " != " + actual;
+		}
+
+
+		/**
+		 * The path of the values, e.g. <code>address.zip</code>, or the empty string for the compared objects.
+		 */
+		public final String path;
+		public final Object expected;
+		public final Object actual;
+	}
+
+
+	private class Walk
+	{
+		public Walk(List<Mismatch> mismatches, int maxMismatches, int setDepth)
+		{
+			mismatches_		= mismatches;
+			maxMismatches_	= maxMismatches;
+			setDepth_		= setDepth;
+		}
+
+
+		/**
+		 * Compares the objects. Nested values are not compared recursively but pushed
+		 * onto the work stack, so that long linked structures cannot overflow the call stack.
+		 */
+		public void run(FieldPath path, Object expected, Object actual)
+		{
+			compare(path, expected, actual);
+			while (!stack_.isEmpty() && !done())
+				stack_.pop().run();
+		}
+
+
+		private boolean done()
+		{
+			return (mismatches_ == null) && (count_ > 0);
+		}
+
+
+		private boolean ignored(FieldPath path)
+		{
+			// only build the path string if it can be ignored at all
+			return (path.length <= maxIgnoredLength_) && ignored_.contains(path.toString());
+		}
+
+
+		private void mismatch(FieldPath path, Object expected, Object actual)
+		{
+			if ((mismatches_ != null) && (mismatches_.size() < maxMismatches_))
+				mismatches_.add(new Mismatch(path.toString(), expected, actual));
+			count_++;
+		}
+
+
+		private void compare(FieldPath path, Object expected, Object actual)
+		{
+			if ((expected == actual) || ignored(path))
+				return;
+			if ((expected == null) || (actual == null))
+			{
+				mismatch(path, expected, actual);
+				return;
+			}
+
+			Comparator<Object> comparator = comparator(expected, actual);
+			if (comparator != null)
+			{
+				if (comparator.compare(expected, actual) != 0)
+					mismatch(path, expected, actual);
+			}
+			else if (Value.isArray(expected) && Value.isArray(actual) &&
+				!expected.getClass().getComponentType().isPrimitive() && !actual.getClass().getComponentType().isPrimitive())
+				compareElems(path, expected, Arrays.asList((Object[])expected), actual, Arrays.asList((Object[])actual));
+			else if ((expected instanceof List) && (actual instanceof List))
+				compareElems(path, expected, (List<?>)expected, actual, (List<?>)actual);
+			else if ((expected instanceof SortedSet) && (actual instanceof SortedSet))
+				compareElems(path, expected, (SortedSet<?>)expected, actual, (SortedSet<?>)actual);
+			else if ((expected instanceof Set) && (actual instanceof Set))
+				compareSet(path, (Set<?>)expected, (Set<?>)actual);
+			else if ((expected instanceof Map) && (actual instanceof Map))
+				compareMap(path, (Map<?,?>)expected, (Map<?,?>)actual);
+			else if (expected.getClass() != actual.getClass())
+				mismatch(path, expected, actual);
+			else if (expected instanceof Collection)
+				compareElems(path, expected, (Collection<?>)expected, actual, (Collection<?>)actual);
+			else if (expected instanceof Optional)
+				compareOptional(path, (Optional<?>)expected, (Optional<?>)actual);
+			else
+			{
+				FieldAccessor[] fields = FIELDS.get(expected.getClass());
+				if (fields == null)
+				{
+					if (!Value.equal(expected, actual))
+						mismatch(path, expected, actual);
+				}
+				else if (visited_.add(new IdentityPair(expected, actual)))
+					stack_.push(() -> compareFields(path, fields, 0, expected, actual));
+			}
+		}
+
+
+		private void compareFields(FieldPath path, FieldAccessor[] fields, int index, Object expected, Object actual)
+		{
+			if (index < fields.length)
+			{
+				stack_.push(() -> compareFields(path, fields, index + 1, expected, actual));
+				FieldAccessor field = fields[index];
+				compare(path.field(field.name), field.get(expected), field.get(actual));
+			}
+		}
+
+
+		private void compareElems(FieldPath path, Object expected, Collection<?> expecteds, Object actual, Collection<?> actuals)
+		{
+			if (!visited_.add(new IdentityPair(expected, actual)))
+				return;
+			if (expecteds.size() != actuals.size())
+			{
+				// runs after the elements have been compared
+				stack_.push(() -> mismatch(path.field("size"), Integer.valueOf(expecteds.size()), Integer.valueOf(actuals.size())));
+			}
+			Iterator<?> itE = expecteds.iterator();
+			Iterator<?> itA = actuals.iterator();
+			stack_.push(() -> compareElems(path, itE, itA, 0));
+		}
+
+
+		private void compareElems(FieldPath path, Iterator<?> itE, Iterator<?> itA, int index)
+		{
+			if (itE.hasNext() && itA.hasNext())
+			{
+				Object expected = itE.next();
+				Object actual 	= itA.next();
+				stack_.push(() -> compareElems(path, itE, itA, index + 1));
+				compare(path.elem(String.valueOf(index)), expected, actual);
+			}
+		}
+
+
+		private void compareSet(FieldPath path, Set<?> expected, Set<?> actual)
+		{
+			if (!visited_.add(new IdentityPair(expected, actual)))
+				return;
+			FieldPath elemPath = path.elem("");
+			if (ignored(elemPath))
+				return;
+			if (setDepth_ >= MAX_SET_DEPTH)
+			{
+				if (!expected.equals(actual))
+					mismatch(path, expected, actual);
+				return;
+			}
+
+			// match every expected element with an actual element which equals field by field
+			List<Object> unmatched = new ArrayList<>(actual);
+			for (Object e : expected)
+			{
+				if (done())
+					return;
+				int index = indexOfMatch(elemPath, e, unmatched);
+				if (index >= 0)
+					unmatched.remove(index);
+				else
+					mismatch(elemPath, e, "(missing)");
+			}
+			for (Object a : unmatched)
+			{
+				if (done())
+					return;
+				mismatch(elemPath, "(missing)", a);
+			}
+		}
+
+
+		private int indexOfMatch(FieldPath elemPath, Object expected, List<Object> actuals)
+		{
+			int n = actuals.size();
+			for (int i=0; i<n; i++)
+			{
+				if (actuals.get(i) == expected)
+					return i;
+			}
+			for (int i=0; i<n; i++)
+			{
+				Walk walk = new Walk(null, 0, setDepth_ + 1);
+				walk.run(elemPath, expected, actuals.get(i));
+				if (walk.count_ == 0)
+					return i;
+			}
+			return -1;
+		}
+
+
+		private void compareOptional(FieldPath path, Optional<?> expected, Optional<?> actual)
+		{
+			if (expected.isPresent() && actual.isPresent())
+				stack_.push(() -> compare(path, expected.get(), actual.get()));
+			else if (expected.isPresent() != actual.isPresent())
+				mismatch(path, expected, actual);
+		}
+
+
+		private void compareMap(FieldPath path, Map<?,?> expected, Map<?,?> actual)
+		{
+			if (!visited_.add(new IdentityPair(expected, actual)))
+				return;
+			// runs after the entries of the expected map have been compared
+			stack_.push(() -> compareMissingKeys(path, expected, actual));
+			Iterator<? extends Map.Entry<?,?>> itE = expected.entrySet().iterator();
+			stack_.push(() -> compareEntries(path, itE, actual));
+		}
+
+
+		private void compareEntries(FieldPath path, Iterator<? extends Map.Entry<?,?>> itE, Map<?,?> actual)
+		{
+			while (itE.hasNext())
+			{
+				Map.Entry<?,?> entry = itE.next();
+				FieldPath entryPath = path.elem(String.valueOf(entry.getKey()));
+				if (actual.containsKey(entry.getKey()))
+				{
+					stack_.push(() -> compareEntries(path, itE, actual));
+					compare(entryPath, entry.getValue(), actual.get(entry.getKey()));
+					return;
+				}
+				else if (!ignored(entryPath))
+				{
+					mismatch(entryPath, entry.getValue(), "(missing)");
+					if (done())
+						return;
+				}
+			}
+		}
+
+
+		private void compareMissingKeys(FieldPath path, Map<?,?> expected, Map<?,?> actual)
+		{
+			for (Map.Entry<?,?> entry : actual.entrySet())
+			{
+				FieldPath entryPath = path.elem(String.valueOf(entry.getKey()));
+				if (!expected.containsKey(entry.getKey()) && !ignored(entryPath) && !done())
+					mismatch(entryPath, "(missing)", entry.getValue());
+			}
+		}
+
+
+		@SuppressWarnings("unchecked")
+		private Comparator<Object> comparator(Object expected, Object actual)
+		{
+			for (Pair<Class<?>,Comparator<?>> pair : comparators_)
+			{
+				if (pair.v1.isInstance(expected) && pair.v1.isInstance(actual))
+					return (Comparator<Object>)pair.v2;
+			}
+			return null;
+		}
+
+
+		private final List<Mismatch> mismatches_;
+		private final int maxMismatches_;
+		private final int setDepth_;
+		private final Set<IdentityPair> visited_ = new HashSet<>();
+		private final Deque<Runnable> stack_ = new ArrayDeque<>();
+		private int count_;
+	}
+
+
+	/**
+	 * A path of a compared value. The path string is only built when needed,
+	 * since building it for every value of a long linked structure would take quadratic time.
+	 */
+	private static class FieldPath
+	{
+		public static final FieldPath ROOT = new FieldPath(null, "");
+
+
+		private FieldPath(FieldPath parent, String segment)
+		{
+			parent_  = parent;
+			segment_ = segment;
+			length	 = (parent != null ? parent.length : 0) + segment.length();
+		}
+
+
+		public FieldPath field(String name)
+		{
+			return new FieldPath(this, length == 0 ? name : '.' + name);
+		}
+
+
+		public FieldPath elem(String index)
+		{
+			return new FieldPath(this, '[' + index + ']');
+		}
+
+
+		@Override public String toString()
+		{
+			char[] chars = new char[length];
+			int end = length;
+			for (FieldPath p = this; p != null; p = p.parent_)
+			{
+				end -= p.segment_.length();
+				p.segment_.getChars(0, p.segment_.length(), chars, end);
+			}
+			return new String(chars);
+		}
+
+
+		public final int length;
+		private final FieldPath parent_;
+		private final String segment_;
+	}
+
+
+	private static class IdentityPair
+	{
+		public IdentityPair(Object expected, Object actual)
+		{
+			expected_	= expected;
+			actual_		= actual;
+		}
+
+
+		@Override public boolean equals(Object other)
+		{
+			if (!(other instanceof IdentityPair))
+				return false;
+			IdentityPair pair = (IdentityPair)other;
+			return (expected_ == pair.expected_) && (actual_ == pair.actual_);
+		}
+
+
+		@Override public int hashCode()
+		{
+			return 31 * System.identityHashCode(expected_) + System.identityHashCode(actual_);
+		}
+
+
+		private final Object expected_;
+		private final Object actual_;
+	}
+
+
+	private static class FieldAccessor
+	{
+		public FieldAccessor(Field field) throws IllegalAccessException
+		{
+			name	= field.getName();
+			getter_	= MethodHandles.lookup().unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class));
+		}
+
+
+		public Object get(Object object)
+		{
+			try
+			{
+				return getter_.invokeExact(object);
+			}
+			catch (RuntimeException | Error e)
+			{
+				throw e;
+			}
+			catch (Throwable t)
+			{
+				throw new IllegalStateException(t);
+			}
+		}
+
+
+		public final String name;
+		private final MethodHandle getter_;
+	}
+
+
+	/**
+	 * Returns the field accessors of a class or null if objects of the class
+	 * should be compared by equals(), i.e. for JDK classes or if the fields are not accessible.
+	 */
+	private static final ClassValue<FieldAccessor[]> FIELDS = new ClassValue<FieldAccessor[]>()
+	{
+		@Override protected FieldAccessor[] computeValue(Class<?> type)
+		{
+			if (type.isPrimitive() || type.isArray() || type.isEnum() || isJdkClass(type))
+				return null;
+			try
+			{
+				List<FieldAccessor> accessors = new ArrayList<>();
+				for (Class<?> c = type; (c != null) && (c != Object.class); c = c.getSuperclass())
+				{
+					if (isJdkClass(c))
+						return null;
+					List<FieldAccessor> declared = new ArrayList<>();
+					for (Field field : c.getDeclaredFields())
+					{
+						if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic())
+						{
+							field.setAccessible(true);
+							declared.add(new FieldAccessor(field));
+						}
+					}
+					// fields of super classes first
+					accessors.addAll(0, declared);
+				}
+				return accessors.toArray(new FieldAccessor[accessors.size()]);
+			}
+			catch (RuntimeException | IllegalAccessException e)
+			{
+				// e.g. InaccessibleObjectException: fall back to equals()
+				return null;
+			}
+		}
+	};
+
+
+	private static boolean isJdkClass(Class<?> type)
+	{
+		String name = type.getName();
+		return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.") || name.startsWith("sun.");
+	}
+
+
+	@Override public String toString()
+	{
+		return "ignoring " + ignored_ + ", " + comparators_.size() + " comparator(s)";
+	}
+
+
+	private final Set<String> ignored_;
+	private final List<Pair<Class<?>,Comparator<?>>> comparators_;
+	private final int maxIgnoredLength_;
+}
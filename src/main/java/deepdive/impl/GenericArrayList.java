@@ -18,12 +18,13 @@ package deepdive.impl;
 
 import java.lang.reflect.Array;
 import java.util.AbstractList;
+import java.util.RandomAccess;
 
 
 /**
  * GenericArrayList presents an Object or primitive array as List.  
  */
-class GenericArrayList extends AbstractList<Object>
+class GenericArrayList extends AbstractList<Object> implements RandomAccess
 {
 	public GenericArrayList(Object array)
 	{
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2021 jdlib, https://github.com/jdlib
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package deepdive.impl;
+
+
+import java.util.Iterator;
+
+
+/**
+ * IteratorMismatch describes the first position where two iterators
+ * return different elements, or where one iterator ends before the other.
+ * The iterators are compared in lockstep, therefore no elements are collected.
+ */
+public final class IteratorMismatch
+{
+	/**
+	 * Compares the elements of two iterators with {@link Value#equal(Object, Object)}
+	 * and stops at the first mismatch.
+	 * @param expected the iterator returning the expected elements
+	 * @param actual the iterator returning the actual elements
+	 * @return the mismatch or null if the iterators return equal elements
+	 */
+	public static IteratorMismatch find(Iterator<?> expected, Iterator<?> actual)
+	{
+		DDCheck.notNull(expected, "expected");
+		DDCheck.notNull(actual, "actual");
+		for (long index=0; ; index++)
+		{
+			boolean expectedHasNext = expected.hasNext();
+			boolean actualHasNext	= actual.hasNext();
+			if (!expectedHasNext && !actualHasNext)
+				return null;
+			if (!expectedHasNext)
+				return new IteratorMismatch(index, null, false, actual.next(), true);
+			if (!actualHasNext)
+				return new IteratorMismatch(index, expected.next(), true, null, false);
+			Object e = expected.next();
+			Object a = actual.next();
+			if (!Value.equal(e, a))
+				return new IteratorMismatch(index, e, true, a, true);
+		}
+	}
+	
+	
+	/**
+	 * Creates a new IteratorMismatch.
+	 * @param index the index of the mismatch
+	 * @param expected the expected element
+	 * @param hasExpected false if the expected elements ended before the index
+	 * @param actual the actual element
+	 * @param hasActual false if the actual elements ended before the index
+	 */
+	public IteratorMismatch(long index, Object expected, boolean hasExpected, Object actual, boolean hasActual)
+	{
+		this.index			= index;
+		this.expected		= expected;
+		this.hasExpected	= hasExpected;
+		this.actual			= actual;
+		this.hasActual		= hasActual;
+	}
+
+
+	@Override public String toString()
+	{
+		return "[" + index + "]: " + (hasExpected ? expected : "end") + " != " + (hasActual ? actual : "end");
+	}
+
+
+	/**
+	 * The index of the mismatch.
+	 */
+	public final long index;
+	
+	/**
+	 * The expected element at the index.
+	 */
+	public final Object expected;
+	
+	/**
+	 * False if the expected elements ended before the index.
+	 */
+	public final boolean hasExpected;
+	
+	/**
+	 * The actual element at the index.
+	 */
+	public final Object actual;
+	
+	/**
+	 * False if the actual elements ended before the index.
+	 */
+	public final boolean hasActual;
+}
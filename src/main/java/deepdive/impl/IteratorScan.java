@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2021 jdlib, https://github.com/jdlib
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package deepdive.impl;
+
+
+import java.util.Iterator;
+import java.util.function.Predicate;
+
+
+/**
+ * IteratorScan describes the element where a scan over an iterator stopped.
+ * The scans stop as early as possible, and no elements are collected.
+ */
+public final class IteratorScan
+{
+	/**
+	 * Scans for the first element whose predicate result differs from the expected result.
+	 * @param it the iterator
+	 * @param predicate a predicate
+	 * @param expected the expected result of the predicate, i.e. true to check that all elements match
+	 * 		and false to check that no element matches 
+	 * @param <T> the element type
+	 * @return the scan. If {@link #found} it holds the first offending element and its index.
+	 */
+	public static <T> IteratorScan match(Iterator<T> it, Predicate<? super T> predicate, boolean expected)
+	{
+		DDCheck.notNull(it, "it");
+		DDCheck.notNull(predicate, "predicate");
+		for (long index=0; it.hasNext(); index++)
+		{
+			T elem = it.next();
+			if (predicate.test(elem) != expected)
+				return new IteratorScan(index, elem, true);
+		}
+		return NOT_FOUND;
+	}
+	
+	
+	/**
+	 * Counts the elements, but stops after the first element above the limit.
+	 * @param it the iterator
+	 * @param limit the limit
+	 * @return the scan. {@link #index} holds the number of elements counted, and 
+	 * 		if {@link #found} {@link #elem} holds the first element above the limit.
+	 */
+	public static IteratorScan count(Iterator<?> it, long limit)
+	{
+		DDCheck.notNull(it, "it");
+		long count = 0;
+		while (it.hasNext())
+		{
+			Object elem = it.next();
+			if (count++ >= limit)
+				return new IteratorScan(count, elem, true);
+		}
+		return new IteratorScan(count, null, false);
+	}
+
+	
+	private IteratorScan(long index, Object elem, boolean found)
+	{
+		this.index	= index;
+		this.elem	= elem;
+		this.found	= found;
+	}
+
+
+	@Override public String toString()
+	{
+		return found ? "[" + index + "]: " + elem : "[" + index + "]: not found";
+	}
+
+
+	private static final IteratorScan NOT_FOUND = new IteratorScan(-1, null, false); 
+	
+	/**
+	 * The index of the element, or the number of counted elements.
+	 */
+	public final long index;
+	
+	/**
+	 * The element where the scan stopped.
+	 */
+	public final Object elem;
+	
+	/**
+	 * True if the scan stopped at an element.
+	 */
+	public final boolean found;
+}
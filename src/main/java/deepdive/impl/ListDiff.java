@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2021 jdlib, https://github.com/jdlib
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package deepdive.impl;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+
+/**
+ * ListDiff computes a minimal edit script which turns an expected list
+ * into an actual list, using the O(ND) difference algorithm of E. Myers.
+ * The script is returned as a list of {@link Hunk Hunks}. Elements outside of the
+ * hunks are equal and appear in the same order in both lists.<p>
+ * Common prefixes and suffixes are stripped in linear time before the
+ * algorithm runs. If the edit distance of the remaining elements exceeds a maximum,
+ * they are reported as a single hunk instead.
+ */
+final class ListDiff
+{
+	/**
+	 * A Hunk describes a range of expected elements which were replaced by
+	 * a range of actual elements. One of the ranges can be empty.
+	 */
+	static final class Hunk
+	{
+		Hunk(int expectedStart, int expectedEnd, int actualStart, int actualEnd)
+		{
+			this.expectedStart	= expectedStart;
+			this.expectedEnd	= expectedEnd;
+			this.actualStart	= actualStart;
+			this.actualEnd		= actualEnd;
+		}
+
+
+		public int expectedLength()
+		{
+			return expectedEnd - expectedStart;
+		}
+
+
+		public int actualLength()
+		{
+			return actualEnd - actualStart;
+		}
+
+
+		@Override public String toString()
+		{
+			return "[" + expectedStart + ',' + expectedEnd + ")->[" + actualStart + ',' + actualEnd + ')';
+		}
+
+
+		public final int expectedStart;
+		public final int expectedEnd;
+		public final int actualStart;
+		public final int actualEnd;
+	}
+
+
+	/**
+	 * Returns the hunks which describe the difference of two lists.
+	 * @param expected the expected list
+	 * @param actual the actual list
+	 * @param maxEditDistance the maximum number of inserted and deleted elements for which
+	 * 		a minimal edit script is computed
+	 * @return the hunks, empty if the lists are equal
+	 */
+	public static List<Hunk> compute(List<?> expected, List<?> actual, int maxEditDistance)
+	{
+		return compute(expected, actual, 0, maxEditDistance);
+	}
+
+
+	/**
+	 * Returns the hunks which describe the difference of two lists
+	 * whose first elements are known to be equal.
+	 * @param expected the expected list
+	 * @param actual the actual list
+	 * @param start the number of leading elements which are equal in both lists
+	 * @param maxEditDistance the maximum number of inserted and deleted elements for which
+	 * 		a minimal edit script is computed
+	 * @return the hunks, empty if the lists are equal
+	 */
+	public static List<Hunk> compute(List<?> expected, List<?> actual, int start, int maxEditDistance)
+	{
+		ListDiff diff = new ListDiff(randomAccess(expected), randomAccess(actual));
+		diff.start_ = start;
+		return diff.compute(maxEditDistance);
+	}
+
+
+	private static List<?> randomAccess(List<?> list)
+	{
+		return list instanceof RandomAccess ? list : new ArrayList<>(list);
+	}
+
+
+	private ListDiff(List<?> expected, List<?> actual)
+	{
+		expected_	= expected;
+		actual_		= actual;
+	}
+
+
+	private List<Hunk> compute(int maxEditDistance)
+	{
+		int expectedEnd	= expected_.size();
+		int actualEnd	= actual_.size();
+		while ((start_ < expectedEnd) && (start_ < actualEnd) && equal(start_, start_))
+			start_++;
+		while ((expectedEnd > start_) && (actualEnd > start_) && equal(expectedEnd - 1, actualEnd - 1))
+		{
+			expectedEnd--;
+			actualEnd--;
+		}
+
+		int n = expectedEnd - start_;
+		int m = actualEnd - start_;
+		List<Hunk> hunks = new ArrayList<>();
+		if ((n == 0) && (m == 0))
+			return hunks;
+		if ((n == 0) || (m == 0) || !computeEdits(n, m, maxEditDistance))
+		{
+			hunks.add(new Hunk(start_, expectedEnd, start_, actualEnd));
+			return hunks;
+		}
+
+		// the edits mark deleted expected and inserted actual elements; all other
+		// elements form the common subsequence which separates the hunks
+		int e = 0, a = 0;
+		while ((e < n) || (a < m))
+		{
+			if (((e < n) && deleted_[e]) || ((a < m) && inserted_[a]))
+			{
+				int e0 = e, a0 = a;
+				while ((e < n) && deleted_[e])
+					e++;
+				while ((a < m) && inserted_[a])
+					a++;
+				hunks.add(new Hunk(start_ + e0, start_ + e, start_ + a0, start_ + a));
+			}
+			else
+			{
+				e++;
+				a++;
+			}
+		}
+		return hunks;
+	}
+
+
+	/**
+	 * Runs the greedy forward search of the Myers algorithm and
+	 * backtracks the shortest path to record deleted and inserted elements.
+	 * @return false if the edit distance exceeds the maximum
+	 */
+	private boolean computeEdits(int n, int m, int maxEditDistance)
+	{
+		int max 	= Math.min(n + m, maxEditDistance);
+		int offset	= max + 1;
+		int[] v 	= new int[2 * max + 3];
+		// trace.get(d) holds the furthest x for the diagonals k = -d .. d after step d
+		List<int[]> trace = new ArrayList<>();
+		for (int d=0; d<=max; d++)
+		{
+			for (int k=-d; k<=d; k+=2)
+			{
+				int x = (k == -d) || ((k != d) && (v[offset + k - 1] < v[offset + k + 1])) ?
+					v[offset + k + 1] :
+					v[offset + k - 1] + 1;
+				int y = x - k;
+				while ((x < n) && (y < m) && equal(start_ + x, start_ + y))
+				{
+					x++;
+					y++;
+				}
+				v[offset + k] = x;
+				if ((x >= n) && (y >= m))
+				{
+					backtrack(trace, d, n, m);
+					return true;
+				}
+			}
+			trace.add(Arrays.copyOfRange(v, offset - d, offset + d + 1));
+		}
+		return false;
+	}
+
+
+	private void backtrack(List<int[]> trace, int distance, int n, int m)
+	{
+		deleted_  = new boolean[n];
+		inserted_ = new boolean[m];
+		int x = n;
+		int y = m;
+		for (int d=distance; d>0; d--)
+		{
+			int[] prev 	 = trace.get(d - 1);
+			int k 		 = x - y;
+			boolean down = (k == -d) || ((k != d) && (prev[k - 1 + d - 1] < prev[k + 1 + d - 1]));
+			int prevK	 = down ? k + 1 : k - 1;
+			int prevX	 = prev[prevK + d - 1];
+			int prevY	 = prevX - prevK;
+			if (down)
+				inserted_[prevY] = true;
+			else
+				deleted_[prevX] = true;
+			x = prevX;
+			y = prevY;
+		}
+	}
+
+
+	private boolean equal(int expectedIndex, int actualIndex)
+	{
+		return Value.equal(expected_.get(expectedIndex), actual_.get(actualIndex));
+	}
+
+
+	private final List<?> expected_;
+	private final List<?> actual_;
+	private int start_;
+	private boolean[] deleted_;
+	private boolean[] inserted_;
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2021 jdlib, https://github.com/jdlib
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package deepdive.impl;
+
+
+import java.util.Comparator;
+import java.util.Iterator;
+
+
+/**
+ * Order describes an order of a sequence of elements which is checked in a single pass
+ * over the elements, stopping at the first pair of adjacent elements which violates the order.
+ */
+public enum Order
+{
+	/**
+	 * Each element is greater than or equal to its predecessor.
+	 */
+	SORTED("sorted"),
+
+	/**
+	 * Each element is greater than its predecessor.
+	 */
+	STRICTLY_INCREASING("strictly increasing"),
+
+	/**
+	 * The elements are either sorted in ascending or in descending order.
+	 */
+	MONOTONIC("monotonic");
+	
+	
+	private Order(String description)
+	{
+		description_ = description;
+	}
+	
+	
+	/**
+	 * Returns the natural order of Comparable elements.
+	 * @return the comparator 
+	 * @param <T> the element type
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static <T> Comparator<T> natural()
+	{
+		return (Comparator)Comparator.naturalOrder();
+	}
+	
+	
+	/**
+	 * Returns if the comparison result of two adjacent elements violates the order.
+	 * The direction of a monotonic order is given by the sign of the first comparison result which is not 0.
+	 * @param c the result of comparing an element with its successor
+	 * @param direction 0 if not known yet, else the sign of the first comparison result which is not 0
+	 * @return the violation flag
+	 */
+	public boolean violatedBy(int c, int direction)
+	{
+		switch (this)
+		{
+			case SORTED:				return c > 0;
+			case STRICTLY_INCREASING:	return c >= 0;
+			default:					return (direction != 0) && (Integer.signum(c) == -direction);
+		}
+	}
+	
+	
+	/**
+	 * Returns the first pair of adjacent elements which violates the order.
+	 * @param it an iterator of the elements
+	 * @param comparator compares the elements
+	 * @return the violation or null if the elements have the order
+	 * @param <T> the element type
+	 */
+	public <T> Violation find(Iterator<? extends T> it, Comparator<? super T> comparator)
+	{
+		DDCheck.notNull(it, "it");
+		DDCheck.notNull(comparator, "comparator");
+		if (!it.hasNext())
+			return null;
+		T prev = it.next();
+		int direction = 0;
+		for (long index=0; it.hasNext(); index++)
+		{
+			T next = it.next();
+			int c = comparator.compare(prev, next);
+			if (violatedBy(c, direction))
+				return new Violation(index, prev, next);
+			if (direction == 0)
+				direction = Integer.signum(c);
+			prev = next;
+		}
+		return null;
+	}
+	
+	
+	@Override public String toString()
+	{
+		return description_;
+	}
+	
+
+	/**
+	 * A pair of adjacent elements which violates an order.
+	 */
+	public static final class Violation
+	{
+		public Violation(long index, Object elem1, Object elem2)
+		{
+			this.index = index;
+			this.elem1 = elem1;
+			this.elem2 = elem2;
+		}
+		
+		
+		/**
+		 * The index of the first element of the pair.
+		 */
+		public final long index;
+		public final Object elem1;
+		public final Object elem2;
+	}
+	
+	
+	private final String description_;
+}
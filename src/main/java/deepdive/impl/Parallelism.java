@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) 2021 jdlib, https://github.com/jdlib
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package deepdive.impl;
+
+
+import java.lang.reflect.Array;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Parallelism decides when the elements of large arrays and lists are compared in parallel.
+ * Arrays and random access lists whose length reaches the threshold are split into ranges
+ * which are searched for the first mismatch by ForkJoin tasks of the common pool. 
+ * Ranges after an already found mismatch are skipped, and the smallest mismatching index is returned, 
+ * i.e. the result equals the result of a sequential search.
+ * The same search checks the {@link Order} of large primitive arrays, 
+ * e.g. in {@link deepdive.actual.java.lang.IntArrayActual#isSorted() IntArrayActual.isSorted()}.<p>
+ * {@link Value#equal(Object, Object)} and {@link Value#arraysEqual(Object, Object, boolean)} use 
+ * the currently used Parallelism, therefore also the elems() assertions of list and array Actuals.
+ * If you want to adjust the threshold, set the Parallelism via {@link #set(Parallelism)}.
+ */
+public final class Parallelism
+{
+	/**
+	 * The default threshold.
+	 */
+	public static final int DEFAULT_THRESHOLD = 1 << 20;
+	
+	
+	/**
+	 * A Parallelism which compares in parallel if the length reaches {@link #DEFAULT_THRESHOLD}. 
+	 */
+	public static final Parallelism DEFAULT = new Parallelism(DEFAULT_THRESHOLD);
+
+	
+	/**
+	 * A Parallelism which always compares sequentially. 
+	 */
+	public static final Parallelism NONE = new Parallelism(Integer.MAX_VALUE);
+
+	
+	/**
+	 * Returns the currently active Parallelism of the {@link Config#get() current Config}.
+	 * @return the Parallelism
+	 * @see #set(Parallelism)
+	 */
+	public static Parallelism get()
+	{
+		return Config.get().getParallelism();
+	}
+
+
+	/**
+	 * Sets the Parallelism of the {@link Config#getGlobal() global Config}.
+	 * @param value the new Parallelism
+	 * @see #get()
+	 */
+	public static void set(Parallelism value)
+	{
+		DDCheck.notNull(value, "value");
+		Config.setGlobal(c -> c.with(value));
+	}
+
+	
+	private Parallelism(int threshold)
+	{
+		threshold_ = DDCheck.positive(threshold, "threshold");
+	}
+	
+	
+	/**
+	 * Returns a Parallelism which compares in parallel if the length reaches the threshold. 
+	 * @param threshold the threshold, must be &gt; 0
+	 * @return the new Parallelism
+	 */
+	public Parallelism withThreshold(int threshold)
+	{
+		return new Parallelism(threshold);
+	}
+
+	
+	public int getThreshold()
+	{
+		return threshold_;
+	}
+
+	
+	/**
+	 * Returns if arrays or lists with the given length are compared in parallel.
+	 * @param length the length
+	 * @return the parallel flag
+	 */
+	public boolean isParallel(int length)
+	{
+		return length >= threshold_;
+	}
+	
+	
+	/**
+	 * Returns the index of the first mismatch of two arrays.
+	 * Primitive elements are compared like {@link java.util.Arrays#equals(double[], double[]) Arrays.equals},
+	 * other elements like {@link java.util.Arrays#deepEquals(Object[], Object[]) Arrays.deepEquals}.
+	 * @param expected the expected array
+	 * @param actual the actual array
+	 * @return the index of the first differing element, the length of the shorter array if it is a prefix
+	 * 		of the other array, or -1 if the arrays are equal
+	 * @throws IllegalArgumentException if the arrays are primitive arrays with different component types
+	 */
+	public int mismatch(Object expected, Object actual)
+	{
+		DDCheck.notNull(expected, "expected");
+		DDCheck.notNull(actual, "actual");
+		int length1 = Array.getLength(expected);
+		int length2 = Array.getLength(actual);
+		int length	= Math.min(length1, length2);
+		Range range;
+		if (expected.getClass().getComponentType().isPrimitive())
+		{
+			ArrayRanges ranges = ArrayRanges.of(expected, actual, null);
+			if (ranges == null)
+				throw new IllegalArgumentException("arrays have different component types");
+			range = ranges::nextDiff;
+		}
+		else
+		{
+			Object[] e = (Object[])expected, a = (Object[])actual;
+			range = (from, to) -> {
+				for (int i=from; i<to; i++)
+				{
+					if (!Objects.deepEquals(e[i], a[i]))
+						return i;
+				}
+				return -1;
+			};
+		}
+		return mismatch(range, length, length1 != length2);
+	}
+	
+	
+	/**
+	 * Returns the index of the first mismatch of two lists. 
+	 * Elements are compared by {@link Objects#equals(Object, Object)} like in {@link List#equals(Object)}.
+	 * Only {@link RandomAccess} lists are compared in parallel, other lists are iterated sequentially.
+	 * @param expected the expected list
+	 * @param actual the actual list
+	 * @return the index of the first differing element, the size of the shorter list if it is a prefix
+	 * 		of the other list, or -1 if the lists are equal
+	 */
+	public int mismatch(List<?> expected, List<?> actual)
+	{
+		DDCheck.notNull(expected, "expected");
+		DDCheck.notNull(actual, "actual");
+		int size1 = expected.size();
+		int size2 = actual.size();
+		int size  = Math.min(size1, size2);
+		if ((expected instanceof RandomAccess) && (actual instanceof RandomAccess))
+		{
+			Range range = (from, to) -> {
+				for (int i=from; i<to; i++)
+				{
+					if (!Objects.equals(expected.get(i), actual.get(i)))
+						return i;
+				}
+				return -1;
+			};
+			return mismatch(range, size, size1 != size2);
+		}
+		Iterator<?> itE = expected.iterator();
+		Iterator<?> itA = actual.iterator();
+		for (int i=0; i<size; i++)
+		{
+			if (!Objects.equals(itE.next(), itA.next()))
+				return i;
+		}
+		return size1 != size2 ? size : -1;
+	}
+	
+	
+	private int mismatch(Range range, int length, boolean differentLengths)
+	{
+		int index = search(range, length);
+		return (index < 0) && differentLengths ? length : index;
+	}
+	
+	
+	/**
+	 * Returns the smallest index between 0 and length which is found by a range search.
+	 * The range is split into subranges which are searched in parallel if the length reaches the threshold. 
+	 * @param range searches a subrange
+	 * @param length the length of the range
+	 * @return the smallest found index or -1
+	 */
+	public int search(Range range, int length)
+	{
+		DDCheck.notNull(range, "range");
+		if (!isParallel(length))
+			return range.search(0, length);
+		AtomicInteger found = new AtomicInteger(Integer.MAX_VALUE);
+		int chunk = Math.max(MIN_CHUNK, length / (4 * ForkJoinPool.getCommonPoolParallelism()));
+		ForkJoinPool.commonPool().invoke(new Search(range, 0, length, chunk, found));
+		return found.get() != Integer.MAX_VALUE ? found.get() : -1;
+	}
+	
+
+	@Override public String toString()
+	{
+		return threshold_ == Integer.MAX_VALUE ? "none" : "threshold=" + threshold_;
+	}
+
+	
+	/**
+	 * Searches a range of elements, e.g. for the first mismatch.
+	 */
+	@FunctionalInterface
+	public interface Range
+	{
+		/**
+		 * Returns the index of the first found element between from and to or -1.
+		 * @param from the start index
+		 * @param to the end index
+		 * @return the index or -1
+		 */
+		public int search(int from, int to);
+	}
+	
+	
+	/**
+	 * Splits a range until its length does not exceed the chunk size. 
+	 */
+	@SuppressWarnings("serial")
+	private static class Search extends RecursiveAction
+	{
+		public Search(Range range, int from, int to, int chunk, AtomicInteger found)
+		{
+			range_ 	= range;
+			from_	= from;
+			to_		= to;
+			chunk_	= chunk;
+			found_	= found;
+		}
+		
+		
+		@Override protected void compute()
+		{
+			// a mismatch was already found before this range
+			if (from_ >= found_.get())
+				return;
+			if (to_ - from_ <= chunk_)
+			{
+				int index = range_.search(from_, to_);
+				if (index >= 0)
+					found_.accumulateAndGet(index, Math::min);
+			}
+			else
+			{
+				int middle = (from_ + to_) >>> 1;
+				invokeAll(new Search(range_, from_, middle, chunk_, found_), new Search(range_, middle, to_, chunk_, found_));
+			}
+		}
+		
+		
+		private final Range range_;
+		private final int from_;
+		private final int to_;
+		private final int chunk_;
+		private final AtomicInteger found_;
+	}
+	
+
+	private static final int MIN_CHUNK = 1 << 12;
+	private final int threshold_;
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2021 jdlib, https://github.com/jdlib
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package deepdive.impl;
+
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+
+/**
+ * PatternCache is a thread-safe, size-bounded cache of compiled Patterns.
+ * Lookups do not lock. When the cache is full, the least recently used pattern
+ * is evicted. The cache counts hits and misses.<p>
+ * {@link #regex()} returns the shared cache for regular expressions,
+ * {@link #glob()} the shared cache for glob patterns, which also memoizes the
+ * translation of the glob into a regular expression.
+ * Both are used by the regex-taking methods of the Actual implementations, e.g.
+ * {@link deepdive.actual.java.lang.StringActual#matches(String) StringActual.matches(String)}.
+ */
+public final class PatternCache
+{
+	/**
+	 * The maximum size of the shared caches.
+	 */
+	public static final int DEFAULT_MAX_SIZE = 256;
+
+
+	/**
+	 * Returns the shared cache which compiles regular expressions.
+	 * @return the cache
+	 */
+	public static PatternCache regex()
+	{
+		return REGEX;
+	}
+
+
+	/**
+	 * Returns the shared cache which compiles glob patterns, see {@link #globToRegex(String)}.
+	 * @return the cache
+	 */
+	public static PatternCache glob()
+	{
+		return GLOB;
+	}
+
+
+	/**
+	 * Translates a glob pattern into a regular expression: A '*' matches any sequence
+	 * of characters, a '?' matches a single character, all other characters are matched literally.
+	 * @param glob a glob pattern
+	 * @return the regular expression
+	 */
+	public static String globToRegex(String glob)
+	{
+		DDCheck.notNull(glob, "glob");
+		StringBuilder sb = new StringBuilder();
+		int literalStart = 0;
+		for (int i=0; i<glob.length(); i++)
+		{
+			char c = glob.charAt(i);
+			if ((c == '*') || (c == '?'))
+			{
+				if (literalStart < i)
+					sb.append(Pattern.quote(glob.substring(literalStart, i)));
+				sb.append(c == '*' ? ".*" : ".");
+				literalStart = i + 1;
+			}
+		}
+		if (literalStart < glob.length())
+			sb.append(Pattern.quote(glob.substring(literalStart)));
+		return sb.toString();
+	}
+
+
+	/**
+	 * Creates a new PatternCache.
+	 * @param maxSize the maximum number of cached patterns
+	 * @param compiler compiles a pattern string
+	 */
+	public PatternCache(int maxSize, Function<String,Pattern> compiler)
+	{
+		maxSize_ 	= DDCheck.positive(maxSize, "maxSize");
+		compiler_	= DDCheck.notNull(compiler, "compiler");
+	}
+
+
+	/**
+	 * Returns the compiled pattern for the string.
+	 * @param s a pattern string
+	 * @return the compiled pattern
+	 * @throws java.util.regex.PatternSyntaxException if the string is not a valid pattern
+	 */
+	public Pattern get(String s)
+	{
+		DDCheck.notNull(s, "s");
+		Entry entry = map_.get(s);
+		if (entry != null)
+		{
+			hits_.increment();
+			entry.lastUse = System.nanoTime();
+			return entry.pattern;
+		}
+
+		misses_.increment();
+		Pattern pattern = compiler_.apply(s);
+		map_.put(s, new Entry(pattern, System.nanoTime()));
+		if (map_.size() > maxSize_)
+			evict();
+		return pattern;
+	}
+
+
+	/**
+	 * Removes the least recently used entries until the cache does not exceed its maximum size.
+	 * Concurrent calls may evict slightly more entries than necessary.
+	 */
+	private synchronized void evict()
+	{
+		while (map_.size() > maxSize_)
+		{
+			Map.Entry<String,Entry> lru = null;
+			for (Map.Entry<String,Entry> e : map_.entrySet())
+			{
+				if ((lru == null) || (e.getValue().lastUse < lru.getValue().lastUse))
+					lru = e;
+			}
+			if (lru == null)
+				return;
+			map_.remove(lru.getKey(), lru.getValue());
+		}
+	}
+
+
+	/**
+	 * Returns the number of lookups which found a cached pattern.
+	 * @return the hits
+	 */
+	public long getHits()
+	{
+		return hits_.sum();
+	}
+
+
+	/**
+	 * Returns the number of lookups which compiled a pattern.
+	 * @return the misses
+	 */
+	public long getMisses()
+	{
+		return misses_.sum();
+	}
+
+
+	/**
+	 * Returns the number of cached patterns.
+	 * @return the size
+	 */
+	public int size()
+	{
+		return map_.size();
+	}
+
+
+	/**
+	 * Removes all patterns and resets the counters.
+	 */
+	public void clear()
+	{
+		map_.clear();
+		hits_.reset();
+		misses_.reset();
+	}
+
+
+	@Override public String toString()
+	{
+		return "size " + size() + '/' + maxSize_ + ", hits " + getHits() + ", misses " + getMisses();
+	}
+
+
+	private static class Entry
+	{
+		public Entry(Pattern pattern, long lastUse)
+		{
+			this.pattern = pattern;
+			this.lastUse = lastUse;
+		}
+
+
+		public final Pattern pattern;
+		public volatile long lastUse;
+	}
+
+
+	private static final PatternCache REGEX = new PatternCache(DEFAULT_MAX_SIZE, Pattern::compile);
+	private static final PatternCache GLOB  = new PatternCache(DEFAULT_MAX_SIZE, glob -> Pattern.compile(globToRegex(glob)));
+	private final int maxSize_;
+	private final Function<String,Pattern> compiler_;
+	private final ConcurrentHashMap<String,Entry> map_ = new ConcurrentHashMap<>();
+	private final LongAdder hits_ = new LongAdder();
+	private final LongAdder misses_ = new LongAdder();
+}
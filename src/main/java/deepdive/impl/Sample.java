@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2021 jdlib, https://github.com/jdlib
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package deepdive.impl;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.RandomAccess;
+import java.util.Set;
+
+
+/**
+ * Sample is a uniform random sample of elements drawn without replacement.
+ * The elements are kept in encounter order together with their index in the sampled elements.
+ * Samples are reproducible: The same seed and the same elements always result in the same sample,
+ * since the random numbers are produced by {@link Random} whose algorithm is specified.
+ * <ul>
+ * <li>Elements of a {@link RandomAccess} list are sampled by drawing indexes (algorithm of R. Floyd),
+ * 	   without touching the other elements.
+ * <li>Other elements are sampled by a single pass over an iterator (reservoir sampling, algorithm L of K.-H. Li), 
+ * 	   which only needs random numbers for elements which enter the reservoir.
+ * </ul>
+ * @param <T> the element type
+ */
+public final class Sample<T>
+{
+	/**
+	 * Draws a sample from a list.
+	 * @param list the list
+	 * @param size the sample size
+	 * @param seed the seed of the random numbers
+	 * @return the sample
+	 * @param <T> the element type
+	 */
+	public static <T> Sample<T> of(List<T> list, int size, long seed)
+	{
+		DDCheck.notNull(list, "list");
+		DDCheck.positive(size, "size");
+		if (!(list instanceof RandomAccess))
+			return of(list.iterator(), size, seed);
+		
+		int population = list.size();
+		if (size >= population)
+			return new Sample<>(new ArrayList<>(list), range(population), population, seed);
+		
+		Random random = new Random(seed);
+		Set<Integer> drawn = new HashSet<>();
+		for (int j=population-size; j<population; j++)
+		{
+			Integer t = Integer.valueOf(random.nextInt(j + 1));
+			drawn.add(drawn.contains(t) ? Integer.valueOf(j) : t);
+		}
+		long[] indexes = new long[size];
+		int i = 0;
+		for (Integer index : drawn)
+			indexes[i++] = index.longValue();
+		Arrays.sort(indexes);
+		List<T> elems = new ArrayList<>(size);
+		for (long index : indexes)
+			elems.add(list.get((int)index));
+		return new Sample<>(elems, indexes, population, seed);
+	}
+	
+	
+	/**
+	 * Draws a sample from the elements returned by an iterator. The iterator is exhausted.
+	 * @param it the iterator
+	 * @param size the sample size
+	 * @param seed the seed of the random numbers
+	 * @return the sample
+	 * @param <T> the element type
+	 */
+	public static <T> Sample<T> of(Iterator<? extends T> it, int size, long seed)
+	{
+		DDCheck.notNull(it, "it");
+		DDCheck.positive(size, "size");
+		List<T> reservoir = new ArrayList<>();
+		long[] indexes = new long[size];
+		long count = 0;
+		while ((count < size) && it.hasNext())
+		{
+			reservoir.add(it.next());
+			indexes[(int)count] = count++;
+		}
+		if (count < size)
+			return new Sample<>(reservoir, Arrays.copyOf(indexes, (int)count), count, seed);
+
+		Random random = new Random(seed);
+		double w = Math.exp(Math.log(uniform(random)) / size);
+		while (true)
+		{
+			// skip the elements which do not enter the reservoir
+			long skip = (long)Math.floor(Math.log(uniform(random)) / Math.log1p(-w));
+			for (long i=0; (i<skip) && it.hasNext(); i++)
+			{
+				it.next();
+				count++;
+			}
+			if (!it.hasNext())
+				break;
+			int slot 		= random.nextInt(size);
+			reservoir.set(slot, it.next());
+			indexes[slot]	= count++;
+			w *= Math.exp(Math.log(uniform(random)) / size);
+		}
+		
+		// restore the encounter order
+		Integer[] order = new Integer[size];
+		for (int i=0; i<size; i++)
+			order[i] = Integer.valueOf(i);
+		Arrays.sort(order, (o1, o2) -> Long.compare(indexes[o1.intValue()], indexes[o2.intValue()]));
+		List<T> elems = new ArrayList<>(size);
+		long[] sortedIndexes = new long[size];
+		for (int i=0; i<size; i++)
+		{
+			elems.add(reservoir.get(order[i].intValue()));
+			sortedIndexes[i] = indexes[order[i].intValue()];
+		}
+		return new Sample<>(elems, sortedIndexes, count, seed);
+	}
+	
+	
+	/**
+	 * Returns a random number in the interval (0, 1].
+	 */
+	private static double uniform(Random random)
+	{
+		return 1.0 - random.nextDouble();
+	}
+	
+	
+	private static long[] range(int length)
+	{
+		long[] range = new long[length];
+		for (int i=0; i<length; i++)
+			range[i] = i;
+		return range;
+	}
+
+	
+	/**
+	 * Returns the probability to find at most k violations in a sample of size n,
+	 * if elements violate with probability p, i.e. the cumulative binomial distribution.
+	 * If this probability does not exceed 1 - confidence, the violation rate is below p 
+	 * at the given confidence (exact one-sided binomial test).
+	 * @param k the number of violations
+	 * @param n the sample size
+	 * @param p the violation probability
+	 * @return the probability
+	 */
+	public static double binomialCdf(long k, long n, double p)
+	{
+		if (k >= n)
+			return 1.0;
+		// the terms are computed as logarithms since (1 - p)^n underflows for large samples
+		double logP 	= Math.log(p);
+		double logQ 	= Math.log1p(-p);
+		double logTerm 	= n * logQ;
+		double cdf 		= 0.0;
+		for (long i=0; i<=k; i++)
+		{
+			cdf += Math.exp(logTerm);
+			logTerm += Math.log(n - i) - Math.log(i + 1) + logP - logQ;
+		}
+		return Math.min(cdf, 1.0);
+	}
+	
+	
+	private Sample(List<T> elems, long[] indexes, long population, long seed)
+	{
+		elems_		= Collections.unmodifiableList(elems);
+		indexes_	= indexes;
+		population_	= population;
+		seed_		= seed;
+	}
+	
+	
+	/**
+	 * Returns the sampled elements in encounter order.
+	 * @return the elements
+	 */
+	public List<T> getElems()
+	{
+		return elems_;
+	}
+	
+	
+	/**
+	 * Returns the index of a sampled element within all elements.
+	 * @param i the index of the element within the sample 
+	 * @return the index
+	 */
+	public long getIndex(int i)
+	{
+		return indexes_[i];
+	}
+	
+	
+	/**
+	 * Returns the number of all elements from which the sample was drawn.
+	 * @return the population size
+	 */
+	public long getPopulation()
+	{
+		return population_;
+	}
+	
+	
+	public long getSeed()
+	{
+		return seed_;
+	}
+	
+	
+	/**
+	 * Returns if the sample contains all elements.
+	 * @return the complete flag
+	 */
+	public boolean isComplete()
+	{
+		return elems_.size() == population_;
+	}
+	
+	
+	@Override public String toString()
+	{
+		return elems_.size() + " of " + population_ + ", seed " + seed_;
+	}
+	
+	
+	private final List<T> elems_;
+	private final long[] indexes_;
+	private final long population_;
+	private final long seed_;
+}
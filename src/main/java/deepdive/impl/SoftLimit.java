@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2021 jdlib, https://github.com/jdlib
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package deepdive.impl;
+
+
+import java.time.Duration;
+
+
+/**
+ * SoftLimit limits the resources used by soft mode, i.e. inside of 
+ * {@link deepdive.ExpectStatic#expectAll(deepdive.function.CheckedConsumer) expectAll} 
+ * or {@link deepdive.actual.Actual#all(deepdive.function.CheckedConsumer) Actual.all}:
+ * <ul>
+ * <li>maxErrors: the maximum number of collected assertion errors. Further failures are only counted
+ * 	   and reported as "N more failures suppressed".
+ * <li>maxFailures: soft mode stops after this number of failures, i.e. the test code is not executed 
+ *     any further and the collected errors are thrown.
+ * <li>timeBudget: soft mode stops at the first failure after the time budget has elapsed.
+ * </ul> 
+ * In {@link deepdive.ExpectStatic#expectAllParallel(java.util.List) expectAllParallel} the limits apply to
+ * all parallel calls together, e.g. soft mode of all calls stops after maxFailures failures in total.
+ * {@link #get()} returns the currently used SoftLimit.
+ * If you want to adjust the SoftLimit, set it via {@link #set(SoftLimit)}.
+ */
+public final class SoftLimit
+{
+	/**
+	 * A SoftLimit which does not impose any limits.
+	 */
+	public static final SoftLimit NONE = new SoftLimit(Integer.MAX_VALUE, Integer.MAX_VALUE, null);
+	
+	
+	/**
+	 * Returns the currently active SoftLimit of the {@link Config#get() current Config}.
+	 * @return the SoftLimit
+	 * @see #set(SoftLimit)
+	 */
+	public static SoftLimit get()
+	{
+		return Config.get().getSoftLimit();
+	}
+
+
+	/**
+	 * Sets the SoftLimit of the {@link Config#getGlobal() global Config}.
+	 * @param value the new SoftLimit
+	 * @see #get()
+	 */
+	public static void set(SoftLimit value)
+	{
+		DDCheck.notNull(value, "value");
+		Config.setGlobal(c -> c.with(value));
+	}
+
+	
+	private SoftLimit(int maxErrors, int maxFailures, Duration timeBudget)
+	{
+		maxErrors_ 		= DDCheck.positive(maxErrors, "maxErrors");
+		maxFailures_ 	= DDCheck.positive(maxFailures, "maxFailures");
+		timeBudget_		= timeBudget;
+	}
+	
+	
+	/**
+	 * Returns a SoftLimit which equals this SoftLimit but uses the given maximum number of collected errors. 
+	 * @param max the maximum, must be &gt; 0
+	 * @return the new SoftLimit
+	 */
+	public SoftLimit withMaxErrors(int max)
+	{
+		return new SoftLimit(max, maxFailures_, timeBudget_);
+	}
+	
+	
+	/**
+	 * Returns a SoftLimit which equals this SoftLimit but stops soft mode after the given number of failures. 
+	 * @param max the maximum, must be &gt; 0
+	 * @return the new SoftLimit
+	 */
+	public SoftLimit withMaxFailures(int max)
+	{
+		return new SoftLimit(maxErrors_, max, timeBudget_);
+	}
+	
+	
+	/**
+	 * Returns a SoftLimit which equals this SoftLimit but uses the given time budget. 
+	 * @param budget the time budget or null if soft mode should not be limited in time 
+	 * @return the new SoftLimit
+	 */
+	public SoftLimit withTimeBudget(Duration budget)
+	{
+		return new SoftLimit(maxErrors_, maxFailures_, budget);
+	}
+	
+	
+	public int getMaxErrors()
+	{
+		return maxErrors_;
+	}
+	
+	
+	public int getMaxFailures()
+	{
+		return maxFailures_;
+	}
+	
+	
+	public Duration getTimeBudget()
+	{
+		return timeBudget_;
+	}
+	
+	
+	/**
+	 * Returns if the time budget has elapsed.
+	 * @param startNanos the start of soft mode as given by {@link System#nanoTime()}
+	 * @return the elapsed flag
+	 */
+	public boolean isTimeBudgetElapsed(long startNanos)
+	{
+		return (timeBudget_ != null) && (System.nanoTime() - startNanos > timeBudget_.toNanos());
+	}
+
+
+	@Override public String toString()
+	{
+		if (this == NONE)
+			return "none";
+		StringBuilder s = new StringBuilder();
+		if (maxErrors_ != Integer.MAX_VALUE)
+			s.append("maxErrors=").append(maxErrors_);
+		if (maxFailures_ != Integer.MAX_VALUE)
+			s.append(s.length() > 0 ? ", " : "").append("maxFailures=").append(maxFailures_);
+		if (timeBudget_ != null)
+			s.append(s.length() > 0 ? ", " : "").append("timeBudget=").append(timeBudget_);
+		return s.length() > 0 ? s.toString() : "none";
+	}
+
+
+	private final int maxErrors_;
+	private final int maxFailures_;
+	private final Duration timeBudget_;
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2021 jdlib, https://github.com/jdlib
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package deepdive.impl;
+
+
+import java.util.Arrays;
+
+
+/**
+ * StackCapture defines how the stack trace of an assertion error is captured
+ * when the error is postponed in soft mode (see {@link DeferredAssertionError}).
+ * {@link #get()} returns the currently used StackCapture.
+ * If you want to adjust the StackCapture, set it via {@link #set(StackCapture)}.
+ */
+public enum StackCapture
+{
+	/**
+	 * The full stack trace is captured.
+	 */
+	FULL,
+
+	/**
+	 * The stack trace is captured but leading frames of DeepDive classes
+	 * (i.e. classes in package deepdive and its subpackages) are removed.
+	 */
+	TRIMMED,
+
+	/**
+	 * No stack trace is captured.
+	 */
+	NONE;
+
+
+	/**
+	 * Returns the currently active StackCapture of the {@link Config#get() current Config}.
+	 * @return the StackCapture
+	 * @see #set(StackCapture)
+	 */
+	public static StackCapture get()
+	{
+		return Config.get().getStackCapture();
+	}
+
+
+	/**
+	 * Sets the StackCapture of the {@link Config#getGlobal() global Config}.
+	 * @param value the new StackCapture
+	 * @see #get()
+	 */
+	public static void set(StackCapture value)
+	{
+		DDCheck.notNull(value, "value");
+		Config.setGlobal(c -> c.with(value));
+	}
+
+
+	/**
+	 * Applies this StackCapture to a Throwable whose stack trace was already filled in.
+	 * @param t a Throwable
+	 */
+	void apply(Throwable t)
+	{
+		if (this == NONE)
+			t.setStackTrace(NO_FRAMES);
+		else if (this == TRIMMED)
+		{
+			StackTraceElement[] frames = t.getStackTrace();
+			int start = 0;
+			while ((start < frames.length) && frames[start].getClassName().startsWith(PACKAGE_PREFIX))
+				start++;
+			if ((start > 0) && (start < frames.length))
+				t.setStackTrace(Arrays.copyOfRange(frames, start, frames.length));
+		}
+	}
+
+
+	private static final String PACKAGE_PREFIX = "deepdive.";
+	private static final StackTraceElement[] NO_FRAMES = new StackTraceElement[0];
+}
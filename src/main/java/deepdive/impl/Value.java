@@ -22,8 +22,10 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.RandomAccess;
 import java.util.Set;
 import deepdive.Context;
 
@@ -91,6 +93,71 @@ public class Value
         return (Float.compare(f1, f2) == 0) || (Math.abs(f1 - f2) <= delta); 
     }
 
+
+	/**
+	 * Returns if two double arrays are both null or have equal length
+	 * and their elements are equal within the delta.
+	 * @param a1 an array
+	 * @param a2 an array
+	 * @param delta the delta
+	 * @return are the arrays equal?
+	 */
+	public static boolean withinDelta(double[] a1, double[] a2, double delta) 
+	{
+		if (a1 == a2)
+			return true;
+		else if ((a1 == null) || (a2 == null) || (a1.length != a2.length))
+			return false;
+		return ArrayRanges.of(a1, a2, Double.valueOf(delta)).nextDiff(0) < 0;
+	}
+
+
+	/**
+	 * Returns if two float arrays are both null or have equal length
+	 * and their elements are equal within the delta.
+	 * @param a1 an array
+	 * @param a2 an array
+	 * @param delta the delta
+	 * @return are the arrays equal?
+	 */
+	public static boolean withinDelta(float[] a1, float[] a2, float delta) 
+	{
+		if (a1 == a2)
+			return true;
+		else if ((a1 == null) || (a2 == null) || (a1.length != a2.length))
+			return false;
+		return ArrayRanges.of(a1, a2, Float.valueOf(delta)).nextDiff(0) < 0;
+	}
+
+	
+	/**
+	 * Returns if the object can be put into a hash based collection, i.e. is null or
+	 * its class or a super class other than Object declares hashCode().
+	 * Objects which only override equals() are found by a hash lookup only by chance.
+	 * @param object an object or null
+	 * @return is the object hashable?
+	 */
+	public static boolean isHashable(Object object)
+	{
+		return (object == null) || OWN_HASHCODE.get(object.getClass()).booleanValue();
+	}
+	
+	
+	private static final ClassValue<Boolean> OWN_HASHCODE = new ClassValue<Boolean>()
+	{
+		@Override protected Boolean computeValue(Class<?> type)
+		{
+			try
+			{
+				return Boolean.valueOf(type.getMethod("hashCode").getDeclaringClass() != Object.class);
+			}
+			catch (NoSuchMethodException e)
+			{
+				throw new IllegalStateException(e);
+			}
+		}
+	};
+
 	
 	/**
 	 * If the collection is not null and has size 1
@@ -108,6 +175,10 @@ public class Value
 	 * Returns if two objects are equal:
 	 * <ul>
 	 * <li>if both arguments are arrays, equality is determined by using {@link #arraysEqual(Object, Object, boolean)}. 
+	 * <li>if both arguments are {@link RandomAccess} lists of JDK classes (e.g. ArrayList) with a size which 
+	 * 	   reaches the threshold of the current {@link Parallelism}, their elements are compared in parallel.
+	 * 	   Then the equals() method of the elements is called concurrently: Use {@link Parallelism#NONE} 
+	 * 	   if that is not safe for the elements. Lists of other classes are compared by their own equals() method.
 	 * <li>else equality is determined by using {@link Objects#equals(Object, Object)}
      * </ul>
      * @param o1 an object or null
@@ -116,7 +187,34 @@ public class Value
 	 */
 	public static boolean equal(Object o1, Object o2)
 	{
-		return isArray(o1) && isArray(o2) ? arraysEqual(o1, o2, true) : Objects.equals(o1, o2);
+		if (isArray(o1) && isArray(o2))
+			return arraysEqual(o1, o2, true);
+		else if ((o1 instanceof List) && (o2 instanceof List))
+			return listsEqual((List<?>)o1, (List<?>)o2);
+		else
+			return Objects.equals(o1, o2);
+	}
+	
+	
+	private static boolean listsEqual(List<?> l1, List<?> l2)
+	{
+		if (l1 == l2)
+			return true;
+		int size = l1.size();
+		if ((size != l2.size()) || !isJdkRandomAccess(l1) || !isJdkRandomAccess(l2))
+			return l1.equals(l2);
+		Parallelism parallelism = Parallelism.get();
+		return parallelism.isParallel(size) ? parallelism.mismatch(l1, l2) < 0 : l1.equals(l2);
+	}
+	
+	
+	/**
+	 * Returns if the list is a random access list of a JDK class, whose equals() method
+	 * follows the contract of {@link List#equals(Object)}. 
+	 */
+	private static boolean isJdkRandomAccess(List<?> list)
+	{
+		return (list instanceof RandomAccess) && list.getClass().getName().startsWith("java.");
 	}
 	
 	
@@ -127,7 +225,8 @@ public class Value
 	 * <li>if one arrays is null and the other is not null, false is returned 
 	 * <li>else if compareComponentType is true else if both arrays are not null but have different component type false is returned
 	 * <li>else equality is determined by using {@link Arrays#equals(Object[], Object[])} or the respective
-	 * 		method for arrays with primitive component type
+	 * 		method for arrays with primitive component type, or in parallel if the array length reaches
+	 * 		the threshold of the current {@link Parallelism}
      * </ul>
      * Note that this test deviates from standard Java which regards to arrays
      * as equal if they refer to the same object.
@@ -159,6 +258,12 @@ public class Value
 				return false;
 		}
 		
+		// large arrays are compared in parallel
+		int length = Array.getLength(a1);
+		Parallelism parallelism = Parallelism.get();
+		if (parallelism.isParallel(length))
+			return (length == Array.getLength(a2)) && (parallelism.mismatch(a1, a2) < 0);
+		
 		// forward to Arrays.equals() 
 		if (!componentType.isPrimitive())
 			return Arrays.deepEquals((Object[])a1, (Object[])a2);
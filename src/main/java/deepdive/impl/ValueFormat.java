@@ -16,7 +16,22 @@
 package deepdive.impl;
 
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
 
 
 /**
@@ -34,24 +49,25 @@ public class ValueFormat
 	
 	
 	/**
-	 * Returns the currently active ValueFormat. 
+	 * Returns the currently active ValueFormat of the {@link Config#get() current Config}. 
 	 * @return the ValueFormat
 	 * @see #setCurrent(ValueFormat)
 	 */
 	public static ValueFormat get()
 	{
-		return current_;
+		return Config.get().getValueFormat();
 	}
 	
 	
 	/**
-	 * Sets the current ValueFormat.
+	 * Sets the ValueFormat of the {@link Config#getGlobal() global Config}.
 	 * @param value the new ValueFormat
 	 * @see #get() 
 	 */
 	public static void setCurrent(ValueFormat value)
 	{
-		current_ = DDCheck.notNull(value, "value");
+		DDCheck.notNull(value, "value");
+		Config.setGlobal(c -> c.with(value));
 	}
 
 	
@@ -83,10 +99,17 @@ public class ValueFormat
 	
 	protected String arrayString(Object array)
 	{
-		return shorten(arrayStringRaw(array), 200);
+		return formatBounded(array, MAX_LENGTH);
 	}
 	
 	
+	/**
+	 * Returns the complete string representation of an array.
+	 * The default implementation does not use this method to format arrays
+	 * since its result would contain every element of the array.
+	 * @param array an array
+	 * @return the string
+	 */
 	protected String arrayStringRaw(Object array)
 	{
 		if (!array.getClass().getComponentType().isPrimitive()) 
@@ -121,7 +144,7 @@ public class ValueFormat
 	
 	protected String objectString(Object value) 
 	{
-		return shorten(objectStringRaw(value), 200);
+		return isWalkable(value) ? formatBounded(value, MAX_LENGTH) : shorten(objectStringRaw(value), MAX_LENGTH);
 	}
 
 	
@@ -131,6 +154,314 @@ public class ValueFormat
 	}
 
 	
+	/**
+	 * Appends a string representation of the value which is limited to roughly budget characters.
+	 * Arrays, character sequences and collections and maps of the JDK are walked element by element
+	 * and never turned into a complete string: If the elements of a container exceed the budget,
+	 * a head and a tail window of elements is written together with the count of omitted elements,
+	 * e.g. <code>[0, 1, 2, …(9994 more)…, 9997, 9998, 9999]</code>.
+	 * The tail window is only written for arrays, lists, deques, navigable sets and navigable maps 
+	 * which can be iterated backwards. Other containers are only iterated up to the end of the head window.
+	 * Containers which (directly or indirectly) contain themselves are formatted 
+	 * as <code>(this Collection)</code>, <code>(this Map)</code>, <code>[...]</code> 
+	 * or <code>(cycle)</code> at the point of recursion. 
+	 * Other values are formatted by their toString() method and shortened to the budget.
+	 * The string representation is written to out as it is built. 
+	 * @param value a value
+	 * @param out receives the string representation
+	 * @param budget the maximum number of characters
+	 * @throws IOException if thrown by out
+	 */
+	public void format(Object value, Appendable out, int budget) throws IOException
+	{
+		DDCheck.notNull(out, "out");
+		formatNested(value, new Output(out), Math.max(1, budget), newPath());
+	}
+	
+	
+	private String formatBounded(Object value, int budget)
+	{
+		return formatString(null, value, budget, newPath());
+	}
+	
+	
+	private static Set<Object> newPath()
+	{
+		return Collections.newSetFromMap(new IdentityHashMap<>());
+	}
+	
+	
+	private void formatNested(Object value, Output out, int budget, Set<Object> path) throws IOException
+	{
+		if (value == null)
+			out.append(nullString());
+		else if (value.getClass().isArray())
+		{
+			int length = Array.getLength(value);
+			formatElems(value, length, new ArrayIterator(value, length, false), new ArrayIterator(value, length, true), '[', ']', out, budget, path);
+		}
+		else if (isWalkable(value))
+		{
+			if (value instanceof List<?>)
+			{
+				List<?> list = (List<?>)value;
+				formatElems(list, list.size(), list.iterator(), descending(list), '[', ']', out, budget, path);
+			}
+			else if (value instanceof Collection<?>)
+			{
+				Collection<?> col = (Collection<?>)value;
+				formatElems(col, col.size(), col.iterator(), descending(col), '[', ']', out, budget, path);
+			}
+			else
+			{
+				Map<?,?> map = (Map<?,?>)value;
+				Iterator<?> descending = map instanceof NavigableMap ? ((NavigableMap<?,?>)map).descendingMap().entrySet().iterator() : null;
+				formatElems(map, map.size(), map.entrySet().iterator(), descending, '{', '}', out, budget, path);
+			}
+		}
+		else if (value instanceof CharSequence)
+			out.append(shorten((CharSequence)value, budget));
+		else
+			out.append(shorten(String.valueOf(value), budget));
+	}
+	
+	
+	/**
+	 * Returns an iterator which returns the elements of the collection in reverse order, 
+	 * or null if the collection cannot be iterated backwards. 
+	 */
+	private static Iterator<?> descending(Collection<?> col)
+	{
+		if (col instanceof List)
+		{
+			ListIterator<?> it = ((List<?>)col).listIterator(col.size());
+			return new Iterator<Object>()
+			{
+				@Override public boolean hasNext()
+				{
+					return it.hasPrevious();
+				}
+				
+				
+				@Override public Object next()
+				{
+					return it.previous();
+				}
+			};
+		}
+		else if (col instanceof Deque)
+			return ((Deque<?>)col).descendingIterator();
+		else if (col instanceof NavigableSet)
+			return ((NavigableSet<?>)col).descendingIterator();
+		else
+			return null;
+	}
+	
+	
+	/**
+	 * Formats the elements of a container. The elements are formatted from the start
+	 * until half of the budget is used and then from the end until the other half is used.
+	 * A single element is shortened to half of the budget.
+	 * @param descending if not null returns the elements from the end, 
+	 * 		else no tail elements are formatted and the head may use the whole budget
+	 */
+	private void formatElems(Object container, int size, Iterator<?> it, Iterator<?> descending, 
+		char open, char close, Output out, int budget, Set<Object> path) throws IOException
+	{
+		if (!path.add(container))
+		{
+			out.append("(cycle)");
+			return;
+		}
+		try
+		{
+			int start = out.length();
+			out.append(open);
+			int half = Math.max(1, budget / 2);
+			int headBudget = descending != null ? half : budget;
+			int head = 0;
+			while ((head < size) && it.hasNext() && (out.length() - start < headBudget))
+			{
+				if (head++ > 0)
+					out.append(", ");
+				formatElem(container, it.next(), out, half, path);
+			}
+
+			int remaining = it.hasNext() ? size - head : 0;
+			List<String> tail = new ArrayList<>();
+			if (descending != null)
+			{
+				int tailLength = 0;
+				for (int i=0; (i < remaining) && (tailLength < half) && descending.hasNext(); i++)
+					tailLength += add(tail, formatString(container, descending.next(), half, path));
+			}
+			
+			int omitted = remaining - tail.size();
+			if (omitted > 0)
+			{
+				if (head > 0)
+					out.append(", ");
+				out.append(ELLIPSIS).append('(').append(String.valueOf(omitted)).append(" more)").append(ELLIPSIS);
+			}
+			for (int k=tail.size() - 1; k>=0; k--)
+			{
+				if (out.length() - start > 1)
+					out.append(", ");
+				out.append(tail.get(k));
+			}
+			out.append(close);
+		}
+		finally
+		{
+			path.remove(container);
+		}
+	}
+	
+	
+	private static int add(List<String> tail, String s)
+	{
+		tail.add(s);
+		return s.length() + 2;
+	}
+	
+	
+	/**
+	 * Formats an element into a String. A null container formats a top-level value.
+	 */
+	private String formatString(Object container, Object elem, int budget, Set<Object> path)
+	{
+		StringBuilder sb = new StringBuilder();
+		try
+		{
+			Output out = new Output(sb);
+			if (container == null)
+				formatNested(elem, out, budget, path);
+			else
+				formatElem(container, elem, out, budget, path);
+		}
+		catch (IOException e)
+		{
+			// a StringBuilder does not throw IOExceptions
+			throw new UncheckedIOException(e);
+		}
+		return sb.toString();
+	}
+	
+	
+	private void formatElem(Object container, Object elem, Output out, int budget, Set<Object> path) throws IOException
+	{
+		budget = Math.max(1, budget);
+		if (elem == container)
+			out.append(container instanceof Map ? "(this Map)" : container instanceof Collection ? "(this Collection)" : "[...]");
+		else if ((container instanceof Map) && (elem instanceof Map.Entry))
+		{
+			Map.Entry<?,?> entry = (Map.Entry<?,?>)elem;
+			int start = out.length();
+			formatElem(container, entry.getKey(), out, budget / 2, path);
+			out.append('=');
+			formatElem(container, entry.getValue(), out, budget - (out.length() - start), path);
+		}
+		else
+			formatNested(elem, out, budget, path);
+	}
+	
+	
+	/**
+	 * An Appendable which counts the written characters.
+	 */
+	private static final class Output
+	{
+		Output(Appendable out)
+		{
+			out_ = out;
+		}
+		
+		
+		Output append(CharSequence s) throws IOException
+		{
+			out_.append(s);
+			length_ += s.length();
+			return this;
+		}
+		
+		
+		Output append(char c) throws IOException
+		{
+			out_.append(c);
+			length_++;
+			return this;
+		}
+		
+		
+		int length()
+		{
+			return length_;
+		}
+		
+		
+		private final Appendable out_;
+		private int length_;
+	}
+	
+	
+	/**
+	 * Returns if the value is a collection or map whose string representation 
+	 * is implemented by the JDK, i.e. can be built by walking its elements. 
+	 */
+	private static boolean isWalkable(Object value)
+	{
+		return ((value instanceof Collection) || (value instanceof Map)) && JDK_TO_STRING.get(value.getClass()).booleanValue();
+	}
+	
+	
+	private static final ClassValue<Boolean> JDK_TO_STRING = new ClassValue<Boolean>()
+	{
+		@Override protected Boolean computeValue(Class<?> type)
+		{
+			try
+			{
+				return Boolean.valueOf(type.getMethod("toString").getDeclaringClass().getName().startsWith("java.util."));
+			}
+			catch (NoSuchMethodException e)
+			{
+				return Boolean.FALSE;
+			}
+		}
+	};
+	
+	
+	private static class ArrayIterator implements Iterator<Object>
+	{
+		public ArrayIterator(Object array, int length, boolean descending)
+		{
+			array_  	= array;
+			step_		= descending ? -1 : 1;
+			index_		= descending ? length - 1 : 0;
+			end_		= descending ? -1 : length;
+		}
+		
+		
+		@Override public boolean hasNext()
+		{
+			return index_ != end_;
+		}
+		
+		
+		@Override public Object next()
+		{
+			Object next = Array.get(array_, index_);
+			index_ += step_;
+			return next;
+		}
+		
+		
+		private final Object array_;
+		private final int step_;
+		private final int end_;
+		private int index_;
+	}
+
+	
 	public String formatQualified(Object value, String valueString)
 	{
 		if (value == null)
@@ -144,13 +475,25 @@ public class ValueFormat
 
 	
 	public String shorten(String s, int maxLength)
+	{
+		return shorten((CharSequence)s, maxLength);
+	}
+	
+	
+	/**
+	 * Shortens a character sequence without turning all of its characters into a string.
+	 * @param s a character sequence
+	 * @param maxLength the maximum length
+	 * @return the sequence as string if not longer than maxLength, else its first and last characters 
+	 */
+	public String shorten(CharSequence s, int maxLength)
 	{
 		if (s.length() <= maxLength)
-			return s;
+			return s.toString();
 		else
 		{
 			int half = Math.max(1, Math.round(maxLength / 2));
-			return shorten(s.substring(0, half), s.substring(s.length() - half));
+			return shorten(s.subSequence(0, half).toString(), s.subSequence(s.length() - half, s.length()).toString());
 		}
 	}
 		
@@ -165,7 +508,7 @@ public class ValueFormat
 	{
 		return "default";
 	}
-
 	
-	private static ValueFormat current_ = new ValueFormat();
+	
+	private static final int MAX_LENGTH = 200;
 }
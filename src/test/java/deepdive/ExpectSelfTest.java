@@ -16,7 +16,17 @@
 package deepdive;
 
 
+import static deepdive.ExpectThat.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import org.junit.Test;
+import org.opentest4j.AssertionFailedError;
+import org.opentest4j.MultipleFailuresError;
+import deepdive.impl.Config;
+import deepdive.impl.SoftLimit;
+import deepdive.impl.StackCapture;
 
 
 @SuppressWarnings("boxing")
@@ -46,6 +56,216 @@ public class ExpectSelfTest extends AbstractTest
 	}
 
 	
+	@Test public void testExpectAllDeferred()
+	{
+		int[] formatCount = new int[1];
+		Object value = new Object()
+		{
+			@Override public String toString()
+			{
+				formatCount[0]++;
+				return "value";
+			}
+		};
+		
+		MultipleFailuresError error = expectThrows(MultipleFailuresError.class, () -> expectAll(a -> {
+			a.expectEqual("x", value);
+			a.expectNull(value);
+			// failure messages are not built while in soft mode
+			expectEqual(0, formatCount[0]);
+		}));
+		expectTrue(formatCount[0] > 0);
+		expectThat(error.getFailures()).size(2)
+			.elem(0).isA(AssertionFailedError.class).back()
+			.elem(1).isA(AssertionFailedError.class);
+
+		// the context of an Actual is formatted when the message is built, not at all for dropped errors
+		formatCount[0] = 0;
+		Config.get().with(SoftLimit.NONE.withMaxErrors(1)).run(() -> 
+			failSoftAssert(() -> expectThat(Arrays.asList(value)).as("list").all(a -> {
+				for (int i=0; i<3; i++)
+					a.isNull();
+				expectEqual(0, formatCount[0]);
+			}),	"Multiple Failures (2 failures)",
+				"	org.opentest4j.AssertionFailedError: list=<[value]>",
+				"expected to be: null",
+				"but was       : [value]",
+				"	org.opentest4j.AssertionFailedError: 2 more failures suppressed"));
+	}
+	
+	
+	@Test public void testExpectAllStackCapture()
+	{
+		try
+		{
+			StackCapture.set(StackCapture.NONE);
+			AssertionError error = expectThrows(AssertionError.class, () -> expectAll(a -> a.expectTrue(false)));
+			expectEqual(0, error.getStackTrace().length);
+
+			StackCapture.set(StackCapture.TRIMMED);
+			error = expectThrows(AssertionError.class, () -> expectAll(a -> a.expectTrue(false)));
+			expectThat(error.getStackTrace()[0].getClassName()).not().startsWith("deepdive.");
+		}
+		finally
+		{
+			StackCapture.set(StackCapture.FULL);
+		}
+	}
+
+	
+	@Test public void testExpectAllSoftLimit()
+	{
+		int[] calls = new int[1];
+		
+		// errors above maxErrors are only counted 
+		Config.get().with(SoftLimit.NONE.withMaxErrors(2)).run(() -> 
+			failSoftAssert(() -> expectAll(a -> {
+				for (int i=0; i<5; i++)
+					a.expectEqual(0, i + 1);
+			}),	"Multiple Failures (3 failures)",
+				"	org.opentest4j.AssertionFailedError: expected: 0",
+				"but was : 1",
+				"	org.opentest4j.AssertionFailedError: expected: 0",
+				"but was : 2",
+				"	org.opentest4j.AssertionFailedError: 3 more failures suppressed"));
+
+		// soft mode stops after maxFailures, also when nested 
+		Config.get().with(SoftLimit.NONE.withMaxErrors(1).withMaxFailures(2)).run(() -> 
+			failSoftAssert(() -> expectAll(a -> {
+				a.expectAll(a2 -> {
+					for (int i=0; i<5; i++)
+					{
+						calls[0]++;
+						a2.expectTrue(false);
+					}
+				});
+				calls[0]++;
+			}),	"Multiple Failures (2 failures)",
+				"	org.opentest4j.AssertionFailedError: expected: true",
+				"but was : false",
+				"	org.opentest4j.AssertionFailedError: 1 more failure suppressed",
+				"soft mode stopped after 2 failures"));
+		expectEqual(2, calls[0]);
+		
+		// soft mode stops at the first failure after the time budget
+		Config.get().with(SoftLimit.NONE.withTimeBudget(Duration.ZERO)).run(() -> 
+			failSoftAssert(() -> expectAll(a -> {
+				Thread.sleep(1);
+				a.expectTrue(false);
+				a.expectTrue(false);
+			}),	"Multiple Failures (2 failures)",
+				"	org.opentest4j.AssertionFailedError: expected: true",
+				"but was : false",
+				"	org.opentest4j.AssertionFailedError: soft mode stopped after time budget of PT0S"));
+		
+		expectThrows(IllegalArgumentException.class, () -> SoftLimit.NONE.withMaxErrors(0));
+		expectEqual("maxErrors=1, maxFailures=2", SoftLimit.NONE.withMaxErrors(1).withMaxFailures(2).toString());
+	}
+
+	
+	@Test public void testExpectAllParallel()
+	{
+		List<List<Integer>> partitions = new ArrayList<>();
+		for (int p=0; p<8; p++)
+		{
+			List<Integer> partition = new ArrayList<>();
+			for (int i=0; i<100; i++)
+				partition.add(p * 100 + i);
+			partitions.add(partition);
+		}
+		
+		expectAllParallel(partitions, (a, partition) -> 
+			a.expectEqual(100, partition.size()));
+		
+		// errors are ordered by partition
+		failSoftAssert(() -> expectAllParallel(partitions, (a, partition) -> {
+			if (partition.get(0) % 300 == 0)
+				a.expectEqual(-1, partition.get(0));
+		}),	"Multiple Failures (3 failures)",
+			"	org.opentest4j.AssertionFailedError: partition[0]",
+			"expected: -1",
+			"but was : 0",
+			"	org.opentest4j.AssertionFailedError: partition[3]",
+			"expected: -1",
+			"but was : 300",
+			"	org.opentest4j.AssertionFailedError: partition[6]",
+			"expected: -1",
+			"but was : 600");
+		
+		// the SoftLimit applies to all partitions together, the first errors in partition order are reported
+		Config.get().with(SoftLimit.NONE.withMaxErrors(2)).run(() -> {
+			for (int run=0; run<10; run++)
+			{
+				failSoftAssert(() -> expectAllParallel(partitions, (a, partition) -> {
+					if (partition.get(0) > 0)
+						a.expectEqual(-1, partition.get(0));
+				}),	"Multiple Failures (3 failures)",
+					"	org.opentest4j.AssertionFailedError: partition[1]",
+					"expected: -1",
+					"but was : 100",
+					"	org.opentest4j.AssertionFailedError: partition[2]",
+					"expected: -1",
+					"but was : 200",
+					"	org.opentest4j.AssertionFailedError: 5 more failures suppressed");
+			}
+		});
+		Config.get().with(SoftLimit.NONE.withMaxFailures(3)).run(() -> {
+			MultipleFailuresError error = expectThrows(MultipleFailuresError.class, () -> expectAllParallel(partitions, 
+				(a, partition) -> partition.forEach(i -> a.expectTrue(false))));
+			List<Throwable> failures = error.getFailures();
+			expectEqual("soft mode stopped after 3 failures", failures.get(failures.size() - 1).getMessage());
+		});
+
+		// consumers use the Config of the caller
+		try (Config.Scope scope = Config.get().with(StackCapture.NONE).open())
+		{
+			AssertionError error = expectThrows(AssertionError.class, () -> expectAllParallel(Arrays.asList(
+				a -> a.expectTrue(true),
+				a -> a.expectTrue(StackCapture.get() != StackCapture.NONE))));
+			expectEqual(0, error.getStackTrace().length);
+		}
+
+		// within expectAll the errors are added to the enclosing soft mode 
+		failSoftAssert(() -> expectAll(a -> {
+			a.expectTrue(false);
+			a.expectAllParallel(Arrays.asList(a2 -> a2.expectNull("x")));
+		}),	"Multiple Failures (2 failures)",
+			"	org.opentest4j.AssertionFailedError: expected: true",
+			"but was : false",
+			"	org.opentest4j.AssertionFailedError: partition[0]",
+			"expected to be: null",
+			"but was       : x");
+		
+		// failures of the partitions are counted once by the enclosing soft mode
+		Config.get().with(SoftLimit.NONE.withMaxErrors(2)).run(() -> 
+			failSoftAssert(() -> expectAll(a -> {
+				a.expectTrue(false);
+				a.expectAllParallel(partitions, (a2, partition) -> a2.expectEqual(-1, partition.get(0)));
+				a.expectTrue(false);
+			}),	"Multiple Failures (3 failures)",
+				"	org.opentest4j.AssertionFailedError: expected: true",
+				"but was : false",
+				"	org.opentest4j.AssertionFailedError: partition[0]",
+				"expected: -1",
+				"but was : 0",
+				"	org.opentest4j.AssertionFailedError: 8 more failures suppressed"));
+		
+		// and stop the enclosing soft mode
+		int[] calls = new int[1];
+		Config.get().with(SoftLimit.NONE.withMaxErrors(1).withMaxFailures(3)).run(() -> {
+			MultipleFailuresError error = expectThrows(MultipleFailuresError.class, () -> expectAll(a -> {
+				a.expectTrue(false);
+				a.expectAllParallel(partitions, (a2, partition) -> a2.expectEqual(-1, partition.get(0)));
+				calls[0]++;
+			}));
+			List<Throwable> failures = error.getFailures();
+			expectEqual(2, failures.size());
+			expectThat(failures.get(1).getMessage()).endsWith("soft mode stopped after 3 failures");
+		});
+		expectEqual(0, calls[0]);
+	}
+
+	
 	@Test public void testExpectEqual()
 	{
 		expectEqual(true, true);
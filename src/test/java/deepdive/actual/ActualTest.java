@@ -18,9 +18,15 @@ package deepdive.actual;
 
 import static deepdive.ExpectThat.*;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import org.junit.Test;
+import deepdive.actual.java.lang.IntegerActual;
 import deepdive.actual.java.lang.StringActual;
+import deepdive.actual.java.util.ListActual;
+import deepdive.impl.FieldComparison;
 
 
 /**
@@ -46,6 +52,43 @@ public class ActualTest extends AbstractActualTest
 	}
 
 
+	@Test public void testChild()
+	{
+		ListActual<String,List<String>,?,?> list = expectThat(Arrays.asList("a", "b"));
+		
+		// by default children are not reused
+		Actual<String,?,?> elem0 = list.elem(0);
+		expectSame(list, elem0.equal("a").back());
+		expectFalse(list.elem(1) == elem0);
+		
+		// if enabled a released child is reused for a child of the same class
+		list.reuseChildren();
+		elem0 = list.elem(0);
+		expectSame(list, elem0.equal("a").back());
+		Actual<String,?,?> elem1 = list.elem(1);
+		expectSame(elem0, elem1);
+		elem1.equal("b");
+		
+		// a child which was not released is not reused
+		expectFalse(list.elem(1) == elem1);
+		
+		// children inherit reuse
+		StringActual<?,?> string = expectThat("ab", "c").reuseChildren().elem(0);
+		IntegerActual<?,?> length = string.length();
+		length.equal(2).back();
+		expectSame(length, string.length());
+		
+		// the lazily built name is included in failure messages 
+		failAssert(() -> list.elem(1).equal("x")).msgLines(
+			"ArrayList=<[a, b]>.elem[1]=<b>",
+			"expected: x",
+			"but was : b");
+		failAssert(() -> expectThat(Collections.singletonMap("k", null)).value("k").not().isNull()).msgLines(
+			"SingletonMap=<{k=null}>.value(k)=<null>",
+			"expected not to be: null");
+	}
+	
+	
 	@Test public void testContained()
 	{
 		StringActual<?,?> a = expectThat("b")
@@ -128,4 +171,85 @@ public class ActualTest extends AbstractActualTest
 				.back()
 			.size(1);
 	}
+
+
+	@Test public void testEqualFieldByField()
+	{
+		Person ann1 = new Person("ann", 1.0, new Address("10115"));
+		Person bob1 = new Person("bob", 2.0, new Address("80331"));
+		ann1.friends.add(bob1);
+		bob1.friends.add(ann1);
+
+		Person ann2 = new Person("ann", 1.0, new Address("10115"));
+		Person bob2 = new Person("bob", 2.05, new Address("80333"));
+		ann2.friends.add(bob2);
+		bob2.friends.add(ann2);
+
+		expectThatObject(new Address("10115"))
+			.not().equal(new Address("10115"))
+			.equalFieldByField(new Address("10115"))
+			.not().equalFieldByField(new Address("80331"))
+			.not().equalFieldByField(null)
+			.not().equalFieldByField("10115");
+		
+		// cycles
+		expectThatObject(ann2)
+			.equalFieldByField(ann2)
+			.not().equalFieldByField(ann1)
+			.equalFieldByField(ann1, FieldComparison.DEFAULT
+				.ignoring("friends[0].address.zip")
+				.comparing(Double.class, (d1, d2) -> Math.abs(d1 - d2) <= 0.1 ? 0 : d1.compareTo(d2)))
+			.not().equalFieldByField(ann1, FieldComparison.DEFAULT.ignoring("friends[0].address.zip"));
+
+		failAssert(() -> expectThatObject(ann2).equalFieldByField(ann1)).msgLines(
+			"Person=<ann>",
+			"expected: ann (deepdive.actual.ActualTest.Person@" + Integer.toHexString(System.identityHashCode(ann1)) + ")",
+			"but was : ann (deepdive.actual.ActualTest.Person@" + Integer.toHexString(System.identityHashCode(ann2)) + ")",
+			"differences",
+			"- expected friends[0].score      : 2.0",
+			"- but was  friends[0].score      : 2.05",
+			"- expected friends[0].address.zip: 80331",
+			"- but was  friends[0].address.zip: 80333");
+	}
+	
+	
+	private static class Address
+	{
+		public Address(String zip)
+		{
+			this.zip = zip;
+		}
+		
+		
+		@Override public String toString()
+		{
+			return zip;
+		}
+		
+		
+		private final String zip;
+	}
+	
+	
+	private static class Person
+	{
+		public Person(String name, double score, Address address)
+		{
+			this.name 	 = name;
+			this.score	 = score;
+			this.address = address;
+		}
+		
+		
+		@Override public String toString()
+		{
+			return name;
+		}
+		
+		
+		private final String name;
+		private final double score;
+		private final Address address;
+		private final List<Person> friends = new ArrayList<>();
+	}
 }
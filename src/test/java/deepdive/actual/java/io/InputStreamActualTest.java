@@ -19,6 +19,8 @@ package deepdive.actual.java.io;
 import static deepdive.ExpectThat.*;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import org.junit.Test;
 import deepdive.actual.AbstractActualTest;
 
@@ -30,4 +32,61 @@ public class InputStreamActualTest extends AbstractActualTest
 		byte[] bytes = "abc".getBytes();
 		expectThat(new ByteArrayInputStream(bytes)).read().bytes().equal(bytes);
 	}
+
+
+	@Test public void testSameAs() throws IOException
+	{
+		byte[] bytes = new byte[20000];
+		for (int i=0; i<bytes.length; i++)
+			bytes[i] = (byte)i;
+		
+		expectThat(new ByteArrayInputStream(bytes)).read().sameAs(bytes.clone());
+		expectThat(new ByteArrayInputStream(bytes)).read().sameAs(new ByteArrayInputStream(bytes));
+		expectThat(new ByteArrayInputStream(bytes)).read().max(100).sameAs(Arrays.copyOf(bytes, 100));
+		
+		byte[] other = bytes.clone();
+		other[17000] = 1;
+		failAssert(() -> expectThat(new Content(bytes, bytes.length)).read().sameAs(other)).msgLines(
+			"Content=<content>.sameAs",
+			"content differs at offset: 17000",
+			"expected                 : 0x01",
+			"but was                  : 0x68");
+		failAssert(() -> expectThat(new Content(bytes, bytes.length)).read().sameAs(Arrays.copyOf(bytes, 8192))).msgLines(
+			"Content=<content>.sameAs",
+			"content differs at offset: 8192",
+			"expected                 : end of content",
+			"but was                  : 0x00");
+		failAssert(() -> expectThat(new Content(bytes, 10)).read().sameAs(bytes)).msgLines(
+			"Content=<content>.sameAs",
+			"content differs at offset: 10",
+			"expected                 : 0x0a",
+			"but was                  : end of content");
+	}
+	
+	
+	private static class Content extends ByteArrayInputStream
+	{
+		public Content(byte[] bytes, int length)
+		{
+			super(bytes, 0, length);
+		}
+		
+		
+		@Override public String toString()
+		{
+			return "content";
+		}
+	}
+	
+	
+	@Test public void testDigest() throws IOException
+	{
+		byte[] bytes = "abc".getBytes(StandardCharsets.US_ASCII);
+		expectThat(new ByteArrayInputStream(bytes)).read()
+			.sha256().equal("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad");
+		expectThat(new ByteArrayInputStream(bytes)).read()
+			.digest("MD5").equal("900150983cd24fb0d6963f7d28e17f72");
+		expectThat(new ByteArrayInputStream(bytes)).read()
+			.crc32().equal(0x352441c2L);
+	}
 }
@@ -20,6 +20,7 @@ import static deepdive.ExpectThat.*;
 import java.io.IOException;
 import java.io.StringReader;
 import org.junit.Test;
+import deepdive.actual.java.lang.StringActual;
 import deepdive.actual.AbstractActualTest;
 
 
@@ -30,4 +31,139 @@ public class ReaderActualTest extends AbstractActualTest
 		StringReader r = new StringReader("abc");
 		expectThat(r).read().to().string().equal("abc");
 	}
+
+
+	@Test public void testLines() throws IOException
+	{
+		for (String s : new String[] { "", "\n", "abc", "a\n\n", "\n\na", "a\r\n\r\nb\r", "a\rb\nc" })
+		{
+			String[] expected = StringActual.splitLines(s);
+			expectThat(new StringReader(s)).read().to().lines().elems(expected);
+			expectThat(new StringReader(s)).read().to().lineIterator().elems$(expected);
+			expectThat(new StringReader(s)).read().to().lineStream().elems$(expected);
+		}
+
+		StringBuilder sb = new StringBuilder();
+		for (int i=1; i<=10000; i++)
+			sb.append(i % 100 == 0 ? "ERROR " : "INFO ").append(i).append("\r\n");
+		String content = sb.toString();
+
+		expectThat(new StringReader(content)).read().to().countLines("ERROR \\d+").equal(100L);
+		expectThat(new StringReader(content)).read().to().allLinesMatch("(INFO|ERROR) \\d+");
+		expectThat(new StringReader(content)).read().to().noLineContains("WARN");
+		expectThat(new StringReader(content)).read().to().line(4711).equal("INFO 4711");
+
+		failAssert(() -> expectThat(new LogReader(content)).read().to().allLinesMatch("INFO \\d+")).msgLines(
+			"LogReader=<log>.allLinesMatch",
+			"expected all lines to match pattern: INFO \\d+",
+			"but line 100 was                   : ERROR 100");
+
+		failAssert(() -> expectThat(new LogReader(content)).read().to().noLineContains("ERROR")).msgLines(
+			"LogReader=<log>.noLineContains",
+			"expected no line to contain: ERROR",
+			"but line 100 was           : ERROR 100");
+
+		failAssert(() -> expectThat(new LogReader(content)).read().max(20).to().line(4)).msgLines(
+			"LogReader=<log>.line",
+			"expected a line with number: 4",
+			"but number of lines was    : 3");
+
+		// lines are read lazily, an owned reader is closed when a terminal assertion or back() completes
+		LogReader reader = new LogReader(content);
+		CharContentBuilder.of("back", true, () -> reader).to().lineIterator().next("INFO 1").back();
+		expectTrue(reader.closed);
+		LogReader reader2 = new LogReader(content);
+		CharContentBuilder.of("back", true, () -> reader2).to().lineIterator().skip(2).not().allMatch$(line -> line.startsWith("INFO"));
+		expectTrue(reader2.closed);
+		LogReader reader3 = new LogReader(content);
+		CharContentBuilder.of("back", true, () -> reader3).to().lineStream().anyMatch$(line -> line.startsWith("ERROR"));
+		expectTrue(reader3.closed);
+		LogReader reader4 = new LogReader(content);
+		CharContentBuilder.of("back", true, () -> reader4).to().lineStream().limit(2).collectTo().list().elems("INFO 1", "INFO 2");
+		expectTrue(reader4.closed);
+	}
+	
+	
+	@Test public void testSameLinesAs() throws IOException
+	{
+		StringBuilder sb = new StringBuilder();
+		for (int i=1; i<=1000; i++)
+			sb.append("line ").append(i).append('\n');
+		String golden = sb.toString();
+
+		expectThat(new StringReader(golden)).read().to().sameLinesAs(new StringReader(golden));
+		String lenient = golden.replace("\n", "  \r\n") + "\r\n\r\n";
+		expectThat(new StringReader(lenient)).read().to().sameLinesAs(new StringReader(golden), true);
+		expectThat(new StringReader("a\n   \n")).read().to().sameLinesAs(new StringReader("a\n"), true);
+		expectThat(new StringReader("a\n")).read().to().sameLinesAs(new StringReader("a\n \t\n\n  "), true);
+		failAssert(() -> expectThat(new StringReader("a\n \nb")).read().to().sameLinesAs(new StringReader("a\n"), true));
+
+		failAssert(() -> expectThat(new LogReader(lenient)).read().to().sameLinesAs(new StringReader(golden))).msgLines(
+			"LogReader=<log>.sameLinesAs",
+			"content differs at line 1, column: 7",
+			"expected                         : line 1\\n",
+			"but was                          : line 1  \\r\\n");
+
+		String actual = golden.replace("line 500\n", "line 5OO\n");
+		failAssert(() -> expectThat(new LogReader(actual)).read().to().sameLinesAs(new StringReader(golden), true)).msgLines(
+			"LogReader=<log>.sameLinesAs",
+			"content differs at line 500, column: 7",
+			"line 499                           : line 499",
+			"expected                           : line 500",
+			"but was                            : line 5OO");
+
+		failAssert(() -> expectThat(new LogReader(golden)).read().max(14).to().sameLinesAs(new StringReader(golden))).msgLines(
+			"LogReader=<log>.sameLinesAs",
+			"content differs at line 3, column: 1",
+			"line 2                           : line 2\\n",
+			"expected                         : line 3\\n",
+			"but was                          : end of content");
+	}
+	
+	
+	@Test public void testContainsAll() throws IOException
+	{
+		StringBuilder sb = new StringBuilder();
+		for (int i=0; i<10000; i++)
+			sb.append("line ").append(i).append('\n');
+		String content = sb.toString();
+
+		expectThat(new StringReader(content)).read().to().containsAll("line 0\n", "line 4711\n", "line 9999\n");
+		expectThat(new StringReader(content)).read().to().containsNone("line 10000", "\r");
+
+		failAssert(() -> expectThat(new LogReader(content)).read().to().containsAll("line 1", "line 12345")).msgLines(
+			"LogReader=<log>.containsAll",
+			"expected to contain all: [line 1, line 12345]",
+			"missing                : [line 12345]");
+
+		failAssert(() -> expectThat(new LogReader(content)).read().max(100).to().containsNone("line 9", "line 99")).msgLines(
+			"LogReader=<log>.containsNone",
+			"expected to contain none of: [line 9, line 99]",
+			"but contains [63]          : line 9");
+	}
+	
+	
+	private static class LogReader extends StringReader
+	{
+		public LogReader(String content)
+		{
+			super(content);
+		}
+
+
+		@Override public void close()
+		{
+			super.close();
+			closed = true;
+		}
+		
+		
+		@Override public String toString()
+		{
+			return "log";
+		}
+		
+		
+		private boolean closed;
+	}
 }
@@ -68,4 +68,70 @@ public class DoubleArrayActualTest extends AbstractActualTest
 			"- expected [1]: 6.4",
 			"- but was  [1]: 6.5");
 	}
+	
+	
+	@Test public void testElemsDelta()
+	{
+		expectThat(new double[] { 1.0, 2.0, 3.0 })
+			.elems(new double[] { 1.05, 1.95, 3.0 }, 0.1)
+			.not().elems(new double[] { 1.05, 1.95, 3.0 }, 0.01)
+			.not().elems(new double[] { 1.0, 2.0 }, 0.1);
+
+		failAssert(() -> expectThat(new double[] { 1.0, 2.0, 3.0, 4.0 }).elems(new double[] { 1.05, 2.5, 3.5, 4.0 }, 0.1)).msgLines(
+			"double[]=<[1.0, 2.0, 3.0, 4.0]>",
+			"expected    : [1.05, 2.5, 3.5, 4.0]",
+			"within delta: 0.1",
+			"but was     : [1.0, 2.0, 3.0, 4.0]",
+			"differences",
+			"- expected [1..2]: [2.5, 3.5]",
+			"- but was  [1..2]: [2.0, 3.0]");
+	}
+	
+	
+	@Test public void testContainsIndexed()
+	{
+		// large enough to use the hash index, elements are compared with ==
+		double[] array = new double[100];
+		for (int i=0; i<array.length; i++)
+			array[i] = i * 0.5;
+		array[99] = Double.NaN;
+		
+		expectThat(array).contains()
+			.allOf(0.0, -0.0, 0.5, 48.5)
+			.noneOf(Double.NaN, 0.25, -1.0, 49.5)
+			.not().someOf(Double.NaN, 0.25, -1.0, 49.5);
+
+		// exactly compares by bit pattern, with or without NaN elements
+		expectThat(new double[] { -0.0 }).contains()
+			.exactly(-0.0)
+			.not().exactly(0.0);
+		expectThat(new double[] { 0.0, Double.NaN }).contains()
+			.exactly(Double.NaN, 0.0)
+			.not().exactly(Double.NaN, -0.0);
+		expectThat(new float[] { -0.0f, 1.0f }).contains()
+			.exactly(1.0f, -0.0f)
+			.not().exactly(1.0f, 0.0f);
+		failAssert(() -> expectThat(new double[] { -0.0 }).contains().exactly(0.0));
+		failAssert(() -> expectThat(new float[] { 0.0f, 1.0f }).contains().exactly(-0.0f, 1.0f));
+	}
+	
+	
+	@Test public void testElemsInAnyOrder()
+	{
+		// elements are compared by bit pattern, like in elems()
+		expectThat(new double[] { 1.0, Double.NaN, Double.NaN })
+			.elems(1.0, Double.NaN, Double.NaN)
+			.elemsInAnyOrder(Double.NaN, 1.0, Double.NaN)
+			.not().elemsInAnyOrder(Double.NaN, 1.0, 1.0);
+		expectThat(new double[] { 0.0, -0.0 })
+			.elemsInAnyOrder(-0.0, 0.0)
+			.not().elemsInAnyOrder(0.0, 0.0);
+
+		failAssert(() -> expectThat(new double[] { Double.NaN, 0.0 }).elemsInAnyOrder(-0.0, 0.0, 1.0)).msgLines(
+			"double[]=<[NaN, 0.0]>",
+			"expected to have elems in any order: [-0.0, 0.0, 1.0]",
+			"missing (1x)                       : -0.0",
+			"missing (1x)                       : 1.0",
+			"unexpected (1x)                    : NaN");
+	}
 }
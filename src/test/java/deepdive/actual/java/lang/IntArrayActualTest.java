@@ -17,6 +17,9 @@ package deepdive.actual.java.lang;
 
 
 import static deepdive.ExpectThat.*;
+import java.util.Comparator;
+import deepdive.impl.Config;
+import deepdive.impl.Parallelism;
 import org.junit.Test;
 import deepdive.actual.AbstractActualTest;
 
@@ -64,12 +67,106 @@ public class IntArrayActualTest extends AbstractActualTest
 			"expected: [4, 6]",
 			"but was : [1, 4, 7]",
 			"differences",
-			"- expected [0]  : 4",
-			"- but was  [0]  : 1",
-			"- expected [1]  : 6",
-			"- but was  [1]  : 4",
 			"- expected len  : 2",
 			"- but was  len  : 3",
-			"- unexpected [2]: 7");
+			"- unexpected [0]: 1",
+			"- expected [1]  : 6",
+			"- but was  [2]  : 7");
+	}
+	
+	
+	@Test public void testContainsIndexed()
+	{
+		// large enough to use the hash index
+		int[] array = new int[1000];
+		int[] expected = new int[array.length / 2];
+		for (int i=0; i<array.length; i++)
+		{
+			array[i] = (array.length - i) * 7;
+			if (i % 2 == 0)
+				expected[i / 2] = array[i];
+		}
+		int[] sorted = array.clone();
+		expectThat(sorted).sort();
+		
+		expectThat(array).contains()
+			.allOf(expected)
+			.noneOf(-1, 0, 1, 2, 3, 7007)
+			.someOf(-1, 1, 2, 7)
+			.exactly(sorted)
+			.not().exactly(expected);
+		
+		int[] small = new int[32];
+		for (int i=0; i<small.length; i++)
+			small[i] = i;
+		failAssert(() -> expectThat(small).contains().allOf(0, 7, 32, 14, -1)).msgLines(
+			"int[]=<[0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31]>",
+			"expected to contain: [32, -1]");
+		failAssert(() -> expectThat(new int[] { 1, 2, 3 }).contains().exactly(1, 2, 2, 4)).msgLines(
+			"int[]=<[1, 2, 3]>.exactly",
+			"expected: [1, 2, 4]",
+			"but was : [1, 2, 3]",
+			"differences",
+			"- missing   : 4",
+			"- unexpected: 3");
+	}
+
+
+	@Test public void testElemsInAnyOrder()
+	{
+		int[] actual = new int[1_000_000];
+		int[] expected = new int[actual.length];
+		for (int i=0; i<actual.length; i++)
+		{
+			actual[i] = i % 1000;
+			expected[expected.length - 1 - i] = i % 1000;
+		}
+		expectThat(actual)
+			.elemsInAnyOrder(expected)
+			.not().elemsInAnyOrder(1, 2, 3);
+		expectThat(new byte[1_000_000]).elemsInAnyOrder(new byte[1_000_000]);
+
+		failAssert(() -> expectThat(new int[] { 0, 1, 1, 2 }).elemsInAnyOrder(2, 0, 0, 1, 3)).msgLines(
+			"int[]=<[0, 1, 1, 2]>",
+			"expected to have elems in any order: [2, 0, 0, 1, 3]",
+			"missing (1x)                       : 0",
+			"unexpected (1x)                    : 1",
+			"missing (1x)                       : 3");
+	}
+
+
+	@Test public void testOrder()
+	{
+		expectThat(new int[0]).isSorted().isStrictlyIncreasing().isMonotonic();
+		expectThat(new int[] { 1, 2, 2, 3 })
+			.isSorted()
+			.isMonotonic()
+			.not().isStrictlyIncreasing()
+			.isSorted(Comparator.naturalOrder());
+		expectThat(new int[] { 3, 3, 2, 1 }).isMonotonic().not().isSorted().isSorted(Comparator.reverseOrder());
+
+		failAssert(() -> expectThat(new int[] { 1, 1, 2, 1 }).isMonotonic()).msgLines(
+			"int[]=<[1, 1, 2, 1]>",
+			"expected to be monotonic",
+			"but elems [2..3] are: [2, 1]");
+		failAssert(() -> expectThat(new int[] { 1, 2, 2 }).isStrictlyIncreasing()).msgLines(
+			"int[]=<[1, 2, 2]>",
+			"expected to be strictly increasing",
+			"but elems [1..2] are: [2, 2]");
+		failAssert(() -> expectThat(new int[] { 1, 2 }).not().isSorted()).msgLines(
+			"int[]=<[1, 2]>",
+			"expected not to be sorted");
+		
+		// large arrays are checked in parallel and report the first violation
+		int[] large = new int[1_000_000];
+		for (int i=0; i<large.length; i++)
+			large[i] = i;
+		large[900_000] = large[600_001] = large[300_001] = 0;
+		Config.get().with(Parallelism.DEFAULT.withThreshold(1000)).run(() -> {
+			expectThat(new int[] { 5, 4, 3 }).isMonotonic();
+			failAssert(() -> expectThat(large).isSorted()).msgLines()
+				.elem(1).equal("expected to be sorted").back()
+				.elem(2).equal("but elems [300000..300001] are: [300000, 0]");
+		});
 	}
 }
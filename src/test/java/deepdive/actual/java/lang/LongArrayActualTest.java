@@ -68,12 +68,10 @@ public class LongArrayActualTest extends AbstractActualTest
 			"expected: [4, 6]",
 			"but was : [1, 4, 7]",
 			"differences",
-			"- expected [0]  : 4",
-			"- but was  [0]  : 1",
-			"- expected [1]  : 6",
-			"- but was  [1]  : 4",
 			"- expected len  : 2",
 			"- but was  len  : 3",
-			"- unexpected [2]: 7");
+			"- unexpected [0]: 1",
+			"- expected [1]  : 6",
+			"- but was  [2]  : 7");
 	}
 }
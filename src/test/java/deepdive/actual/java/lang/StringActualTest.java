@@ -160,4 +160,30 @@ public class StringActualTest extends AbstractActualTest
 			"split(abc, b)=<It([a, c], 0)>.hasNext",
 			"expected not: true");
 	}
+	
+	
+	@Test public void testContainsAll()
+	{
+		StringActual<?,?> log = expectThat("ushers and his heroes")
+			.containsAll("she", "he", "hers", "his", "")
+			.containsNone("x", "shy", "hero!")
+			.not().containsAll("she", "shy")
+			.not().containsNone("x", "his");
+
+		failAssert(() -> log.containsAll("her", "shy", "hero", "x")).msgLines(
+			"String=<ushers and his heroes>",
+			"expected to contain all: [her, shy, hero, x]",
+			"missing                : [shy, x]");
+
+		failAssert(() -> log.containsNone("x", "his", "rs", "she")).msgLines(
+			"String=<ushers and his heroes>",
+			"expected to contain none of: [x, his, rs, she]",
+			"but contains [11]          : his",
+			"but contains [4]           : rs",
+			"but contains [1]           : she");
+
+		failAssert(() -> log.not().containsAll("he", "his")).msgLines(
+			"String=<ushers and his heroes>",
+			"expected not to contain all: [he, his]");
+	}
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2021 jdlib, https://github.com/jdlib
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package deepdive.actual.java.nio.file;
+
+
+import static deepdive.ExpectThat.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.junit.Test;
+import deepdive.actual.AbstractActualTest;
+
+
+/**
+ * Tests {@link MappedContentActual}.
+ */
+public class MappedContentActualTest extends AbstractActualTest
+{
+	@Test public void test() throws Exception
+	{
+		Path dir = Files.createTempDirectory("mapped");
+		try
+		{
+			Path file 	= write(dir, "file", "abcdef");
+			Path same 	= write(dir, "same", "abcdef");
+			Path other 	= write(dir, "other", "abcxef");
+			Path longer	= write(dir, "longer", "abcdefg");
+			
+			expectThat(file).mapped()
+				.equalContent(same)
+				.not().equalContent(other)
+				.startsWith(bytes("abc"))
+				.not().startsWith(bytes("abd"))
+				.containsBytes(bytes("def"))
+				.containsBytes(bytes(""))
+				.not().containsBytes(bytes("fg"))
+				.regionEqual(2, bytes("cde"))
+				.regionEqual(1, longer, 1, 5)
+				.not().regionEqual(5, bytes("fg"));
+			expectThat(file.toFile()).mapped()
+				.equalContent(same);
+			
+			String context = file.getClass().getSimpleName() + "=<" + file + ">.mapped=<" + file + ">";			
+			failAssert(() -> expectThat(file).mapped().equalContent(other)).msgLines(
+				context,
+				"expected to have equal content as: " + other,
+				"content differs at offset        : 3",
+				"expected                         : 0x78",
+				"but was                          : 0x64");
+			failAssert(() -> expectThat(file).mapped().equalContent(longer)).msgLines(
+				context,
+				"expected to have equal content as: " + longer,
+				"content differs at offset        : 6",
+				"expected                         : 0x67",
+				"but was                          : end of content");
+			failAssert(() -> expectThat(file).mapped().regionEqual(4, bytes("efg"))).msgLines(
+				context,
+				"expected to have region equal to: [101, 102, 103]",
+				"content differs at offset       : 6",
+				"expected                        : 0x67",
+				"but was                         : end of content");
+			failAssert(() -> expectThat(file).mapped().not().startsWith(bytes("ab"))).msgLines(
+				context,
+				"expected not to start with: [97, 98]");
+		}
+		finally
+		{
+			try (Stream<Path> files = Files.list(dir))
+			{
+				for (Path p : (Iterable<Path>)files::iterator)
+					Files.delete(p);
+			}
+			Files.delete(dir);
+		}
+	}
+	
+	
+	private static Path write(Path dir, String name, String content) throws Exception
+	{
+		return Files.write(dir.resolve(name), bytes(content));
+	}
+	
+	
+	private static byte[] bytes(String s)
+	{
+		return s.getBytes(StandardCharsets.US_ASCII);
+	}
+}
@@ -19,6 +19,7 @@ package deepdive.actual.java.util;
 import static deepdive.ExpectThat.*;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Iterator;
 import org.junit.Test;
 import deepdive.actual.AbstractActualTest;
 
@@ -42,4 +43,48 @@ public class IteratorActualTest extends AbstractActualTest
 			.skip(2)
 			.elems$("c");
 	}
+
+
+	@Test public void testStreaming()
+	{
+		List<String> list = Arrays.asList("a", "b", "c"); 
+		expectThat(list.iterator()).sameElemsAs$(list);
+		expectThat(list.iterator()).sameElemsAs$(list.stream());
+		expectThat(list.iterator()).not().sameElemsAs$(Arrays.asList("a", "b", "x").iterator());
+		expectThat(list.iterator()).allMatch$(s -> s.length() == 1);
+		expectThat(list.iterator()).count$(3);
+
+		failAssert(() -> expectThat(list.iterator()).as("").sameElemsAs$(Arrays.asList("a", "x"))).msgLines(
+			".elems",
+			"expected [1]: x",
+			"but was  [1]: b");
+
+		failAssert(() -> expectThat(list.iterator()).as("").not().allMatch$(s -> s.length() == 1)).msgLines(
+			".allMatch",
+			"expected not all elems to match");
+
+		failAssert(() -> expectThat(list.iterator()).as("").allMatch$(s -> !s.equals("c"))).msgLines(
+			".allMatch",
+			"expected all elems to match",
+			"but elem [2] did not: c");
+
+		failAssert(() -> expectThat(list.iterator()).as("").count$(1)).msgLines(
+			".count",
+			"expected              : 1",
+			"but has more elems [1]: b");
+	}
+
+
+	@Test public void testOrder()
+	{
+		expectThat(Arrays.asList(1, 2, 3).iterator()).isStrictlyIncreasing$();
+		expectThat(Arrays.asList(3, 2, 2).iterator()).isMonotonic$();
+		
+		// iteration stops at the violation
+		Iterator<Integer> it = Arrays.asList(1, 3, 2, 4).iterator();
+		failAssert(() -> expectThat(it).as("").isSorted$()).msgLines(
+			"expected to be sorted",
+			"but elems [1..2] are: [3, 2]");
+		expectThat(it.next()).equal(4);
+	}
 }
@@ -18,8 +18,11 @@ package deepdive.actual.java.util;
 
 import static deepdive.ExpectThat.*;
 import static deepdive.actual.Narrows.*;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Comparator;
 import org.junit.Test;
 import deepdive.actual.AbstractActualTest;
 import deepdive.actual.Actual;
@@ -93,11 +96,9 @@ public class ListActualTest extends AbstractActualTest
 			"expected: [b]",
 			"but was : [a, b]",
 			"differences",
-			"- expected [0]  : b",
-			"- but was  [0]  : a",
 			"- expected size : 1",
 			"- but was  size : 2",
-			"- unexpected [1]: b");
+			"- unexpected [0]: a");
 
 		failAssert(() -> expectThat(list).empty()).msgLines(
 			"ArrayList=<[a, b]>.size",
@@ -128,6 +129,89 @@ public class ListActualTest extends AbstractActualTest
 	}
 
 
+	@SuppressWarnings("boxing")
+	@Test public void testContainsIndexed()
+	{
+		List<Integer> list = new ArrayList<>();
+		List<Integer> expected = new ArrayList<>();
+		for (int i=0; i<1000; i++)
+		{
+			list.add(i);
+			if (i % 10 == 0)
+				expected.add(i);
+		}
+		expectThat(list).contains()
+			.allOf(expected)
+			.noneOf(-1, 1000, 2000, null)
+			.someOf(-1, 1000, 2000, 999)
+			.exactly(new HashSet<>(list));
+
+		failAssert(() -> expectThat(Arrays.asList(1, 2, 3)).contains().allOf(1, 4, 2, 5)).msgLines(
+			"ArrayList=<[1, 2, 3]>",
+			"expected to contain: [4, 5]");
+
+		// elements which cannot be hashed are looked up without index
+		List<Unhashable> unhashable = Arrays.asList(new Unhashable("a"), new Unhashable("b"));
+		expectThat(unhashable).contains()
+			.allOf(new Unhashable("a"), new Unhashable("b"), new Unhashable("a"), new Unhashable("b"))
+			.noneOf(new Unhashable("c"), new Unhashable("d"), new Unhashable("e"), new Unhashable("f"));
+		List<Object> objects = new ArrayList<>(list);
+		expectThat(objects).contains()
+			.noneOf(new Unhashable("a"), -1, -2, -3);
+
+		// elements which override equals() but not hashCode() are looked up without index
+		List<EqualsOnly> equalsOnly = Arrays.asList(new EqualsOnly("a"), new EqualsOnly("b"), new EqualsOnly("c"), new EqualsOnly("d"));
+		expectThat(equalsOnly).contains()
+			.allOf(new EqualsOnly("a"), new EqualsOnly("b"), new EqualsOnly("c"), new EqualsOnly("d"))
+			.noneOf(new EqualsOnly("e"), new EqualsOnly("f"), new EqualsOnly("g"), new EqualsOnly("h"))
+			.someOf(new EqualsOnly("e"), new EqualsOnly("f"), new EqualsOnly("g"), new EqualsOnly("a"));
+		expectThat(objects).contains()
+			.noneOf(-1, -2, -3, new EqualsOnly("a"));
+	}
+
+
+	private static class EqualsOnly
+	{
+		public EqualsOnly(String s)
+		{
+			s_ = s;
+		}
+
+
+		@Override public boolean equals(Object other)
+		{
+			return (other instanceof EqualsOnly) && s_.equals(((EqualsOnly)other).s_);
+		}
+
+
+		private final String s_;
+	}
+
+
+	private static class Unhashable
+	{
+		public Unhashable(String s)
+		{
+			s_ = s;
+		}
+
+
+		@Override public boolean equals(Object other)
+		{
+			return (other instanceof Unhashable) && s_.equals(((Unhashable)other).s_);
+		}
+
+
+		@Override public int hashCode()
+		{
+			throw new UnsupportedOperationException();
+		}
+
+
+		private final String s_;
+	}
+
+
 	@SuppressWarnings("boxing")
 	@Test public void testElemAccess()
 	{
@@ -138,4 +222,32 @@ public class ListActualTest extends AbstractActualTest
 //		.elem(0).narrow(Narrows.string()).isLowerCase().back()
 //		.elem(1).narrow(Narrows.string()).isLowerCase().back();
 	}
+
+
+	@Test public void testElemsInAnyOrder()
+	{
+		List<String> list = Arrays.asList("a", "b", "a", null);
+		expectThat(list)
+			.elemsInAnyOrder(null, "a", "b", "a")
+			.not().elemsInAnyOrder("a", "b", null);
+
+		failAssert(() -> expectThat(list).elemsInAnyOrder("b", "b", "a", "c", null)).msgLines(
+			"ArrayList=<[a, b, a, null]>",
+			"expected to have elems in any order: [b, b, a, c, null]",
+			"missing (1x)                       : b",
+			"unexpected (1x)                    : a",
+			"missing (1x)                       : c");
+	}
+
+
+	@Test public void testOrder()
+	{
+		expectThat(Arrays.asList("a", "b", "b")).isSorted().isMonotonic().not().isStrictlyIncreasing();
+		expectThat(Arrays.asList("ccc", "bb", "a")).isMonotonic().isSorted(Comparator.comparing(String::length).reversed());
+		
+		failAssert(() -> expectThat(Arrays.asList("a", "c", "b")).isSorted()).msgLines(
+			"ArrayList=<[a, c, b]>",
+			"expected to be sorted",
+			"but elems [1..2] are: [c, b]");
+	}
 }
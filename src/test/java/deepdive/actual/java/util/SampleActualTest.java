@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2021 jdlib, https://github.com/jdlib
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package deepdive.actual.java.util;
+
+
+import static deepdive.ExpectThat.*;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.Test;
+import deepdive.actual.AbstractActualTest;
+import deepdive.actual.java.util.stream.StreamActual;
+
+
+public class SampleActualTest extends AbstractActualTest
+{
+	@Test public void test()
+	{
+		// every 1000th element violates
+		List<Integer> list = new ArrayList<>();
+		for (int i=0; i<1_000_000; i++)
+			list.add(Integer.valueOf(i));
+		expectThat(list).sample(3000, 42)
+			.size(3000)
+			.allMatch(i -> i % 1000 != 999, 0.01, 0.95)
+			.not().allMatch(i -> i % 10 != 9, 0.01, 0.95);
+		expectThat(new HashSet<>(list)).sample(3000, 42).allMatch(i -> i % 1000 != 999, 0.01, 0.95);
+		new StreamActual<>(list.stream(), null).sample(3000, 42).allMatch(i -> i % 1000 != 999, 0.01, 0.95);
+		
+		// a complete sample tests the exact violation rate 
+		expectThat(list.subList(0, 100)).sample(1000, 42).allMatch(i -> i != 0, 0.02, 0.95);
+		
+		// failures report the seed which draws the same sample again
+		failAssert(() -> new StreamActual<>(IntStream.range(0, 1_000_000).boxed(), null).sample(1000, 42).allMatch(i -> i % 20 != 0, 0.01, 0.95)).msgLines()
+			.elem(0).startsWith("sample(1000, 42)=<[174, 3328, ").back()
+			.elem(1).equal("expected violation rate below: 0.01 (confidence 0.95)").back()
+			.elem(2).equal("but violations in sample     : 47 of 1000 (population 1000000)").back()
+			.elem(3).equal("first violation [33060]      : 33060").back()
+			.elem(4).equal("seed                         : 42");
+		
+		// the context reports the requested size, also if the population is smaller
+		failAssert(() -> expectThat(list.subList(0, 3)).sample(100, 42).allMatch(i -> i != 0, 0.01, 0.95)).msgLines()
+			.elem(0).startsWith("SubList=<[0, 1, 2]>.sample(100, 42)=<[0, 1, 2]>");
+		failAssert(() -> expectThat(new HashSet<>(list.subList(0, 3))).sample(100, 42).allMatch(i -> i != 0, 0.01, 0.95)).msgLines()
+			.elem(0).startsWith("HashSet=<[0, 1, 2]>.sample(100, 42)=<[0, 1, 2]>");
+		
+		expectThrows(IllegalArgumentException.class, () -> expectThat(list).sample(10, 42).allMatch(i -> true, 0.0, 0.95));
+		expectThrows(IllegalArgumentException.class, () -> expectThat(list).sample(10, 42).allMatch(i -> true, 0.01, 1.0));
+	}
+}
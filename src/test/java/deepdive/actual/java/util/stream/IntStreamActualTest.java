@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2021 jdlib, https://github.com/jdlib
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package deepdive.actual.java.util.stream;
+
+
+import static deepdive.ExpectThat.*;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import org.junit.Test;
+import deepdive.actual.AbstractActualTest;
+
+
+public class IntStreamActualTest extends AbstractActualTest
+{
+	@Test public void test()
+	{
+		stream().sum().equal(6);
+		stream().min().equal(1);
+		stream().max().equal(3);
+		expectThat(IntStream.empty()).max().isNull();
+		expectThat(stream().summaryStatistics().value().getAverage()).equal(2.0);
+		stream().distinctCount().equal(3);
+		expectThat(IntStream.of(0, 5, 0, -5, 5)).distinctCount().equal(3);
+		stream().elems$(3, 1, 2);
+		stream().not().elems$(3, 1);
+		stream().allMatch$(i -> i > 0);
+		stream().not().isSorted$();
+		expectThat(IntStream.range(0, 100_000).parallel()).isSorted$();
+		expectThat(IntStream.of(1, 2, 2, 3)).isSorted$();
+		expectThat(IntStream.of(1, 2, 2, 3)).not().isStrictlyIncreasing$();
+		expectThat(IntStream.range(0, 100_000).parallel()).isStrictlyIncreasing$();
+		expectThat(IntStream.range(0, 100_000).parallel().map(i -> i % 1000)).distinctCount().equal(1000);
+		// keys which only differ in their high bits
+		expectThat(IntStream.range(0, 200_000).map(i -> i << 14)).distinctCount().equal(200_000);
+		expectThat(LongStream.range(0, 200_000).map(i -> i << 40)).distinctCount().equal(200_000);
+		
+		failAssert(() -> expectThat(IntStream.of(3, 1, 2)).as("").elems$(3, 1, 2, 4)).msgLines(
+			".elems",
+			"expected [3]: 4",
+			"but was  [3]: (no more elems)");
+		
+		failAssert(() -> expectThat(IntStream.range(0, 100_000).parallel()).as("").allMatch$(i -> i != 4711)).msgLines(
+			".allMatch",
+			"expected all elems to match",
+			"but elem did not: 4711");
+		failAssert(() -> expectThat(IntStream.iterate(10, i -> i + 1)).as("").allMatch$(i -> i < 4711)).msgLines(
+			".allMatch",
+			"expected all elems to match",
+			"but elem [4701] did not: 4711");
+
+		// infinite sequential streams are consumed up to the violation
+		failAssert(() -> expectThat(IntStream.iterate(0, i -> i == 100 ? 0 : i + 1)).as("").isStrictlyIncreasing$()).msgLines(
+			"expected to be strictly increasing",
+			"but elems [100..101] are: [100, 0]");
+
+		failAssert(() -> expectThat(IntStream.range(0, 100_000).parallel().map(i -> i == 50_000 ? 0 : i)).as("").isSorted$()).msgLines(
+			"expected to be sorted",
+			"but elems [49999..50000] are: [49999, 0]");
+	}
+	
+	
+	@Test public void testLongAndDouble()
+	{
+		expectThat(LongStream.of(1, 2, Long.MAX_VALUE - 3)).sum().equal(Long.MAX_VALUE);
+		expectThat(LongStream.rangeClosed(1, 10).parallel()).isSorted$();
+		expectThat(LongStream.rangeClosed(1, 10).parallel()).distinctCount().equal(10);
+		expectThat(DoubleStream.of(0.5, 1.5)).sum().equal(2.0);
+		// -0.0 and 0.0 as well as NaNs are distinct like in DoubleStream.distinct()
+		expectThat(DoubleStream.of(0.0, -0.0, Double.NaN, Double.NaN)).distinctCount().equal(3);
+		expectThat(DoubleStream.of(1.0, Double.NaN)).elems$(1.0, Double.NaN);
+	}
+	
+	
+	private IntStreamActual<?,?> stream()
+	{
+		return expectThat(IntStream.of(3, 1, 2));
+	}
+}
@@ -16,9 +16,13 @@
 package deepdive.actual.java.util.stream;
 
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import java.util.Comparator;
 import org.junit.Test;
 import deepdive.actual.AbstractActualTest;
 
@@ -44,6 +48,64 @@ public class StreamActualTest extends AbstractActualTest
 	}
 	
 	
+	@Test public void testStreaming()
+	{
+		stream().sameElemsAs$(Arrays.asList("b", "a", "c"));
+		stream().not().sameElemsAs$(Stream.of("b", "a"));
+		stream().allMatch$(s -> s.length() == 1);
+		stream().not().allMatch$(s -> "a".equals(s));
+		stream().noneMatch$(s -> "x".equals(s));
+		stream().not().count$(2);
+		
+		// infinite streams are only consumed up to the first mismatch
+		failAssert(() -> new StreamActual<>(Stream.iterate(0, i -> i + 1), null).as("").sameElemsAs$(Stream.iterate(0, i -> i == 4711 ? 0 : i + 1))).msgLines(
+			".elems",
+			"expected [4712]: 0",
+			"but was  [4712]: 4712");
+
+		failAssert(() -> stream().as("").sameElemsAs$(Arrays.asList("b", "a", "c", "d"))).msgLines(
+			".elems",
+			"expected [3]: d",
+			"but was  [3]: (no more elems)");
+
+		failAssert(() -> new StreamActual<>(Stream.iterate(0, i -> i + 1), null).as("").allMatch$(i -> i < 1000)).msgLines(
+			".allMatch",
+			"expected all elems to match",
+			"but elem [1000] did not: 1000");
+
+		failAssert(() -> stream().as("").noneMatch$(s -> "a".equals(s))).msgLines(
+			".noneMatch",
+			"expected no elem to match",
+			"but elem [1] did: a");
+
+		failAssert(() -> new StreamActual<>(Stream.iterate(0, i -> i + 1), null).as("").count$(5)).msgLines(
+			".count",
+			"expected              : 5",
+			"but has more elems [5]: 5");
+
+		failAssert(() -> stream().as("").count$(4)).msgLines(
+			".count",
+			"expected: 4",
+			"but was : 3");
+
+		// parallel streams are tested by the stream operations
+		List<Integer> list = IntStream.range(0, 10_000).boxed().collect(Collectors.toList());
+		new StreamActual<>(list.parallelStream(), null).allMatch$(i -> i >= 0);
+		new StreamActual<>(list.parallelStream(), null).noneMatch$(i -> i < 0);
+		failAssert(() -> new StreamActual<>(list.parallelStream(), null).as("").allMatch$(i -> i % 1000 != 999)).msgLines(
+			".allMatch",
+			"expected all elems to match",
+			"but elem did not: 999");
+		failAssert(() -> new StreamActual<>(Stream.of("a", null, "b").parallel(), null).as("").noneMatch$(s -> s == null)).msgLines(
+			".noneMatch",
+			"expected no elem to match",
+			"but elem did: null");
+		int[] peeked = new int[1];
+		new StreamActual<>(list.parallelStream().peek(i -> peeked[0]++), null).count$(10_000);
+		expectEqual(0, peeked[0]);
+	}
+
+
 	private StreamActual<String,?,?> stream()
 	{
 		return stream("b", "a", "c");
@@ -54,4 +116,17 @@ public class StreamActualTest extends AbstractActualTest
 	{
 		return new StreamActual<>(Stream.of(elems), null);
 	}
+
+
+	@Test public void testOrder()
+	{
+		new StreamActual<>(Stream.of("a", "b", "c"), null).isStrictlyIncreasing$();
+		new StreamActual<>(Stream.of("c", "b", "a"), null).isMonotonic$();
+		new StreamActual<>(Stream.of("c", "b", "a"), null).isSorted$(Comparator.reverseOrder());
+		
+		// infinite streams are consumed up to the violation
+		failAssert(() -> new StreamActual<>(Stream.iterate(0, i -> i == 100 ? 0 : i + 1), null).as("").isSorted$()).msgLines(
+			"expected to be sorted",
+			"but elems [100..101] are: [100, 0]");
+	}
 }
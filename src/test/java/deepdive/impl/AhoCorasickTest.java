@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2021 jdlib, https://github.com/jdlib
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package deepdive.impl;
+
+
+import java.util.Random;
+import org.junit.Test;
+import deepdive.AbstractTest;
+
+
+/**
+ * Tests {@link AhoCorasick}.
+ */
+public class AhoCorasickTest extends AbstractTest
+{
+	@Test public void testFirstIndex()
+	{
+		Random random = new Random(42);
+		StringBuilder text = new StringBuilder();
+		for (int i=0; i<5000; i++)
+			text.append((char)('a' + random.nextInt(4)));
+
+		String[] words = new String[500];
+		for (int w=0; w<words.length; w++)
+		{
+			StringBuilder word = new StringBuilder();
+			for (int i=random.nextInt(8); i>=0; i--)
+				word.append((char)('a' + random.nextInt(4)));
+			words[w] = word.toString();
+		}
+
+		AhoCorasick automaton = new AhoCorasick(words);
+		AhoCorasick.Scanner scanner = automaton.scanner();
+		// scan in chunks, words may span chunk boundaries
+		char[] chars = text.toString().toCharArray();
+		for (int i=0; i<chars.length; i+=7)
+			scanner.scan(chars, i, Math.min(7, chars.length - i));
+
+		int found = 0;
+		for (int w=0; w<words.length; w++)
+		{
+			int index = text.indexOf(words[w]);
+			expectEqual(index, (int)scanner.firstIndex(w));
+			if (index >= 0)
+				found++;
+		}
+		expectEqual(found, scanner.foundCount());
+		expectEqual(found < words.length, !scanner.missing().isEmpty());
+	}
+}
@@ -29,6 +29,65 @@ public class ConfigTest extends AbstractTest
 			"ErrorFactory: Opentest4j",
 			"ErrorFormat : default",
 			"ValueFormat : default",
-			"Difference  : default");
+			"Difference  : default",
+			"StackCapture: FULL",
+			"SoftLimit   : none",
+			"Parallelism : threshold=1048576",
+			"Scope       : global");
+	}
+	
+	
+	@Test public void testScope() throws Exception
+	{
+		ValueFormat scoped = new ValueFormat()
+		{
+			@Override public String toString()
+			{
+				return "scoped";
+			}
+		};
+		ValueFormat[] seen = new ValueFormat[2];
+		Thread before = new Thread(() -> seen[0] = ValueFormat.get());
+		
+		try (Config.Scope scope = Config.get().with(scoped).open())
+		{
+			expectSame(scoped, ValueFormat.get());
+			expectThat(Config.info())
+				.contains("ValueFormat : scoped")
+				.contains("Scope       : scoped (level 1)");
+			
+			// a thread created outside the scope uses the global config, a thread created inside inherits the scope
+			Thread inside = new Thread(() -> seen[1] = ValueFormat.get());
+			before.start();
+			inside.start();
+			before.join();
+			inside.join();
+			expectSame(Config.getGlobal().getValueFormat(), seen[0]);
+			expectSame(scoped, seen[1]);
+			
+			Config.get().with(StackCapture.NONE).run(() -> {
+				expectSame(StackCapture.NONE, StackCapture.get());
+				expectSame(scoped, ValueFormat.get());
+			});
+			expectSame(StackCapture.FULL, StackCapture.get());
+		}
+		expectSame(Config.getGlobal(), Config.get());
+	}
+	
+	
+	@Test public void testScopeCloseOrder()
+	{
+		Config.Scope outer = Config.get().open();
+		Config.Scope inner = Config.get().open();
+		try
+		{
+			expectEqual(2, inner.getLevel());
+			expectThrows(IllegalStateException.class, outer::close);
+		}
+		finally
+		{
+			inner.close();
+			outer.close();
+		}
 	}
 }
@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2021 jdlib, https://github.com/jdlib
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package deepdive.impl;
+
+
+import static deepdive.ExpectThat.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import org.junit.Test;
+import deepdive.AbstractTest;
+
+
+/**
+ * Tests {@link Difference}.
+ */
+public class DifferenceTest extends AbstractTest
+{
+	@Test public void testListHunks()
+	{
+		List<Integer> expected = range(0, 100);
+		List<Integer> actual   = range(0, 100);
+		actual.add(0, Integer.valueOf(-1));
+		actual.remove(50);
+		actual.set(80, Integer.valueOf(800));
+
+		expectEqual(Arrays.asList(
+			"unexpected [0]: -1",
+			"missing [49]: 49",
+			"expected [80]: 80",
+			"but was  [80]: 800"),
+			log(new Difference(), expected, actual));
+
+		// non RandomAccess lists and arrays
+		expectEqual(Arrays.asList(
+			"expected size: 3",
+			"but was  size: 2",
+			"missing [1]: b"),
+			log(new Difference(), new LinkedList<>(Arrays.asList("a", "b", "c")), Arrays.asList("a", "c")));
+		expectEqual(Arrays.asList(
+			"expected len: 2",
+			"but was  len: 3",
+			"unexpected [0]: 1",
+			"expected [1]: 6",
+			"but was  [2]: 7"),
+			log(new Difference(), new int[] { 4, 6 }, new int[] { 1, 4, 7 }));
+	}
+
+
+	@Test public void testHunkContext()
+	{
+		List<Integer> expected = range(0, 100);
+		List<Integer> actual   = range(0, 100);
+		actual.add(0, Integer.valueOf(-1));
+		actual.remove(50);
+		actual.set(51, Integer.valueOf(510));
+		actual.set(80, Integer.valueOf(800));
+
+		expectEqual(Arrays.asList(
+			"unexpected [0]: -1",
+			"same [0][1]: 0",
+			"same [48][49]: 48",
+			"missing [49]: 49",
+			"same [50]: 50",
+			"expected [51]: 51",
+			"but was  [51]: 510",
+			"same [52]: 52",
+			"same [79]: 79",
+			"expected [80]: 80",
+			"but was  [80]: 800",
+			"same [81]: 81"),
+			log(new Difference()
+			{
+				@Override protected int getHunkContext()
+				{
+					return 1;
+				}
+			}, expected, actual));
+	}
+	
+	
+	@Test public void testListBounds()
+	{
+		List<Integer> expected = range(0, 100);
+		List<Integer> actual   = new ArrayList<>();
+		for (int i=0; i<100; i++)
+			actual.add(Integer.valueOf(i % 3 == 0 ? -i : i));
+		List<String> lines = log(new Difference(), expected, actual);
+		expectEqual(21, lines.size());
+		expectEqual("expected [3]: 3", lines.get(0));
+		expectEqual("more differences: 23", lines.get(20));
+
+		List<String> fallback = log(new Difference()
+		{
+			@Override protected int getMaxEditDistance()
+			{
+				return 2;
+			}
+		}, expected, actual);
+		expectEqual(21, fallback.size());
+		expectEqual("more differences: 23", fallback.get(20));
+	}
+
+
+	@Test public void testPrimitiveArrayRanges()
+	{
+		long[] expected = new long[1_000_000];
+		long[] actual	= expected.clone();
+		actual[10] = 1;
+		for (int i=500; i<520; i++)
+			actual[i] = i;
+		for (int i=1000; i<1012; i++)
+			actual[i * 100] = i;
+
+		List<String> lines = log(new Difference(), expected, actual);
+		expectEqual(21, lines.size());
+		expectEqual("expected [10]: 0", lines.get(0));
+		expectEqual("but was  [10]: 1", lines.get(1));
+		expectEqual("expected [500..519]: [0, 0, 0, 0, 0, 0, 0, 0, 0, 0, \u2026]", lines.get(2));
+		expectEqual("but was  [500..519]: [500, 501, 502, 503, 504, 505, 506, 507, 508, 509, \u2026]", lines.get(3));
+		// 10 more elements of the second range and 4 single element ranges
+		expectEqual("more differences: 14", lines.get(20));
+		
+		// different length: equal prefix is skipped
+		actual = new long[] { 0, 0, 0, 7 };
+		lines = log(new Difference(), expected, actual);
+		expectEqual(14, lines.size());
+		expectEqual(Arrays.asList(
+			"expected len: 1000000",
+			"but was  len: 4",
+			"expected [3]: 0",
+			"but was  [3]: 7",
+			"missing [4]: 0"),
+			lines.subList(0, 5));
+		expectEqual("more differences: 999987", lines.get(13));
+	}
+	
+	
+	@Test public void testText()
+	{
+		// short single line texts are not logged
+		expectEqual(0, log(new Difference(), "abc", "abd").size());
+
+		StringBuilder json = new StringBuilder("{");
+		for (int i=0; i<10000; i++)
+			json.append("\"k").append(i).append("\":").append(i).append(',');
+		String expected	= json.append('}').toString();
+		String actual	= expected.replace("\"k5000\":5000", "\"k5000\":5001");
+		int index		= expected.indexOf("\"k5000\"") + 11;
+		expectEqual(Arrays.asList(
+			"expected [" + index + "]: \u202699\":4999,\"k5000\":5000,\"k5001\":5001,\"k5002\u2026",
+			"but was  [" + index + "]: \u202699\":4999,\"k5000\":5001,\"k5001\":5001,\"k5002\u2026"),
+			log(new Difference(), expected, actual));
+
+		expectEqual(Arrays.asList(
+			"expected line 2 [3]: beta",
+			"but was  line 2 [3]: betA",
+			"missing line 4: delta",
+			"unexpected line 5: epsilon"),
+			log(new Difference(), 
+				"alpha\nbeta\ngamma\ndelta\nzeta", 
+				"alpha\nbetA\ngamma\nzeta\nepsilon"));
+	}
+	
+	
+	private static List<Integer> range(int from, int to)
+	{
+		List<Integer> list = new ArrayList<>();
+		for (int i=from; i<to; i++)
+			list.add(Integer.valueOf(i));
+		return list;
+	}
+
+
+	@Test public void testOverride()
+	{
+		Difference custom = new Difference()
+		{
+			@Override public void log(Log log, Object expected, Object actual)
+			{
+				if (expected instanceof String)
+					log.add("custom text");
+				else
+					super.log(log, expected, actual);
+			}
+			
+			
+			@Override protected void logArray(Log log, Object expecteds, Object actuals)
+			{
+				log.add("custom array");
+			}
+		};
+		Config.get().with(custom).run(() -> {
+			failAssert(() -> expectThat("abc").equal("abd")).msgLines().contains("custom text");
+			failAssert(() -> expectThat(new int[] { 1 }).equal(new int[] { 2 })).msgLines().contains("custom array");
+			expectEqual(Arrays.asList("custom array"), log(custom, new int[] { 1 }, new int[] { 2 }));
+		});
+	}
+
+
+	private static List<String> log(Difference difference, Object expected, Object actual)
+	{
+		List<String> lines = new ArrayList<>();
+		difference.log(new Difference.Log()
+		{
+			@Override public void add(String msg)
+			{
+				lines.add(msg);
+			}
+
+			@Override public void add(String msg, Object value)
+			{
+				lines.add(msg + ": " + value);
+			}
+
+			@Override public void addNotEqual(String what, Object expected, Object actual)
+			{
+				addNotEqual(what, what, expected, actual);
+			}
+		}, expected, actual);
+		return lines;
+	}
+}
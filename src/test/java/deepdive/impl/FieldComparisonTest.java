@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2021 jdlib, https://github.com/jdlib
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package deepdive.impl;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Test;
+import deepdive.AbstractTest;
+
+
+/**
+ * Tests {@link FieldComparison}.
+ */
+public class FieldComparisonTest extends AbstractTest
+{
+	@Test public void testSet()
+	{
+		FieldComparison fc = FieldComparison.DEFAULT;
+		expectTrue(fc.equal(
+			new HashSet<>(Arrays.asList(new Item("a"), new Item("b"))),
+			new HashSet<>(Arrays.asList(new Item("b"), new Item("a")))));
+
+		List<FieldComparison.Mismatch> mismatches = new ArrayList<>();
+		expectEqual(2, fc.compare(
+			new HashSet<>(Arrays.asList(new Item("a"), new Item("b"))),
+			new HashSet<>(Arrays.asList(new Item("a"), new Item("c"))),
+			mismatches, 10));
+		expectEqual("[[]: b != (missing), []: (missing) != c]", mismatches.toString());
+
+		expectTrue(fc.ignoring("[]").equal(
+			new HashSet<>(Arrays.asList(new Item("a"))),
+			new HashSet<>(Arrays.asList(new Item("b")))));
+	}
+
+
+	@Test public void testOptional()
+	{
+		FieldComparison fc = FieldComparison.DEFAULT;
+		expectTrue(fc.equal(Optional.of(new Item("a")), Optional.of(new Item("a"))));
+		expectTrue(fc.equal(Optional.empty(), Optional.empty()));
+		expectFalse(fc.equal(Optional.of(new Item("a")), Optional.of(new Item("b"))));
+		expectFalse(fc.equal(Optional.of(new Item("a")), Optional.empty()));
+	}
+
+
+	@Test public void testDeepChain()
+	{
+		Node expected = chain(100_000, "end");
+		expectTrue(FieldComparison.DEFAULT.equal(expected, chain(100_000, "end")));
+
+		List<FieldComparison.Mismatch> mismatches = new ArrayList<>();
+		expectEqual(1, FieldComparison.DEFAULT.compare(expected, chain(100_000, "END"), mismatches, 1));
+		expectTrue(mismatches.get(0).path.endsWith("next.next.item.name"));
+	}
+
+
+	private static Node chain(int length, String last)
+	{
+		Node node = null;
+		for (int i=0; i<length; i++)
+			node = new Node(node, i == 0 ? Optional.of(new Item(last)) : Optional.empty(), new HashSet<>());
+		return node;
+	}
+
+
+	private static class Item
+	{
+		public Item(String name)
+		{
+			this.name = name;
+		}
+
+
+		@Override public String toString()
+		{
+			return name;
+		}
+
+
+		private final String name;
+	}
+
+
+	private static class Node
+	{
+		public Node(Node next, Optional<Item> item, HashSet<Item> items)
+		{
+			this.next  = next;
+			this.item  = item;
+			this.items = items;
+		}
+
+
+		private final Node next;
+		private final Optional<Item> item;
+		private final HashSet<Item> items;
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2021 jdlib, https://github.com/jdlib
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package deepdive.impl;
+
+
+import static deepdive.ExpectThat.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import org.junit.Test;
+import deepdive.AbstractTest;
+
+
+/**
+ * Tests {@link Parallelism}.
+ */
+public class ParallelismTest extends AbstractTest
+{
+	@Test public void testArrays()
+	{
+		Parallelism parallelism = Parallelism.DEFAULT.withThreshold(1000);
+		long[] expected = new long[1_000_000];
+		long[] actual	= expected.clone();
+		expectEqual(-1, parallelism.mismatch(expected, actual));
+		
+		// the smallest index is found although later ranges may finish first
+		actual[999_999]	= 1;
+		actual[700_000]	= 1;
+		actual[300_001]	= 1;
+		expectEqual(300_001, parallelism.mismatch(expected, actual));
+		expectEqual(300_001, Parallelism.NONE.mismatch(expected, actual));
+		
+		// prefix
+		expectEqual(10_000, parallelism.mismatch(expected, new long[10_000]));
+		
+		// doubles are compared like Arrays.equals
+		double[] d1 = new double[5000];
+		double[] d2 = d1.clone();
+		d1[4000] = d2[4000] = Double.NaN;
+		expectEqual(-1, parallelism.mismatch(d1, d2));
+		d2[4500] = -0.0;
+		expectEqual(4500, parallelism.mismatch(d1, d2));
+		
+		String[][] s1 = new String[5000][];
+		String[][] s2 = new String[5000][];
+		Arrays.fill(s1, new String[] { "a" });
+		Arrays.fill(s2, new String[] { "a" });
+		expectEqual(-1, parallelism.mismatch(s1, s2));
+		s2[4999] = new String[] { "b" };
+		expectEqual(4999, parallelism.mismatch(s1, s2));
+		
+		expectThrows(IllegalArgumentException.class, () -> parallelism.mismatch(new int[1], new long[1]));
+		expectThrows(IllegalArgumentException.class, () -> Parallelism.DEFAULT.withThreshold(0));
+	}
+	
+	
+	@Test public void testLists()
+	{
+		Parallelism parallelism = Parallelism.DEFAULT.withThreshold(1000);
+		List<Integer> expected = new ArrayList<>();
+		for (int i=0; i<100_000; i++)
+			expected.add(Integer.valueOf(i));
+		List<Integer> actual = new ArrayList<>(expected);
+		expectEqual(-1, parallelism.mismatch(expected, actual));
+		actual.set(77_777, null);
+		expectEqual(77_777, parallelism.mismatch(expected, actual));
+		expectEqual(77_777, parallelism.mismatch(new LinkedList<>(expected), new LinkedList<>(actual)));
+		expectEqual(50_000, parallelism.mismatch(expected, expected.subList(0, 50_000)));
+	}
+	
+	
+	@Test public void testConfig()
+	{
+		int[] expected = new int[100_000];
+		int[] actual   = expected.clone();
+		actual[99_999] = 1;
+		List<Integer> list = new ArrayList<>(Collections.nCopies(100_000, Integer.valueOf(0)));
+		
+		Config.get().with(Parallelism.DEFAULT.withThreshold(1000)).run(() -> {
+			expectEqual("threshold=1000", Parallelism.get().toString());
+			expectTrue(Value.arraysEqual(expected, expected.clone(), true));
+			expectFalse(Value.arraysEqual(expected, actual, true));
+			expectTrue(Value.equal(list, new ArrayList<>(list)));
+			// lists of other classes keep their own equals() semantics
+			expectTrue(Value.equal(new CaseInsensitiveList("a", 2000), new CaseInsensitiveList("A", 2000)));
+			expectThat(actual).not().elems(expected);
+			failAssert(() -> expectThat(actual).elems(expected)).msgLines()
+				.elem(4).equal("- expected [99999]: 0").back()
+				.elem(5).equal("- but was  [99999]: 1");
+		});
+		expectSame(Parallelism.DEFAULT, Parallelism.get());
+	}
+	
+	
+	private static class CaseInsensitiveList extends ArrayList<String>
+	{
+		private static final long serialVersionUID = 1L;
+
+
+		public CaseInsensitiveList(String elem, int size)
+		{
+			super(Collections.nCopies(size, elem));
+		}
+		
+		
+		@Override public boolean equals(Object other)
+		{
+			if (!(other instanceof List) || (((List<?>)other).size() != size()))
+				return false;
+			for (int i=0; i<size(); i++)
+			{
+				if (!get(i).equalsIgnoreCase(String.valueOf(((List<?>)other).get(i))))
+					return false;
+			}
+			return true;
+		}
+		
+		
+		@Override public int hashCode()
+		{
+			return size();
+		}
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2021 jdlib, https://github.com/jdlib
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package deepdive.impl;
+
+
+import java.util.regex.Pattern;
+import org.junit.Test;
+import deepdive.AbstractTest;
+
+
+/**
+ * Tests {@link PatternCache}.
+ */
+public class PatternCacheTest extends AbstractTest
+{
+	@Test public void testGlobToRegex()
+	{
+		expectEqual("", PatternCache.globToRegex(""));
+		expectEqual(".*\\Q.txt\\E", PatternCache.globToRegex("*.txt"));
+		expectEqual("\\Qa\\E.\\Q(b)\\E.*", PatternCache.globToRegex("a?(b)*"));
+		expectTrue(PatternCache.glob().get("a?(b)*").matcher("ax(b)yz").matches());
+		expectFalse(PatternCache.glob().get("a?(b)*").matcher("axby").matches());
+	}
+
+
+	@Test public void testCache()
+	{
+		PatternCache cache = new PatternCache(2, Pattern::compile);
+		Pattern a = cache.get("a+");
+		expectSame(a, cache.get("a+"));
+		expectEqual(1L, cache.getHits());
+		expectEqual(1L, cache.getMisses());
+
+		cache.get("b+");
+		cache.get("a+");
+		// evicts the least recently used pattern "b+"
+		cache.get("c+");
+		expectEqual(2, cache.size());
+		expectSame(a, cache.get("a+"));
+		expectEqual(3L, cache.getHits());
+		cache.get("b+");
+		expectEqual(4L, cache.getMisses());
+		expectEqual("size 2/2, hits 3, misses 4", cache.toString());
+
+		cache.clear();
+		expectEqual(0, cache.size());
+		expectEqual(0L, cache.getHits());
+	}
+}
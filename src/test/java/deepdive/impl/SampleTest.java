@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2021 jdlib, https://github.com/jdlib
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package deepdive.impl;
+
+
+import static deepdive.ExpectThat.*;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.Test;
+import deepdive.AbstractTest;
+
+
+/**
+ * Tests {@link Sample}.
+ */
+public class SampleTest extends AbstractTest
+{
+	@Test public void testList()
+	{
+		List<Integer> list = range(100_000);
+		Sample<Integer> sample = Sample.of(list, 1000, 42);
+		expectEqual(1000, sample.getElems().size());
+		expectEqual(100_000L, sample.getPopulation());
+		expectFalse(sample.isComplete());
+		expectThat(sample.getElems()).isStrictlyIncreasing();
+		for (int i=0; i<1000; i++)
+			expectEqual((long)sample.getElems().get(i).intValue(), sample.getIndex(i));
+		
+		// reproducible
+		expectEqual(sample.getElems(), Sample.of(list, 1000, 42).getElems());
+		expectThat(sample.getElems()).not().equal(Sample.of(list, 1000, 43).getElems());
+		
+		// complete
+		expectTrue(Sample.of(list.subList(0, 10), 20, 42).isComplete());
+		expectEqual(list.subList(0, 10), Sample.of(list.subList(0, 10), 20, 42).getElems());
+		
+		expectThrows(IllegalArgumentException.class, () -> Sample.of(list, 0, 42));
+	}
+	
+	
+	@Test public void testReservoir()
+	{
+		Sample<Integer> sample = Sample.of(IntStream.range(0, 100_000).boxed().iterator(), 1000, 42);
+		expectEqual(1000, sample.getElems().size());
+		expectEqual(100_000L, sample.getPopulation());
+		expectThat(sample.getElems()).isStrictlyIncreasing();
+		expectEqual(sample.getElems(), Sample.of(new LinkedList<>(range(100_000)), 1000, 42).getElems());
+		
+		// the sample is uniform: the mean index is near the middle
+		double mean = sample.getElems().stream().mapToInt(Integer::intValue).average().getAsDouble();
+		expectTrue(Math.abs(mean - 50_000) < 3000);
+		
+		Sample<Integer> small = Sample.of(range(5).iterator(), 10, 42);
+		expectTrue(small.isComplete());
+		expectEqual(range(5), small.getElems());
+	}
+	
+	
+	@Test public void testBinomialCdf()
+	{
+		// no violations in 299 elements are needed for a violation rate below 1% at confidence 95%
+		expectTrue(Sample.binomialCdf(0, 298, 0.01) > 0.05);
+		expectTrue(Sample.binomialCdf(0, 299, 0.01) <= 0.05);
+		expectEqual(1.0, Sample.binomialCdf(10, 10, 0.5));
+		expectTrue(Math.abs(Sample.binomialCdf(5, 10, 0.5) - 0.623046875) < 1e-9);
+		// large samples do not underflow
+		expectTrue(Math.abs(Sample.binomialCdf(100_000, 200_000, 0.5) - 0.5) < 0.01);
+	}
+	
+	
+	private static List<Integer> range(int size)
+	{
+		List<Integer> list = new ArrayList<>();
+		for (int i=0; i<size; i++)
+			list.add(Integer.valueOf(i));
+		return list;
+	}
+}
@@ -16,6 +16,19 @@
 package deepdive.impl;
 
 
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import org.junit.Test;
 import deepdive.AbstractTest;
 
@@ -35,6 +48,81 @@ public class ValueFormatTest extends AbstractTest
 			.format(String.class, "java.lang.String")
 			.format(new int[] {1, 3, 5}, "[1, 3, 5]")
 			.format("s", "s")
-			.format(new Object[5000], "[null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, nul…ull, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null]");
+			.format(new Object[5000], "[null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, …(4966 more)…, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null]");
+	}
+	
+	
+	@Test public void testContainers() throws Exception
+	{
+		List<Integer> list = new ArrayList<>();
+		for (int i=0; i<10000; i++)
+			list.add(Integer.valueOf(i));
+		String listString = "[0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, …(9955 more)…, " + 
+			"9983, 9984, 9985, 9986, 9987, 9988, 9989, 9990, 9991, 9992, 9993, 9994, 9995, 9996, 9997, 9998, 9999]";
+		Map<String,Object> map = new LinkedHashMap<>();
+		for (int i=0; i<100; i++)
+			map.put("k" + i, Integer.valueOf(i));
+		List<Object> self = new ArrayList<>();
+		self.add("a");
+		self.add(self);
+		List<Object> cycle = new ArrayList<>();
+		cycle.add(Collections.singletonList(cycle));
+		StringBuilder chars = new StringBuilder();
+		for (int i=0; i<1000; i++)
+			chars.append((char)('a' + i % 26));
+		
+		ValueFormatActual.of(new ValueFormat())
+			.format(list, listString)
+			.format(new LinkedList<>(list), listString)
+			.format(new TreeSet<>(list), listString)
+			// no tail window for containers which cannot be iterated backwards
+			.format(new LinkedHashSet<>(list), "[0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, " + 
+				"28, 29, 30, 31, 32, 33, 34, 35, 36, 37, 38, 39, 40, 41, 42, 43, 44, 45, 46, 47, 48, 49, 50, 51, 52, …(9947 more)…]")
+			.format(map, "{k0=0, k1=1, k2=2, k3=3, k4=4, k5=5, k6=6, k7=7, k8=8, k9=9, k10=10, k11=11, k12=12, k13=13, k14=14, k15=15, " + 
+				"k16=16, k17=17, k18=18, k19=19, k20=20, k21=21, k22=22, k23=23, k24=24, k25=25, k26=26, k27=27, …(72 more)…}")
+			.format(new TreeMap<>(map), "{k0=0, k1=1, k10=10, k11=11, k12=12, k13=13, k14=14, k15=15, k16=16, k17=17, k18=18, k19=19, k2=2, k20=20, …(73 more)…, " + 
+				"k88=88, k89=89, k9=9, k90=90, k91=91, k92=92, k93=93, k94=94, k95=95, k96=96, k97=97, k98=98, k99=99}")
+			.format(self, "[a, (this Collection)]")
+			.format(cycle, "[[(cycle)]]")
+			.format(Arrays.asList(new int[] { 1, 2 }, "x"), "[[1, 2], x]")
+			.format(chars, new ValueFormat().shorten(chars.toString(), 200));
+		
+		StringBuilder out = new StringBuilder();
+		new ValueFormat().format(list, out, 20);
+		expectEqual("[0, 1, 2, 3, …(9994 more)…, 9998, 9999]", out.toString());
+		
+		// other containers are only iterated up to the end of the head window
+		int[] iterated = new int[1];
+		Collection<Integer> col = new AbstractCollection<Integer>()
+		{
+			@Override public Iterator<Integer> iterator()
+			{
+				Iterator<Integer> it = list.iterator();
+				return new Iterator<Integer>()
+				{
+					@Override public boolean hasNext()
+					{
+						return it.hasNext();
+					}
+					
+					
+					@Override public Integer next()
+					{
+						iterated[0]++;
+						return it.next();
+					}
+				};
+			}
+
+			
+			@Override public int size()
+			{
+				return list.size();
+			}
+		};
+		out.setLength(0);
+		new ValueFormat().format(col, out, 20);
+		expectEqual("[0, 1, 2, 3, 4, 5, 6, …(9993 more)…]", out.toString());
+		expectEqual(7, iterated[0]);
 	}
 }